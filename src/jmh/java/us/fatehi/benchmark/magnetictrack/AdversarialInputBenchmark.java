@@ -0,0 +1,103 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.ParseLimits;
+
+/**
+ * Time taken to parse garbage from a faulty card reader, of increasing length, in shapes that start
+ * a track over and over without finishing it. Without an input limit, the time should grow
+ * linearly with the length of the input. With the default input limit, the time should stay flat
+ * once the input is longer than the limit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdversarialInputBenchmark {
+
+  /** Shapes of garbage input. */
+  public enum Shape {
+    /** Track 1 with a name that never ends. */
+    Track1Name("%B5350290149345177^", "A"),
+    /** Track 1 with discretionary data that never ends. */
+    Track1Data("%B5350290149345177^FATEHI/SUALEH^1604201", "0"),
+    /** Track 2 start sentinels, each with a field that does not finish. */
+    Track2Starts(";", ";0=00"),
+    /** Track 2 with discretionary data up to a distant end sentinel. */
+    Track2Data(";5350290149345177=1604201", "0"),
+    /** Track 3 start sentinels, without an end sentinel. */
+    Track3Starts("", "+"),
+    /** Whitespace and line breaks. */
+    Whitespace("", " \r\n");
+
+    private final String prefix;
+    private final String repeated;
+
+    Shape(final String prefix, final String repeated) {
+      this.prefix = prefix;
+      this.repeated = repeated;
+    }
+
+    String generate(final int length) {
+      final StringBuilder buffer = new StringBuilder(length + repeated.length() + 1);
+      buffer.append(prefix);
+      while (buffer.length() < length - 1) {
+        buffer.append(repeated);
+      }
+      buffer.setLength(length - 1);
+      return buffer.append('?').toString();
+    }
+  }
+
+  @Param({"100", "1000", "10000", "100000"})
+  public int length;
+
+  @Param({"true", "false"})
+  public boolean limited;
+
+  @Param public Shape shape;
+
+  private String input;
+
+  @Benchmark
+  public BankCardMagneticTrack fromString() {
+    return BankCardMagneticTrack.from(input);
+  }
+
+  @Setup
+  public void setup() {
+    input = shape.generate(length);
+    if (!limited) {
+      ParseLimits.setMaximumInputLength(Integer.MAX_VALUE);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    ParseLimits.setMaximumInputLength(ParseLimits.DEFAULT_MAXIMUM_INPUT_LENGTH);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.fatehi.creditcardnumber.BankCard;
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.FormatVerbosity;
+
+/**
+ * Throughput of parsing complete swipes, and of using the parsed tracks. Run with the "gc" profiler
+ * to see the allocation rate per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BankCardMagneticTrackBenchmark {
+
+  /**
+   * Formats a swipe into a reused buffer, without the bank card information. Compare with {@link
+   * #toFormattedString(SwipeState)} for the cost of building strings.
+   */
+  @Benchmark
+  public StringBuilder formatTo(final SwipeState state) {
+    final StringBuilder buffer = state.buffer;
+    buffer.setLength(0);
+    return state.tracks[state.next()].formatTo(buffer, FormatVerbosity.Tracks);
+  }
+
+  @Benchmark
+  public BankCardMagneticTrack fromByteArray(final SwipeState state) {
+    final byte[] bytes = state.bytes[state.next()];
+    return BankCardMagneticTrack.from(bytes, 0, bytes.length);
+  }
+
+  @Benchmark
+  public BankCardMagneticTrack fromByteBuffer(final SwipeState state) {
+    return BankCardMagneticTrack.from(state.buffers[state.next()]);
+  }
+
+  @Benchmark
+  public BankCardMagneticTrack fromCharArray(final SwipeState state) {
+    return BankCardMagneticTrack.from(state.chars[state.next()]);
+  }
+
+  /**
+   * Parses a swipe, and disposes all of its sensitive data. Compare with {@link
+   * #fromString(SwipeState)} for the cost of disposing.
+   */
+  @Benchmark
+  public BankCardMagneticTrack fromStringAndDispose(final SwipeState state) {
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from(state.strings[state.next()]);
+    track.disposeRawData();
+    track.getTrack1().disposeRawData();
+    track.getTrack1().disposeDiscretionaryData();
+    track.getTrack1().getAccountNumber().dispose();
+    track.getTrack2().disposeRawData();
+    track.getTrack2().disposeDiscretionaryData();
+    track.getTrack2().getAccountNumber().dispose();
+    track.getTrack3().disposeRawData();
+    track.getTrack3().disposeDiscretionaryData();
+    return track;
+  }
+
+  @Benchmark
+  public BankCardMagneticTrack fromString(final SwipeState state) {
+    return BankCardMagneticTrack.from(state.strings[state.next()]);
+  }
+
+  /** Checks a swipe for well-formed tracks, which is the cost of rejecting a misread. */
+  @Benchmark
+  public int quickCheck(final SwipeState state) {
+    return BankCardMagneticTrack.quickCheck(state.strings[state.next()]);
+  }
+
+  @Benchmark
+  public BankCard toBankCard(final SwipeState state) {
+    return state.tracks[state.next()].toBankCard();
+  }
+
+  @Benchmark
+  public String toFormattedString(final SwipeState state) {
+    return state.tracks[state.next()].toString();
+  }
+}
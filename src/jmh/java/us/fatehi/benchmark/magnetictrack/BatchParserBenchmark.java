@@ -0,0 +1,69 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.fatehi.magnetictrack.BatchParseResult;
+import us.fatehi.magnetictrack.BatchParser;
+
+/**
+ * Time to parse a large batch of swipes, on fork-join pools of different sizes. Compare the scores
+ * for each parallelism to see how the batch parser scales with cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchParserBenchmark {
+
+  @Param({"1", "2", "4", "8", "16", "32"})
+  public int parallelism;
+
+  @Param({"100000"})
+  public int batchSize;
+
+  private String[] swipes;
+  private ForkJoinPool pool;
+
+  @Benchmark
+  public BatchParseResult parseAll() {
+    return BatchParser.parseAll(swipes, pool);
+  }
+
+  @Setup
+  public void setup() {
+    final String[] valid = SwipeCorpus.Valid.getSwipes();
+    swipes = new String[batchSize];
+    for (int i = 0; i < batchSize; i++) {
+      swipes[i] = valid[i % valid.length];
+    }
+    pool = new ForkJoinPool(parallelism);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.fatehi.magnetictrack.DecodedTrack;
+import us.fatehi.magnetictrack.F2FDecoder;
+
+/** Throughput of decoding raw track bits, for swipes in either direction. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class F2FDecoderBenchmark {
+
+  private static final String[] tracks = {
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?",
+    ";5350290149345177=16042010000056700100?",
+    ";6202408082356005=15046200000010000000000004976?",
+  };
+
+  /** Encodes track characters as raw bits, packed from the most significant bit. */
+  private static byte[] encode(final int track, final String characters, final boolean reversed) {
+    final int dataBits = track == 1 ? 6 : 4;
+    final int offset = track == 1 ? 0x20 : 0x30;
+    final boolean[] bits = new boolean[40 + (characters.length() + 1) * (dataBits + 1)];
+    int position = 20;
+    int lrc = 0;
+    for (int i = 0; i <= characters.length(); i++) {
+      final int data = i < characters.length() ? characters.charAt(i) - offset : lrc;
+      lrc ^= data;
+      boolean parity = true;
+      for (int j = 0; j < dataBits; j++) {
+        bits[position++] = (data >>> j & 1) == 1;
+        parity ^= bits[position - 1];
+      }
+      bits[position++] = parity;
+    }
+
+    final byte[] packed = new byte[(bits.length + 7) / 8];
+    for (int i = 0; i < bits.length; i++) {
+      if (bits[reversed ? bits.length - 1 - i : i]) {
+        packed[i / 8] |= (byte) (0x80 >>> (i % 8));
+      }
+    }
+    return packed;
+  }
+
+  @Param({"false", "true"})
+  public boolean reversed;
+
+  private byte[][] bits;
+
+  @Benchmark
+  public DecodedTrack[] decode() {
+    final DecodedTrack[] decoded = new DecodedTrack[tracks.length];
+    for (int i = 0; i < tracks.length; i++) {
+      decoded[i] = F2FDecoder.decode(i + 1, bits[i], bits[i].length * 8);
+    }
+    return decoded;
+  }
+
+  @Setup
+  public void setup() {
+    bits = new byte[tracks.length][];
+    for (int i = 0; i < tracks.length; i++) {
+      bits[i] = encode(i + 1, tracks[i], reversed);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import us.fatehi.magnetictrack.MagneticTrackParser;
+import us.fatehi.magnetictrack.MaskedTrackData;
+import us.fatehi.magnetictrack.TrackVisitor;
+
+/**
+ * Throughput of a reused parser that reports fields to a visitor. Compare with {@link
+ * BankCardMagneticTrackBenchmark} for the cost of creating track objects.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MagneticTrackParserBenchmark {
+
+  private final MagneticTrackParser parser = new MagneticTrackParser();
+  private TrackVisitor visitor;
+
+  /** Masks a swipe while parsing it, which is the cost of producing loggable output. */
+  @Benchmark
+  public MaskedTrackData mask(final SwipeState state) {
+    return parser.mask(state.strings[state.next()]);
+  }
+
+  @Benchmark
+  public void parseByteBuffer(final SwipeState state) {
+    parser.parse(state.buffers[state.next()], visitor);
+  }
+
+  @Benchmark
+  public void parseCharArray(final SwipeState state) {
+    parser.parse(state.chars[state.next()], visitor);
+  }
+
+  @Benchmark
+  public void parseString(final SwipeState state) {
+    parser.parse(state.strings[state.next()], visitor);
+  }
+
+  @Setup
+  public void setup(final Blackhole blackhole) {
+    visitor =
+        new TrackVisitor() {
+
+          @Override
+          public void onExpiration(final int track, final int yymm) {
+            blackhole.consume(yymm);
+          }
+
+          @Override
+          public void onPan(final int track, final CharSequence pan) {
+            blackhole.consume(pan.length());
+          }
+
+          @Override
+          public void onServiceCode(final int track, final int serviceCode) {
+            blackhole.consume(serviceCode);
+          }
+        };
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.ParseListeners;
+import us.fatehi.magnetictrack.ParseStatistics;
+
+/**
+ * Throughput of parsing complete swipes with and without parse statistics, which is the cost of
+ * reporting metrics. Without a listener, the throughput should match {@link
+ * BankCardMagneticTrackBenchmark#fromString(SwipeState)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseListenerBenchmark {
+
+  @Param({"false", "true"})
+  public boolean listening;
+
+  @Benchmark
+  public BankCardMagneticTrack fromString(final SwipeState state) {
+    return BankCardMagneticTrack.from(state.strings[state.next()]);
+  }
+
+  @Setup
+  public void register() {
+    if (listening) {
+      ParseListeners.register(new ParseStatistics());
+    }
+  }
+
+  @TearDown
+  public void unregister() {
+    ParseListeners.unregister();
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+/**
+ * Fixed sets of card swipes that benchmarks run against. The swipes never change between runs, so
+ * that results from different releases can be compared.
+ */
+public enum SwipeCorpus {
+
+  /** Complete swipes, with one or more well-formed tracks. */
+  Valid(
+      "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?",
+      "%B4181887684889366^FATEHI/SUALEH^1605101097670000000000120000000?;4181887684889366=160510101200009767?",
+      "%B5391285197433215^FATEHI/SUALEH             ^1701101000001540000000154000000?;5391285197433215=17011010000015400000?",
+      "%B6011460477609366^FATEHI/SUALEH             ^15101011000606818102?;6011460477609366=15101011000606818102?",
+      "%B379580832431161^ /                        ^1508121140165241?;379580832431161=150812114016524100000?+6202408082356005=15046200000010000000000004976?",
+      "%B378578692630345^ /                        ^1508121140165241?\r\n;378578692630345=150812114016524100000?\r\n+6202608082356005=15046200000010000000000004976?",
+      "%B5266092201416174^FATEHI/SUALEH^16042010000000000000000000000000000567001000?\n;5266092201416174=16042010000056700100?",
+      "%B7083560000013710910^MICHAELS OPEN VALUE CARD  ^8551?;7083560000013710910=8551?"),
+
+  /** Swipes where only some of the tracks were read. */
+  Partial(
+      ";5350290149345177=16042010000056700100?",
+      "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?",
+      "+6202608082356005=15046200000010000000000004976?",
+      "%B5266092201416174^FATEHI/SUALEH^^^?\n+6202608082356005=15046200000010000000000004976?",
+      "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;53502901",
+      ";636294169881005271827?"),
+
+  /** Swipes that do not contain a recognizable bank card track. */
+  Malformed(
+      "",
+      "B5266092201416174^FATEHI/SUALEH^16042010000000000000000000000000000567001000",
+      ";5266092201416174=16042010000056700100somelong12345678901234567890",
+      "%B5266092201416174999999999999999999^FATEHI/SUALEH^1604201000000000000000000000000000",
+      "%E?;E?+E?",
+      "not a card swipe at all"),
+
+  /**
+   * Long inputs that are close to being tracks, and that made the regular expressions that the
+   * parser used to use backtrack.
+   */
+  Adversarial(
+      "%B1^".repeat(512),
+      ";1=".repeat(1024),
+      "+".repeat(2048) + "?",
+      "%B5350290149345177^" + "^".repeat(2048),
+      ";5350290149345177=1604201" + "?".repeat(2048) + "x",
+      " \t\r\n".repeat(512) + ";5350290149345177=16042010000056700100?",
+      "5350290149345177=".repeat(256));
+
+  private final String[] swipes;
+
+  SwipeCorpus(final String... swipes) {
+    this.swipes = swipes;
+  }
+
+  /**
+   * Gets a copy of the swipes in the corpus.
+   *
+   * @return Swipes
+   */
+  public String[] getSwipes() {
+    return swipes.clone();
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.nio.ByteBuffer;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+
+/**
+ * Swipes from one corpus, prepared in every input form that the parser accepts. Each benchmark
+ * invocation takes the next swipe, so that a run covers the whole corpus.
+ */
+@State(Scope.Thread)
+public class SwipeState {
+
+  @Param public SwipeCorpus corpus;
+
+  String[] strings;
+  char[][] chars;
+  byte[][] bytes;
+  ByteBuffer[] buffers;
+  BankCardMagneticTrack[] tracks;
+  final StringBuilder buffer = new StringBuilder(1024);
+
+  private int index;
+
+  @Setup
+  public void setup() {
+    strings = corpus.getSwipes();
+    chars = new char[strings.length][];
+    bytes = new byte[strings.length][];
+    buffers = new ByteBuffer[strings.length];
+    tracks = new BankCardMagneticTrack[strings.length];
+    for (int i = 0; i < strings.length; i++) {
+      chars[i] = strings[i].toCharArray();
+      bytes[i] = strings[i].getBytes(US_ASCII);
+      buffers[i] = ByteBuffer.allocateDirect(bytes[i].length).put(bytes[i]).flip();
+      tracks[i] = BankCardMagneticTrack.from(strings[i]);
+    }
+  }
+
+  /**
+   * Moves to the next swipe in the corpus.
+   *
+   * @return Index of the next swipe
+   */
+  int next() {
+    index++;
+    if (index == strings.length) {
+      index = 0;
+    }
+    return index;
+  }
+}
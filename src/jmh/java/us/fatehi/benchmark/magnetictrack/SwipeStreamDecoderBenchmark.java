@@ -0,0 +1,96 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.SwipeStreamDecoder;
+
+/**
+ * Throughput of decoding a stream of back-to-back swipes that arrives in chunks, compared with
+ * parsing the same swipes when their boundaries are already known. Scores are for the whole stream.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SwipeStreamDecoderBenchmark {
+
+  private static final int SWIPES = 1000;
+
+  private static final String[] swipes = {
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?",
+    "%B4181887684889366^FATEHI/SUALEH^1605101097670000000000120000000?;4181887684889366=160510101200009767?",
+    "%B6011460477609366^FATEHI/SUALEH             ^15101011000606818102?\r\n;6011460477609366=15101011000606818102?",
+    "%B7083560000013710910^MICHAELS OPEN VALUE CARD  ^8551?;7083560000013710910=8551?",
+  };
+
+  @Param({"16", "256", "4096"})
+  public int chunkSize;
+
+  private byte[][] separate;
+  private ByteBuffer stream;
+  private ByteBuffer chunk;
+
+  @Benchmark
+  public void decode(final Blackhole blackhole) {
+    final SwipeStreamDecoder decoder =
+        new SwipeStreamDecoder(
+            BankCardMagneticTrack.TRACK_1 | BankCardMagneticTrack.TRACK_2, blackhole::consume);
+    stream.clear();
+    while (stream.hasRemaining()) {
+      final int length = Math.min(chunkSize, stream.remaining());
+      chunk.clear();
+      chunk.put(chunk.position(), stream, stream.position(), length);
+      chunk.limit(length);
+      stream.position(stream.position() + length);
+      decoder.decode(chunk);
+    }
+  }
+
+  /** Parses each swipe separately, which is the baseline for {@link #decode(Blackhole)}. */
+  @Benchmark
+  public void parse(final Blackhole blackhole) {
+    for (final byte[] swipe : separate) {
+      blackhole.consume(BankCardMagneticTrack.from(swipe, 0, swipe.length));
+    }
+  }
+
+  @Setup
+  public void setup() {
+    separate = new byte[SWIPES][];
+    final StringBuilder buffer = new StringBuilder();
+    for (int i = 0; i < SWIPES; i++) {
+      final String swipe = swipes[i % swipes.length];
+      separate[i] = swipe.getBytes(US_ASCII);
+      buffer.append(swipe);
+    }
+    stream = ByteBuffer.allocateDirect(buffer.length());
+    stream.put(buffer.toString().getBytes(US_ASCII));
+    chunk = ByteBuffer.allocateDirect(chunkSize);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.fatehi.magnetictrack.Track1FormatB;
+import us.fatehi.magnetictrack.Track2;
+import us.fatehi.magnetictrack.Track3;
+
+/** Throughput of parsing a single track out of a swipe, from each form of input. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrackBenchmark {
+
+  @Benchmark
+  public Track1FormatB track1FromByteArray(final SwipeState state) {
+    final byte[] bytes = state.bytes[state.next()];
+    return Track1FormatB.from(bytes, 0, bytes.length);
+  }
+
+  @Benchmark
+  public Track1FormatB track1FromByteBuffer(final SwipeState state) {
+    return Track1FormatB.from(state.buffers[state.next()]);
+  }
+
+  @Benchmark
+  public Track1FormatB track1FromCharArray(final SwipeState state) {
+    return Track1FormatB.from(state.chars[state.next()]);
+  }
+
+  @Benchmark
+  public Track1FormatB track1FromString(final SwipeState state) {
+    return Track1FormatB.from(state.strings[state.next()]);
+  }
+
+  @Benchmark
+  public Track2 track2FromByteArray(final SwipeState state) {
+    final byte[] bytes = state.bytes[state.next()];
+    return Track2.from(bytes, 0, bytes.length);
+  }
+
+  @Benchmark
+  public Track2 track2FromByteBuffer(final SwipeState state) {
+    return Track2.from(state.buffers[state.next()]);
+  }
+
+  @Benchmark
+  public Track2 track2FromCharArray(final SwipeState state) {
+    return Track2.from(state.chars[state.next()]);
+  }
+
+  @Benchmark
+  public Track2 track2FromString(final SwipeState state) {
+    return Track2.from(state.strings[state.next()]);
+  }
+
+  @Benchmark
+  public Track3 track3FromByteArray(final SwipeState state) {
+    final byte[] bytes = state.bytes[state.next()];
+    return Track3.from(bytes, 0, bytes.length);
+  }
+
+  @Benchmark
+  public Track3 track3FromByteBuffer(final SwipeState state) {
+    return Track3.from(state.buffers[state.next()]);
+  }
+
+  @Benchmark
+  public Track3 track3FromCharArray(final SwipeState state) {
+    return Track3.from(state.chars[state.next()]);
+  }
+
+  @Benchmark
+  public Track3 track3FromString(final SwipeState state) {
+    return Track3.from(state.strings[state.next()]);
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.TrackCache;
+
+/**
+ * Throughput of looking up swipes that are already in the cache, which is the cost of hashing the
+ * raw track data. Compare with {@link BankCardMagneticTrackBenchmark#fromString(SwipeState)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrackCacheBenchmark {
+
+  private final TrackCache cache = new TrackCache(100_000, Duration.ofHours(1));
+
+  @Benchmark
+  public BankCardMagneticTrack fromString(final SwipeState state) {
+    return cache.from(state.strings[state.next()]);
+  }
+}
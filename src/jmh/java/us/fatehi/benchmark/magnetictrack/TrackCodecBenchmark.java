@@ -0,0 +1,96 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.benchmark.magnetictrack;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.TrackCodec;
+
+/**
+ * Throughput of encoding and decoding parsed swipes with the binary codec, compared with Java
+ * serialization. Run with the "gc" profiler to see the allocation rate per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrackCodecBenchmark {
+
+  private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+  private ByteBuffer[] encoded;
+  private byte[][] serialized;
+
+  @Benchmark
+  public BankCardMagneticTrack decode(final SwipeState state) {
+    final ByteBuffer in = encoded[state.next()];
+    in.rewind();
+    return TrackCodec.readBankCardMagneticTrack(in);
+  }
+
+  @Benchmark
+  public Object deserialize(final SwipeState state) throws Exception {
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(serialized[state.next()]))) {
+      return in.readObject();
+    }
+  }
+
+  @Benchmark
+  public int encode(final SwipeState state) {
+    buffer.clear();
+    TrackCodec.write(state.tracks[state.next()], buffer);
+    return buffer.position();
+  }
+
+  @Benchmark
+  public int serialize(final SwipeState state) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      // Tracks are serialized in the form of their binary encoding
+      out.writeObject(state.tracks[state.next()]);
+    }
+    return bytes.size();
+  }
+
+  @Setup
+  public void setup(final SwipeState state) throws IOException {
+    encoded = new ByteBuffer[state.strings.length];
+    serialized = new byte[state.strings.length][];
+    for (int i = 0; i < state.strings.length; i++) {
+      buffer.clear();
+      TrackCodec.write(BankCardMagneticTrack.from(state.strings[i]), buffer);
+      encoded[i] = ByteBuffer.allocate(buffer.position()).put(buffer.flip());
+
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+        out.writeObject(BankCardMagneticTrack.from(state.strings[i]));
+      }
+      serialized[i] = bytes.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Read-only character view of ASCII bytes, from the position to the limit of a heap or direct
+ * buffer. Bytes are read with absolute indexes, so the buffer's position is never changed. Bytes
+ * that are not ASCII read as the Unicode replacement character, in the same way as decoding them
+ * with the US-ASCII character set.
+ *
+ * <p>A view can be reset to point at a different buffer, so that one view can be reused.
+ */
+final class AsciiCharSequence implements CharSequence {
+
+  private ByteBuffer buffer;
+  private int offset;
+  private int length;
+
+  /** Creates an empty view, that can be reused by resetting it with a buffer. */
+  AsciiCharSequence() {
+    this(null, 0, 0);
+  }
+
+  AsciiCharSequence(final ByteBuffer buffer) {
+    this(buffer, buffer.position(), buffer.remaining());
+  }
+
+  private AsciiCharSequence(final ByteBuffer buffer, final int offset, final int length) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  @Override
+  public char charAt(final int index) {
+    Objects.checkIndex(index, length);
+    final byte ch = buffer.get(offset + index);
+    if (ch < 0) {
+      return '\uFFFD';
+    }
+    return (char) ch;
+  }
+
+  /** Points the view at nothing, so that it does not hold on to any buffer. */
+  void clear() {
+    buffer = null;
+    offset = 0;
+    length = 0;
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Points the view at the bytes between the position and limit of a different buffer.
+   *
+   * @param buffer Buffer of ASCII bytes
+   */
+  void reset(final ByteBuffer buffer) {
+    this.buffer = buffer;
+    offset = buffer.position();
+    length = buffer.remaining();
+  }
+
+  @Override
+  public CharSequence subSequence(final int start, final int end) {
+    Objects.checkFromToIndex(start, end, length);
+    return new AsciiCharSequence(buffer, offset + start, end - start);
+  }
+
+  @Override
+  public String toString() {
+    if (buffer.hasArray()) {
+      return new String(buffer.array(), buffer.arrayOffset() + offset, length, US_ASCII);
+    }
+    final byte[] bytes = new byte[length];
+    buffer.get(offset, bytes);
+    final String string = new String(bytes, US_ASCII);
+    Arrays.fill(bytes, (byte) 0);
+    return string;
+  }
+}
@@ -7,7 +7,13 @@
  */
 package us.fatehi.magnetictrack;
 
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
 import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import us.fatehi.creditcardnumber.AccountNumber;
 import us.fatehi.creditcardnumber.BankCard;
 import us.fatehi.creditcardnumber.ExpirationDate;
@@ -22,6 +28,15 @@ public final class BankCardMagneticTrack extends BaseTrackData {
 
   @Serial private static final long serialVersionUID = -8703108091852410189L;
 
+  /** Bit for track 1 in a bitmask of tracks. */
+  public static final int TRACK_1 = 1;
+
+  /** Bit for track 2 in a bitmask of tracks. */
+  public static final int TRACK_2 = 2;
+
+  /** Bit for track 3 in a bitmask of tracks. */
+  public static final int TRACK_3 = 4;
+
   private static final String NEWLINE = System.getProperty("line.separator");
 
   /**
@@ -31,11 +46,149 @@ public final class BankCardMagneticTrack extends BaseTrackData {
    * @return A BankCardMagneticTrack instance, corresponding to the parsed data.
    */
   public static BankCardMagneticTrack from(final String rawTrackData) {
-    final Track1FormatB track1 = Track1FormatB.from(rawTrackData);
-    final Track2 track2 = Track2.from(rawTrackData);
-    final Track3 track3 = Track3.from(rawTrackData);
+    return parse(rawTrackData);
+  }
+
+  /**
+   * Parses magnetic track data into a BankCardMagneticTrack object, from characters that the caller
+   * can overwrite as soon as this method returns. The track data is copied directly out of the
+   * array, without creating intermediate strings for the primary account number or discretionary
+   * data.
+   *
+   * @param rawTrackData Raw track data as characters. Can include newlines, and all 3 tracks.
+   * @return A BankCardMagneticTrack instance, corresponding to the parsed data.
+   */
+  public static BankCardMagneticTrack from(final char[] rawTrackData) {
+    if (rawTrackData == null) {
+      return parse(null);
+    }
+    return parse(CharBuffer.wrap(rawTrackData));
+  }
+
+  /**
+   * Parses magnetic track data into a BankCardMagneticTrack object, from ASCII bytes between the
+   * buffer's position and limit. The buffer can be a heap or direct buffer, and its position is
+   * not changed.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and all 3 tracks.
+   * @return A BankCardMagneticTrack instance, corresponding to the parsed data.
+   */
+  public static BankCardMagneticTrack from(final ByteBuffer rawTrackData) {
+    if (rawTrackData == null) {
+      return parse(null);
+    }
+    return parse(new AsciiCharSequence(rawTrackData));
+  }
+
+  /**
+   * Parses magnetic track data into a BankCardMagneticTrack object, from a range of ASCII bytes.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and all 3 tracks.
+   * @param offset Offset of the first byte of track data.
+   * @param length Number of bytes of track data.
+   * @return A BankCardMagneticTrack instance, corresponding to the parsed data.
+   */
+  public static BankCardMagneticTrack from(
+      final byte[] rawTrackData, final int offset, final int length) {
+    return from(ByteBuffer.wrap(rawTrackData, offset, length));
+  }
 
-    return new BankCardMagneticTrack(rawTrackData, track1, track2, track3);
+  /**
+   * Checks which tracks are well-formed, without creating any objects, so that a misread can be
+   * rejected quickly. Sentinels, separators, digits and field lengths are checked in exactly the
+   * same way as when parsing, so a track is well-formed if and only if parsing finds it.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and all 3 tracks.
+   * @return Bitmask of well-formed tracks, made up of {@link #TRACK_1}, {@link #TRACK_2} and
+   *     {@link #TRACK_3}.
+   */
+  public static int quickCheck(final CharSequence rawTrackData) {
+    return MagneticTrackParser.forCurrentThread().quickCheck(rawTrackData);
+  }
+
+  /**
+   * Checks which tracks are well-formed, from characters. See {@link #quickCheck(CharSequence)}.
+   *
+   * @param rawTrackData Raw track data as characters. Can include newlines, and all 3 tracks.
+   * @return Bitmask of well-formed tracks.
+   */
+  public static int quickCheck(final char[] rawTrackData) {
+    if (rawTrackData == null) {
+      return 0;
+    }
+    return MagneticTrackParser.forCurrentThread().quickCheck(rawTrackData);
+  }
+
+  /**
+   * Checks which tracks are well-formed, from ASCII bytes between the buffer's position and limit.
+   * See {@link #quickCheck(CharSequence)}.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and all 3 tracks.
+   * @return Bitmask of well-formed tracks.
+   */
+  public static int quickCheck(final ByteBuffer rawTrackData) {
+    if (rawTrackData == null) {
+      return 0;
+    }
+    return MagneticTrackParser.forCurrentThread().quickCheck(rawTrackData);
+  }
+
+  static BankCardMagneticTrack parse(final CharSequence rawTrackData) {
+    final ParseListener listener = ParseListeners.listener();
+    if (listener == null) {
+      return scan(rawTrackData);
+    }
+    final long start = System.nanoTime();
+    final BankCardMagneticTrack track = scan(rawTrackData);
+    listener.onSwipe(rawTrackData == null ? 0 : rawTrackData.length(), System.nanoTime() - start);
+    return track;
+  }
+
+  /**
+   * Parses a swipe whose tracks have already been told apart, such as by a reader of a stream of
+   * swipes, so that each track is scanned on its own, and no track can take in the track that
+   * follows it.
+   *
+   * @param rawTrackData Raw track data of the whole swipe.
+   * @param track1 Raw track 1 data, or null if track 1 was not read.
+   * @param track2 Raw track 2 data, or null if track 2 was not read.
+   * @param track3 Raw track 3 data, or null if track 3 was not read.
+   * @return A BankCardMagneticTrack instance, corresponding to the parsed data.
+   */
+  static BankCardMagneticTrack parse(
+      final CharSequence rawTrackData,
+      final CharSequence track1,
+      final CharSequence track2,
+      final CharSequence track3) {
+    if (rawTrackData.length() > ParseLimits.getMaximumInputLength()) {
+      // Every track is rejected, just as for the swipe as a whole
+      return parse(rawTrackData);
+    }
+    final ParseListener listener = ParseListeners.listener();
+    final long start = listener == null ? 0 : System.nanoTime();
+    final BankCardMagneticTrack track =
+        new BankCardMagneticTrack(
+            new DisposableCharData(rawTrackData),
+            Track1FormatB.from(new TrackScanner(track1)),
+            Track2.from(new TrackScanner(track2)),
+            Track3.from(new TrackScanner(track3)));
+    if (listener != null) {
+      listener.onSwipe(rawTrackData.length(), System.nanoTime() - start);
+    }
+    return track;
+  }
+
+  private static BankCardMagneticTrack scan(final CharSequence rawTrackData) {
+    // Locate all the tracks from the same scan of the raw data
+    final TrackScanner scanner = new TrackScanner(rawTrackData);
+    final Track1FormatB track1 = Track1FormatB.from(scanner);
+    final Track2 track2 = Track2.from(scanner);
+    final Track3 track3 = Track3.from(scanner);
+
+    // Raw track data that is too long is not read, and not kept either
+    final DisposableCharData rawData =
+        new DisposableCharData(scanner.isInputTooLong() ? null : rawTrackData);
+    return new BankCardMagneticTrack(rawData, track1, track2, track3);
   }
 
   private final Track1FormatB track1;
@@ -43,12 +196,12 @@ public final class BankCardMagneticTrack extends BaseTrackData {
 
   private final Track3 track3;
 
-  private BankCardMagneticTrack(
-      final String rawTrackData,
+  BankCardMagneticTrack(
+      final DisposableCharData rawTrackData,
       final Track1FormatB track1,
       final Track2 track2,
       final Track3 track3) {
-    super(rawTrackData, "");
+    super(rawTrackData, new DisposableCharData(""));
     this.track1 = track1;
     this.track2 = track2;
     this.track3 = track3;
@@ -62,6 +215,81 @@ public final class BankCardMagneticTrack extends BaseTrackData {
         || track3.exceedsMaximumLength();
   }
 
+  /**
+   * Writes the parsed swipe, in the same format as {@link #toString()}, straight to a destination
+   * such as a log writer, without building an intermediate string.
+   *
+   * @param out Destination for the formatted swipe.
+   * @throws IOException On an exception writing to the destination.
+   */
+  public void formatTo(final Appendable out) throws IOException {
+    formatTo(out, FormatVerbosity.Full);
+  }
+
+  /**
+   * Writes the parsed swipe straight to a destination such as a log writer, without building an
+   * intermediate string. Track data is written directly from the track's copy of it, and the bank
+   * card information is only created for {@link FormatVerbosity#Full}.
+   *
+   * @param out Destination for the formatted swipe.
+   * @param verbosity How much of the parsed swipe to write.
+   * @throws IOException On an exception writing to the destination.
+   */
+  public void formatTo(final Appendable out, final FormatVerbosity verbosity)
+      throws IOException {
+    requireNonNull(out, "No destination provided");
+    requireNonNull(verbosity, "No verbosity provided");
+    final boolean fields = verbosity != FormatVerbosity.RawData;
+
+    formatRawData("TRACK 1: ", track1, out);
+    if (fields && track1.hasRawData()) {
+      formatAccountNumber(track1, out);
+      if (track1.hasName()) {
+        out.append("  Name: ");
+        out.append(String.valueOf(track1.getName())).append(NEWLINE);
+      } else {
+        out.append("  No Name").append(NEWLINE);
+      }
+      formatAccountInfo(track1, out);
+      formatDiscretionaryData(track1, out);
+    }
+
+    formatRawData("TRACK 2: ", track2, out);
+    if (fields && track2.hasRawData()) {
+      formatAccountNumber(track2, out);
+      formatAccountInfo(track2, out);
+      formatDiscretionaryData(track2, out);
+    }
+
+    formatRawData("TRACK 3: ", track3, out);
+    if (fields && track3.hasRawData()) {
+      formatDiscretionaryData(track3, out);
+    }
+
+    if (verbosity == FormatVerbosity.Full) {
+      final BankCard bankCard = toBankCard();
+      out.append(NEWLINE).append(String.valueOf(bankCard)).append(NEWLINE);
+    }
+  }
+
+  /**
+   * Writes the parsed swipe to a string builder, in the same way as {@link #formatTo(Appendable,
+   * FormatVerbosity)}.
+   *
+   * @param out Destination for the formatted swipe.
+   * @param verbosity How much of the parsed swipe to write.
+   * @return The string builder that was written to.
+   */
+  public StringBuilder formatTo(final StringBuilder out, final FormatVerbosity verbosity) {
+    try {
+      formatTo((Appendable) out, verbosity);
+    } catch (final IOException e) {
+      // A string builder never throws
+      throw new UncheckedIOException(e);
+    }
+    return out;
+  }
+
   /**
    * Gets track 1 representation.
    *
@@ -132,79 +360,54 @@ public final class BankCardMagneticTrack extends BaseTrackData {
    */
   @Override
   public String toString() {
-    final StringBuilder buffer = new StringBuilder();
-
-    buffer.append("TRACK 1: ");
-    if (track1.hasRawData()) {
-      buffer.append(track1.getRawData()).append(NEWLINE);
-      toStringAccountNumber(track1, buffer);
-      if (track1.hasName()) {
-        buffer.append("  Name: ");
-        buffer.append(track1.getName()).append(NEWLINE);
-      } else {
-        buffer.append("  No Name").append(NEWLINE);
-      }
-      toStringAccountInfo(track1, buffer);
-      toStringDiscretionaryData(track1, buffer);
-    } else {
-      buffer.append(" Not Available.").append(NEWLINE);
-    }
-
-    buffer.append("TRACK 2: ");
-    if (track2.hasRawData()) {
-      buffer.append(track2.getRawData()).append(NEWLINE);
-      toStringAccountNumber(track1, buffer);
-      toStringAccountInfo(track2, buffer);
-      toStringDiscretionaryData(track2, buffer);
-    } else {
-      buffer.append(" Not Available.").append(NEWLINE);
-    }
-
-    buffer.append("TRACK 3: ");
-    if (track3.hasRawData()) {
-      buffer.append(track3.getRawData()).append(NEWLINE);
-      toStringDiscretionaryData(track3, buffer);
-    } else {
-      buffer.append(" Not Available.").append(NEWLINE);
-    }
-
-    final BankCard bankCard = toBankCard();
-    buffer.append(NEWLINE).append(bankCard).append(NEWLINE);
-
-    return buffer.toString();
+    return formatTo(new StringBuilder(), FormatVerbosity.Full).toString();
   }
 
-  private void toStringAccountInfo(final BaseBankCardTrackData track, final StringBuilder buffer) {
+  private void formatAccountInfo(final BaseBankCardTrackData track, final Appendable out)
+      throws IOException {
     if (track.hasExpirationDate()) {
-      buffer.append("  Expiration Date: ");
-      buffer.append(track2.getExpirationDate()).append(NEWLINE);
+      out.append("  Expiration Date: ");
+      out.append(String.valueOf(track.getExpirationDate())).append(NEWLINE);
     } else {
-      buffer.append("  No Expiration Date").append(NEWLINE);
+      out.append("  No Expiration Date").append(NEWLINE);
     }
     if (track.hasServiceCode()) {
       final ServiceCode serviceCode = track.getServiceCode();
-      buffer.append("  Service Code: ").append(serviceCode).append(NEWLINE);
+      out.append("  Service Code: ").append(String.valueOf(serviceCode)).append(NEWLINE);
     } else {
-      buffer.append("  No Service Code");
+      out.append("  No Service Code");
     }
   }
 
-  private void toStringAccountNumber(
-      final BaseBankCardTrackData track, final StringBuilder buffer) {
+  private void formatAccountNumber(final BaseBankCardTrackData track, final Appendable out)
+      throws IOException {
     if (track.hasAccountNumber()) {
       final AccountNumber pan = track.getAccountNumber();
-      buffer.append("  Primary Account Number: ").append(pan).append(NEWLINE);
+      out.append("  Primary Account Number: ").append(String.valueOf(pan)).append(NEWLINE);
     } else {
-      buffer.append("  No Primary Account Number").append(NEWLINE);
+      out.append("  No Primary Account Number").append(NEWLINE);
     }
   }
 
-  private void toStringDiscretionaryData(final BaseTrackData track, final StringBuilder buffer) {
+  private void formatDiscretionaryData(final BaseTrackData track, final Appendable out)
+      throws IOException {
     if (track.hasDiscretionaryData()) {
-      buffer.append("  Discretionary Data: ");
-      buffer.append(track.getDiscretionaryData()).append(NEWLINE);
+      out.append("  Discretionary Data: ");
+      track.appendDiscretionaryData(out);
+      out.append(NEWLINE);
+    } else {
+      out.append("  No Discretionary Data").append(NEWLINE);
+    }
+  }
+
+  private void formatRawData(final String title, final BaseTrackData track, final Appendable out)
+      throws IOException {
+    out.append(title);
+    if (track.hasRawData()) {
+      track.appendRawData(out);
+      out.append(NEWLINE);
     } else {
-      buffer.append("  No Discretionary Data").append(NEWLINE);
+      out.append(" Not Available.").append(NEWLINE);
     }
   }
 }
@@ -8,6 +8,8 @@
 package us.fatehi.magnetictrack;
 
 import static us.fatehi.creditcardnumber.AccountNumbers.emptyAccountNumber;
+import static us.fatehi.magnetictrack.CanonicalFields.EMPTY_EXPIRATION_DATE;
+import static us.fatehi.magnetictrack.CanonicalFields.EMPTY_SERVICE_CODE;
 
 import java.io.Serial;
 import java.util.Objects;
@@ -24,15 +26,29 @@ abstract class BaseBankCardTrackData extends BaseTrackData {
   @Serial private static final long serialVersionUID = 7821463290736676016L;
 
   private final AccountNumber pan;
-  private final ExpirationDate expirationDate;
-  private final ServiceCode serviceCode;
+  private final int panStart;
+  private final int panEnd;
+  private final int expirationDateStart;
+  private final int expirationDateEnd;
+  private final int serviceCodeStart;
+  private final int serviceCodeEnd;
+  private volatile ExpirationDate expirationDate;
+  private volatile ServiceCode serviceCode;
 
+  /**
+   * Creates track data where the expiration date and service code are only created from the raw
+   * track data when they are first used.
+   */
   BaseBankCardTrackData(
-      final String rawTrackData,
+      final DisposableCharData rawTrackData,
       final AccountNumber pan,
-      final ExpirationDate expirationDate,
-      final ServiceCode serviceCode,
-      final String discretionaryData) {
+      final int panStart,
+      final int panEnd,
+      final int expirationDateStart,
+      final int expirationDateEnd,
+      final int serviceCodeStart,
+      final int serviceCodeEnd,
+      final DisposableCharData discretionaryData) {
     super(rawTrackData, discretionaryData);
 
     if (pan == null) {
@@ -41,19 +57,95 @@ abstract class BaseBankCardTrackData extends BaseTrackData {
       this.pan = pan;
     }
 
+    this.panStart = panStart;
+    this.panEnd = panEnd;
+    this.expirationDateStart = expirationDateStart;
+    this.expirationDateEnd = expirationDateEnd;
+    this.serviceCodeStart = serviceCodeStart;
+    this.serviceCodeEnd = serviceCodeEnd;
+  }
+
+  BaseBankCardTrackData(
+      final DisposableCharData rawTrackData,
+      final AccountNumber pan,
+      final ExpirationDate expirationDate,
+      final ServiceCode serviceCode,
+      final DisposableCharData discretionaryData) {
+    this(rawTrackData, pan, -1, -1, -1, -1, -1, -1, discretionaryData);
+
     if (expirationDate == null) {
-      this.expirationDate = new ExpirationDate();
+      this.expirationDate = EMPTY_EXPIRATION_DATE;
     } else {
       this.expirationDate = expirationDate;
     }
 
     if (serviceCode == null) {
-      this.serviceCode = new ServiceCode();
+      this.serviceCode = EMPTY_SERVICE_CODE;
     } else {
       this.serviceCode = serviceCode;
     }
   }
 
+  BaseBankCardTrackData(
+      final String rawTrackData,
+      final AccountNumber pan,
+      final ExpirationDate expirationDate,
+      final ServiceCode serviceCode,
+      final String discretionaryData) {
+    this(
+        new DisposableCharData(rawTrackData),
+        pan,
+        expirationDate,
+        serviceCode,
+        new DisposableCharData(discretionaryData));
+  }
+
+  /**
+   * Gets the digits of the primary account number from the raw track data, without creating the
+   * primary account number, or a string.
+   *
+   * @return Digits, or null if the track was not read from raw track data, or the raw track data
+   *     has been disposed
+   */
+  CharSequence getAccountNumberCharacters() {
+    if (!hasRawData()) {
+      return null;
+    }
+    return getRawCharacters(panStart, panEnd);
+  }
+
+  /**
+   * Gets the characters of the expiration date from the raw track data, if the expiration date has
+   * not been created yet, so that it is not created just to read them.
+   *
+   * @return Characters of the expiration date, or null if it is not present
+   */
+  CharSequence getExpirationDateCharacters() {
+    if (expirationDate == null && hasRawData()) {
+      return getRawCharacters(expirationDateStart, expirationDateEnd);
+    }
+    return getExpirationDate().getRawData();
+  }
+
+  /**
+   * Gets the characters of the service code from the raw track data, if the service code has not
+   * been created yet, so that it is not created just to read them.
+   *
+   * @return Characters of the service code, or null if it is not present
+   */
+  CharSequence getServiceCodeCharacters() {
+    if (serviceCode == null && hasRawData()) {
+      return getRawCharacters(serviceCodeStart, serviceCodeEnd);
+    }
+    return getServiceCode().getRawData();
+  }
+
+  @Override
+  void createFields() {
+    getExpirationDate();
+    getServiceCode();
+  }
+
   @Override
   public boolean equals(final Object obj) {
     if (this == obj) {
@@ -66,13 +158,13 @@ abstract class BaseBankCardTrackData extends BaseTrackData {
       return false;
     }
     final BaseBankCardTrackData other = (BaseBankCardTrackData) obj;
-    if (!Objects.equals(expirationDate, other.expirationDate)) {
+    if (!Objects.equals(getExpirationDate(), other.getExpirationDate())) {
       return false;
     }
     if (!Objects.equals(pan, other.pan)) {
       return false;
     }
-    if (!Objects.equals(serviceCode, other.serviceCode)) {
+    if (!Objects.equals(getServiceCode(), other.getServiceCode())) {
       return false;
     }
     return true;
@@ -88,11 +180,23 @@ abstract class BaseBankCardTrackData extends BaseTrackData {
   }
 
   /**
-   * Gets the primary account number for the card.
+   * Gets the card expiration date.
    *
-   * @return Primary account number.
+   * @return Card expiration date.
    */
   public ExpirationDate getExpirationDate() {
+    ExpirationDate expirationDate = this.expirationDate;
+    if (expirationDate == null) {
+      synchronized (this) {
+        expirationDate = this.expirationDate;
+        if (expirationDate == null) {
+          expirationDate =
+              CanonicalFields.expirationDate(
+                  getRawCharacters(), expirationDateStart, expirationDateEnd);
+          this.expirationDate = expirationDate;
+        }
+      }
+    }
     return expirationDate;
   }
 
@@ -102,6 +206,17 @@ abstract class BaseBankCardTrackData extends BaseTrackData {
    * @return Card service code.
    */
   public ServiceCode getServiceCode() {
+    ServiceCode serviceCode = this.serviceCode;
+    if (serviceCode == null) {
+      synchronized (this) {
+        serviceCode = this.serviceCode;
+        if (serviceCode == null) {
+          serviceCode =
+              CanonicalFields.serviceCode(getRawCharacters(), serviceCodeStart, serviceCodeEnd);
+          this.serviceCode = serviceCode;
+        }
+      }
+    }
     return serviceCode;
   }
 
@@ -120,13 +235,15 @@ abstract class BaseBankCardTrackData extends BaseTrackData {
    * @return True if the card expiration date is available.
    */
   public boolean hasExpirationDate() {
-    return expirationDate.hasExpirationDate();
+    return getExpirationDate().hasExpirationDate();
   }
 
   @Override
   public int hashCode() {
     final int prime = 31;
     int result = 1;
+    final ExpirationDate expirationDate = getExpirationDate();
+    final ServiceCode serviceCode = getServiceCode();
     result = prime * result + (expirationDate == null ? 0 : expirationDate.hashCode());
     result = prime * result + (pan == null ? 0 : pan.hashCode());
     result = prime * result + (serviceCode == null ? 0 : serviceCode.hashCode());
@@ -139,6 +256,6 @@ abstract class BaseBankCardTrackData extends BaseTrackData {
    * @return True if the card service code is available.
    */
   public boolean hasServiceCode() {
-    return serviceCode.hasServiceCode();
+    return getServiceCode().hasServiceCode();
   }
 }
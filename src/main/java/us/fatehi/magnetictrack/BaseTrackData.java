@@ -7,13 +7,21 @@
  */
 package us.fatehi.magnetictrack;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.regex.Matcher;
 import us.fatehi.creditcardnumber.BaseRawData;
-import us.fatehi.creditcardnumber.DisposableStringData;
 import us.fatehi.creditcardnumber.RawData;
 
+/**
+ * Raw track data, held in a disposable copy of the input characters. The raw data is kept here
+ * rather than in {@link BaseRawData}, which is only extended so that tracks remain raw data of the
+ * same type, and all of its methods are overridden. Tracks are serialized in the form of {@link
+ * SerializedTrack}.
+ */
 abstract class BaseTrackData extends BaseRawData implements RawData, Serializable {
 
   @Serial private static final long serialVersionUID = 7821463290736676016L;
@@ -28,11 +36,17 @@ abstract class BaseTrackData extends BaseRawData implements RawData, Serializabl
     return matcher.group(group);
   }
 
-  private final DisposableStringData discretionaryData;
+  private final DisposableCharData rawData;
+  private final DisposableCharData discretionaryData;
+
+  BaseTrackData(final DisposableCharData rawTrackData, final DisposableCharData discretionaryData) {
+    super(null);
+    rawData = rawTrackData;
+    this.discretionaryData = discretionaryData;
+  }
 
   BaseTrackData(final String rawTrackData, final String discretionaryData) {
-    super(rawTrackData);
-    this.discretionaryData = new DisposableStringData(discretionaryData);
+    this(new DisposableCharData(rawTrackData), new DisposableCharData(discretionaryData));
   }
 
   /**
@@ -44,6 +58,18 @@ abstract class BaseTrackData extends BaseRawData implements RawData, Serializabl
     discretionaryData.disposeData();
   }
 
+  /**
+   * Disposes raw track data from memory, by overwriting the track's copy of it. Any fields that
+   * have not been created from the raw track data yet are created first.
+   */
+  @Override
+  public void disposeRawData() {
+    synchronized (this) {
+      createFields();
+      rawData.disposeData();
+    }
+  }
+
   /**
    * Gets discretionary data on the track.
    *
@@ -53,6 +79,16 @@ abstract class BaseTrackData extends BaseRawData implements RawData, Serializabl
     return discretionaryData.getData();
   }
 
+  /**
+   * Gets raw track data. A new string is created on every call.
+   *
+   * @return Raw track data.
+   */
+  @Override
+  public String getRawData() {
+    return rawData.getData();
+  }
+
   /**
    * Whether discretionary data is present.
    *
@@ -62,8 +98,100 @@ abstract class BaseTrackData extends BaseRawData implements RawData, Serializabl
     return discretionaryData.hasData();
   }
 
+  /**
+   * Whether raw track data is present.
+   *
+   * @return True if raw track data is available
+   */
+  @Override
+  public boolean hasRawData() {
+    return rawData.hasData();
+  }
+
+  /**
+   * Appends discretionary data, without creating a string.
+   *
+   * @param out Destination for the discretionary data
+   * @throws IOException On an exception appending
+   */
+  void appendDiscretionaryData(final Appendable out) throws IOException {
+    out.append(discretionaryData);
+  }
+
+  /**
+   * Appends raw track data, without creating a string.
+   *
+   * @param out Destination for the raw track data
+   * @throws IOException On an exception appending
+   */
+  void appendRawData(final Appendable out) throws IOException {
+    out.append(rawData);
+  }
+
+  /**
+   * Creates any fields that are read from the raw track data on first access, before the raw track
+   * data is disposed.
+   */
+  void createFields() {
+    // No fields by default
+  }
+
+  /**
+   * Gets the track's own copy of the discretionary data, without creating a string.
+   *
+   * @return Discretionary data, which is overwritten with zeros once disposed
+   */
+  CharSequence getDiscretionaryCharacters() {
+    return discretionaryData;
+  }
+
+  /**
+   * Gets the track's own copy of the raw track data, without creating a string. The length is kept
+   * after the data is disposed, so it shows whether the track was found.
+   *
+   * @return Raw track data, which is overwritten with zeros once disposed
+   */
+  CharSequence getRawCharacters() {
+    return rawData;
+  }
+
+  /**
+   * Gets a field from the raw track data, without creating a string.
+   *
+   * @param start Start offset of the field, or -1 if the field is not present
+   * @param end End offset of the field
+   * @return Characters of the field, or null if it is not present
+   */
+  CharSequence getRawCharacters(final int start, final int end) {
+    if (start < 0) {
+      return null;
+    }
+    return getRawCharacters().subSequence(start, end);
+  }
+
+  /**
+   * Gets a field from the raw track data.
+   *
+   * @param start Start offset of the field, or -1 if the field is not present
+   * @param end End offset of the field
+   * @return Field text, or null if the field is not present
+   */
+  String getRawData(final int start, final int end) {
+    return rawData.getData(start, end);
+  }
+
   @Override
   public String toString() {
     return getRawData();
   }
+
+  @Serial
+  Object writeReplace() {
+    return new SerializedTrack(this);
+  }
+
+  @Serial
+  private void readObject(final ObjectInputStream in) throws InvalidObjectException {
+    throw new InvalidObjectException("Tracks are deserialized from their serialized form");
+  }
 }
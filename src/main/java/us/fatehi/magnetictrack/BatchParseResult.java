@@ -0,0 +1,96 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Parsed tracks from a batch, in input order, together with the failures for any swipes that
+ * could not be parsed.
+ */
+public final class BatchParseResult {
+
+  private final BankCardMagneticTrack[] tracks;
+  private final RuntimeException[] failures;
+
+  BatchParseResult(final BankCardMagneticTrack[] tracks, final RuntimeException[] failures) {
+    this.tracks = tracks;
+    this.failures = failures;
+  }
+
+  /**
+   * Gets the failure for the swipe at an index.
+   *
+   * @param index Index of the swipe in the batch.
+   * @return Failure, or null if the swipe was parsed.
+   */
+  public RuntimeException getFailure(final int index) {
+    return failures[index];
+  }
+
+  /**
+   * Gets all failures in the batch, by index of the swipe.
+   *
+   * @return Failures, ordered by index.
+   */
+  public Map<Integer, RuntimeException> getFailures() {
+    final Map<Integer, RuntimeException> failuresMap = new TreeMap<>();
+    for (int i = 0; i < failures.length; i++) {
+      if (failures[i] != null) {
+        failuresMap.put(i, failures[i]);
+      }
+    }
+    return Collections.unmodifiableMap(failuresMap);
+  }
+
+  /**
+   * Gets the parsed track for the swipe at an index.
+   *
+   * @param index Index of the swipe in the batch.
+   * @return Parsed track, or null if the swipe could not be parsed.
+   */
+  public BankCardMagneticTrack getTrack(final int index) {
+    return tracks[index];
+  }
+
+  /**
+   * Gets all parsed tracks, in input order.
+   *
+   * @return Parsed tracks, with null for swipes that could not be parsed.
+   */
+  public List<BankCardMagneticTrack> getTracks() {
+    return Collections.unmodifiableList(Arrays.asList(tracks));
+  }
+
+  /**
+   * Checks whether any swipe in the batch could not be parsed.
+   *
+   * @return True if there are failures.
+   */
+  public boolean hasFailures() {
+    for (final RuntimeException failure : failures) {
+      if (failure != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the number of swipes in the batch.
+   *
+   * @return Number of swipes.
+   */
+  public int size() {
+    return tracks.length;
+  }
+}
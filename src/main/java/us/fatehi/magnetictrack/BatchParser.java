@@ -0,0 +1,214 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Parses large collections of raw track data in parallel, on a fork-join pool. Results are in the
+ * same order as the input, and a failure to parse one swipe is reported at its index without
+ * stopping the rest of the batch.
+ */
+public final class BatchParser {
+
+  /** Smallest number of swipes that one fork-join task parses. */
+  private static final int MINIMUM_BATCH_SIZE = 256;
+
+  /**
+   * Parses an array of raw track data on the common fork-join pool.
+   *
+   * @param rawTrackData Raw track data, one swipe per element.
+   * @return Parsed tracks, in input order.
+   */
+  public static BatchParseResult parseAll(final String[] rawTrackData) {
+    return parseAll(rawTrackData, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parses an array of raw track data on the given fork-join pool.
+   *
+   * @param rawTrackData Raw track data, one swipe per element.
+   * @param pool Fork-join pool to parse on.
+   * @return Parsed tracks, in input order.
+   */
+  public static BatchParseResult parseAll(final String[] rawTrackData, final ForkJoinPool pool) {
+    return parseAll(rawTrackData, pool, BankCardMagneticTrack::from);
+  }
+
+  /**
+   * Parses a list of raw track data on the common fork-join pool.
+   *
+   * @param rawTrackData Raw track data, one swipe per element.
+   * @return Parsed tracks, in input order.
+   */
+  public static BatchParseResult parseAll(final List<String> rawTrackData) {
+    return parseAll(rawTrackData, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parses a list of raw track data on the given fork-join pool.
+   *
+   * @param rawTrackData Raw track data, one swipe per element.
+   * @param pool Fork-join pool to parse on.
+   * @return Parsed tracks, in input order.
+   */
+  public static BatchParseResult parseAll(
+      final List<String> rawTrackData, final ForkJoinPool pool) {
+    requireNonNull(rawTrackData, "No raw track data provided");
+    return parseAll(rawTrackData.toArray(new String[0]), pool);
+  }
+
+  /**
+   * Parses a stream of raw track data on the common fork-join pool. The stream is read to the end
+   * before parsing starts.
+   *
+   * @param rawTrackData Raw track data, one swipe per element.
+   * @return Parsed tracks, in the encounter order of the stream.
+   */
+  public static BatchParseResult parseAll(final Stream<String> rawTrackData) {
+    return parseAll(rawTrackData, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parses a stream of raw track data on the given fork-join pool. The stream is read to the end
+   * before parsing starts.
+   *
+   * @param rawTrackData Raw track data, one swipe per element.
+   * @param pool Fork-join pool to parse on.
+   * @return Parsed tracks, in the encounter order of the stream.
+   */
+  public static BatchParseResult parseAll(
+      final Stream<String> rawTrackData, final ForkJoinPool pool) {
+    requireNonNull(rawTrackData, "No raw track data provided");
+    return parseAll(rawTrackData.toArray(String[]::new), pool);
+  }
+
+  /**
+   * Masks an array of raw track data on the common fork-join pool, without ever creating the
+   * complete primary account numbers as strings.
+   *
+   * @param rawTrackData Raw track data, one swipe per element.
+   * @return Masked track data, in input order.
+   */
+  public static List<MaskedTrackData> maskAll(final String[] rawTrackData) {
+    return maskAll(rawTrackData, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Masks an array of raw track data on the given fork-join pool, without ever creating the
+   * complete primary account numbers as strings.
+   *
+   * @param rawTrackData Raw track data, one swipe per element.
+   * @param pool Fork-join pool to mask on.
+   * @return Masked track data, in input order.
+   */
+  public static List<MaskedTrackData> maskAll(
+      final String[] rawTrackData, final ForkJoinPool pool) {
+    requireNonNull(rawTrackData, "No raw track data provided");
+    requireNonNull(pool, "No fork-join pool provided");
+
+    final MaskedTrackData[] masked = new MaskedTrackData[rawTrackData.length];
+    final RuntimeException[] failures = new RuntimeException[rawTrackData.length];
+    invoke(rawTrackData, masked, failures, pool, MaskedTrackData::from);
+    // Masking does not fail on any input, so a failure is unexpected
+    for (final RuntimeException failure : failures) {
+      if (failure != null) {
+        throw failure;
+      }
+    }
+    return Collections.unmodifiableList(Arrays.asList(masked));
+  }
+
+  static BatchParseResult parseAll(
+      final String[] rawTrackData,
+      final ForkJoinPool pool,
+      final Function<String, BankCardMagneticTrack> parser) {
+    requireNonNull(rawTrackData, "No raw track data provided");
+    requireNonNull(pool, "No fork-join pool provided");
+
+    final BankCardMagneticTrack[] tracks = new BankCardMagneticTrack[rawTrackData.length];
+    final RuntimeException[] failures = new RuntimeException[rawTrackData.length];
+    invoke(rawTrackData, tracks, failures, pool, parser);
+
+    return new BatchParseResult(tracks, failures);
+  }
+
+  private static <T> void invoke(
+      final String[] rawTrackData,
+      final T[] results,
+      final RuntimeException[] failures,
+      final ForkJoinPool pool,
+      final Function<String, ? extends T> parser) {
+    // Aim for several tasks per worker, so that slow swipes do not leave workers idle
+    final int batchSize =
+        Math.max(MINIMUM_BATCH_SIZE, rawTrackData.length / (pool.getParallelism() * 8));
+    pool.invoke(
+        new ParseTask<>(rawTrackData, results, failures, parser, batchSize, 0, results.length));
+  }
+
+  private BatchParser() {
+    // Prevent instantiation
+  }
+
+  private static final class ParseTask<T> extends RecursiveAction {
+
+    @Serial private static final long serialVersionUID = 4113563826651237829L;
+
+    private final String[] rawTrackData;
+    private final T[] results;
+    private final RuntimeException[] failures;
+    private final Function<String, ? extends T> parser;
+    private final int batchSize;
+    private final int start;
+    private final int end;
+
+    ParseTask(
+        final String[] rawTrackData,
+        final T[] results,
+        final RuntimeException[] failures,
+        final Function<String, ? extends T> parser,
+        final int batchSize,
+        final int start,
+        final int end) {
+      this.rawTrackData = rawTrackData;
+      this.results = results;
+      this.failures = failures;
+      this.parser = parser;
+      this.batchSize = batchSize;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= batchSize) {
+        for (int i = start; i < end; i++) {
+          try {
+            results[i] = parser.apply(rawTrackData[i]);
+          } catch (final RuntimeException e) {
+            failures[i] = e;
+          }
+        }
+      } else {
+        final int middle = (start + end) >>> 1;
+        invokeAll(
+            new ParseTask<>(rawTrackData, results, failures, parser, batchSize, start, middle),
+            new ParseTask<>(rawTrackData, results, failures, parser, batchSize, middle, end));
+      }
+    }
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable index of BIN ranges, for looking up the range that a primary account number is in.
+ * Overlapping ranges are flattened when the index is built, into sorted arrays of disjoint
+ * segments, so a lookup is a binary search that does not allocate any memory. Where ranges overlap,
+ * the narrowest range wins, and of ranges that are the same width, the one that is added last wins.
+ *
+ * <p>An index file has one range on each line, with comma-separated fields for the low BIN, the
+ * high BIN, the issuer, the product and the routing. The high BIN can be left empty for a range of
+ * a single BIN. Blank lines, and lines that start with "#", are ignored.
+ */
+public final class BinIndex {
+
+  private static final BinIndex EMPTY = new BinIndex(new long[0], new long[0], new BinRange[0], 0);
+
+  /**
+   * Builds an index of BIN ranges.
+   *
+   * @param binRanges BIN ranges, which can overlap.
+   * @return Index of the BIN ranges.
+   */
+  public static BinIndex from(final Collection<BinRange> binRanges) {
+    requireNonNull(binRanges, "No BIN ranges provided");
+    if (binRanges.isEmpty()) {
+      return EMPTY;
+    }
+
+    final BinRange[] ranges = binRanges.toArray(new BinRange[0]);
+    final int count = ranges.length;
+    final Integer[] byFirst = new Integer[count];
+    final long[] points = new long[count * 2];
+    for (int i = 0; i < count; i++) {
+      byFirst[i] = i;
+      points[i * 2] = ranges[i].first();
+      points[i * 2 + 1] = ranges[i].last() + 1;
+    }
+    Arrays.sort(byFirst, Comparator.comparingLong(i -> ranges[i].first()));
+    Arrays.sort(points);
+
+    // Sweep the boundaries of the ranges in order, keeping the narrowest range that covers each
+    // segment between one boundary and the next at the head of the queue
+    final PriorityQueue<Integer> active =
+        new PriorityQueue<>(
+            Comparator.<Integer>comparingLong(i -> ranges[i].last() - ranges[i].first())
+                .thenComparing(Comparator.reverseOrder()));
+    final long[] starts = new long[count * 2];
+    final long[] ends = new long[count * 2];
+    final BinRange[] segments = new BinRange[count * 2];
+    int size = 0;
+    int next = 0;
+    for (int p = 0; p < points.length - 1; p++) {
+      final long point = points[p];
+      if (point == points[p + 1]) {
+        continue;
+      }
+      while (next < count && ranges[byFirst[next]].first() == point) {
+        active.add(byFirst[next]);
+        next++;
+      }
+      while (!active.isEmpty() && ranges[active.peek()].last() < point) {
+        active.poll();
+      }
+      if (active.isEmpty()) {
+        continue;
+      }
+
+      final BinRange range = ranges[active.peek()];
+      if (size > 0 && segments[size - 1] == range && ends[size - 1] == point - 1) {
+        ends[size - 1] = points[p + 1] - 1;
+      } else {
+        starts[size] = point;
+        ends[size] = points[p + 1] - 1;
+        segments[size] = range;
+        size++;
+      }
+    }
+
+    return new BinIndex(
+        Arrays.copyOf(starts, size), Arrays.copyOf(ends, size), Arrays.copyOf(segments, size), count);
+  }
+
+  /**
+   * Loads an index of BIN ranges from a UTF-8 file.
+   *
+   * @param file File with one BIN range on each line.
+   * @return Index of the BIN ranges.
+   * @throws IOException On an exception reading the file, or if a line is not a valid BIN range.
+   */
+  public static BinIndex load(final Path file) throws IOException {
+    requireNonNull(file, "No file provided");
+    final List<BinRange> ranges = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, UTF_8)) {
+      int lineNumber = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        final String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+          continue;
+        }
+
+        final String[] fields = trimmed.split(",", -1);
+        if (fields.length != 5) {
+          throw new IOException("Expected 5 fields on line " + lineNumber + " of " + file);
+        }
+        final String low = fields[0].trim();
+        final String high = fields[1].trim();
+        try {
+          ranges.add(
+              new BinRange(
+                  low,
+                  high.isEmpty() ? low : high,
+                  fields[2].trim(),
+                  fields[3].trim(),
+                  fields[4].trim()));
+        } catch (final IllegalArgumentException e) {
+          throw new IOException(
+              "Invalid BIN range on line " + lineNumber + " of " + file + ": " + e.getMessage(), e);
+        }
+      }
+    }
+    return from(ranges);
+  }
+
+  private final long[] starts;
+  private final long[] ends;
+  private final BinRange[] segments;
+  private final int size;
+
+  private BinIndex(
+      final long[] starts, final long[] ends, final BinRange[] segments, final int size) {
+    this.starts = starts;
+    this.ends = ends;
+    this.segments = segments;
+    this.size = size;
+  }
+
+  /**
+   * Looks up the BIN range that a primary account number is in.
+   *
+   * @param accountNumber Primary account number, or its leading digits.
+   * @return BIN range, or null if the account number is not in any range.
+   */
+  public BinRange lookup(final CharSequence accountNumber) {
+    if (accountNumber == null) {
+      return null;
+    }
+    return lookup(accountNumber, 0, accountNumber.length());
+  }
+
+  /**
+   * Gets the number of BIN ranges in the index.
+   *
+   * @return Number of BIN ranges.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Looks up the BIN range for digits of a primary account number, without creating a string.
+   *
+   * @param chars Characters that contain the primary account number
+   * @param start Start offset of the primary account number
+   * @param end End offset of the primary account number
+   * @return BIN range, or null if the account number is not in any range
+   */
+  BinRange lookup(final CharSequence chars, final int start, final int end) {
+    if (segments.length == 0 || start >= end) {
+      return null;
+    }
+
+    long key = 0;
+    for (int i = 0; i < BinRange.MAXIMUM_DIGITS; i++) {
+      final char ch = start + i < end ? chars.charAt(start + i) : '0';
+      if (ch < '0' || ch > '9') {
+        return null;
+      }
+      key = key * 10 + ch - '0';
+    }
+
+    int index = Arrays.binarySearch(starts, key);
+    if (index < 0) {
+      index = -index - 2;
+    }
+    if (index < 0 || key > ends[index]) {
+      return null;
+    }
+    return segments[index];
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Registration of the {@link BinIndex} that tracks look up their primary account number in, while
+ * they are parsed. An index is immutable, so reloading builds a new index and then replaces the
+ * registered one. Parsing reads the registered index without locking, and a parse that is running
+ * during a reload uses either the old index or the new one.
+ */
+public final class BinIndexes {
+
+  private static volatile BinIndex index;
+
+  /**
+   * Loads an index of BIN ranges from a file, and registers it in place of any index that is
+   * already registered. If the file cannot be loaded, the registered index is not changed.
+   *
+   * @param file File with one BIN range on each line.
+   * @return Index that was registered.
+   * @throws IOException On an exception reading the file, or if a line is not a valid BIN range.
+   */
+  public static BinIndex load(final Path file) throws IOException {
+    final BinIndex binIndex = BinIndex.load(file);
+    register(binIndex);
+    return binIndex;
+  }
+
+  /**
+   * Registers the index for all parsing, in place of any index that is already registered.
+   *
+   * @param index Index of BIN ranges.
+   */
+  public static void register(final BinIndex index) {
+    requireNonNull(index, "No BIN index provided");
+    BinIndexes.index = index;
+  }
+
+  /** Stops looking up BIN ranges during parsing. */
+  public static void unregister() {
+    index = null;
+  }
+
+  /**
+   * Looks up the BIN range for digits of a primary account number in the registered index.
+   *
+   * @param chars Characters that contain the primary account number
+   * @param start Start offset of the primary account number
+   * @param end End offset of the primary account number
+   * @return BIN range, or null if no index is registered, or the account number is not in any range
+   */
+  static BinRange lookup(final CharSequence chars, final int start, final int end) {
+    final BinIndex index = BinIndexes.index;
+    if (index == null) {
+      return null;
+    }
+    return index.lookup(chars, start, end);
+  }
+
+  private BinIndexes() {
+    // Prevent instantiation
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Range of bank identification numbers (BINs), which are the leading digits of primary account
+ * numbers, with the issuer, product and routing for account numbers in the range. The low and high
+ * ends of the range are prefixes of account numbers, and can have different numbers of digits. For
+ * example, a range from "4000" to "4999" has all account numbers that start with 4000 to 4999, and
+ * a range from "535029" to "535029" has all account numbers that start with 535029.
+ */
+public final class BinRange implements Serializable {
+
+  /** Number of leading digits of an account number that BIN ranges can use. */
+  public static final int MAXIMUM_DIGITS = 18;
+
+  @Serial private static final long serialVersionUID = -2153781430476904223L;
+
+  /**
+   * Pads a prefix of an account number to the maximum number of digits.
+   *
+   * @param prefix Prefix of an account number.
+   * @param pad Digit to pad with.
+   * @return Padded value.
+   */
+  private static long pad(final String prefix, final char pad) {
+    if (prefix.isEmpty() || prefix.length() > MAXIMUM_DIGITS) {
+      throw new IllegalArgumentException(
+          "BIN needs to have 1 to " + MAXIMUM_DIGITS + " digits: " + prefix);
+    }
+    long value = 0;
+    for (int i = 0; i < MAXIMUM_DIGITS; i++) {
+      final char ch = i < prefix.length() ? prefix.charAt(i) : pad;
+      if (ch < '0' || ch > '9') {
+        throw new IllegalArgumentException("BIN needs to have only digits: " + prefix);
+      }
+      value = value * 10 + ch - '0';
+    }
+    return value;
+  }
+
+  private final String low;
+  private final String high;
+  private final String issuer;
+  private final String product;
+  private final String routing;
+  private final long first;
+  private final long last;
+
+  /**
+   * Creates a BIN range.
+   *
+   * @param low Lowest BIN in the range.
+   * @param high Highest BIN in the range, which can be the same as the lowest.
+   * @param issuer Issuer of cards in the range.
+   * @param product Card product.
+   * @param routing Routing for transactions with cards in the range.
+   */
+  public BinRange(
+      final String low,
+      final String high,
+      final String issuer,
+      final String product,
+      final String routing) {
+    this.low = requireNonNull(low, "No low BIN provided");
+    this.high = requireNonNull(high, "No high BIN provided");
+    this.issuer = requireNonNull(issuer, "No issuer provided");
+    this.product = requireNonNull(product, "No product provided");
+    this.routing = requireNonNull(routing, "No routing provided");
+
+    first = pad(low, '0');
+    last = pad(high, '9');
+    if (first > last) {
+      throw new IllegalArgumentException("Low BIN is after high BIN: " + low + " - " + high);
+    }
+  }
+
+  /**
+   * Gets the highest BIN in the range.
+   *
+   * @return Highest BIN.
+   */
+  public String getHigh() {
+    return high;
+  }
+
+  /**
+   * Gets the issuer of cards in the range.
+   *
+   * @return Issuer.
+   */
+  public String getIssuer() {
+    return issuer;
+  }
+
+  /**
+   * Gets the lowest BIN in the range.
+   *
+   * @return Lowest BIN.
+   */
+  public String getLow() {
+    return low;
+  }
+
+  /**
+   * Gets the card product.
+   *
+   * @return Product.
+   */
+  public String getProduct() {
+    return product;
+  }
+
+  /**
+   * Gets the routing for transactions with cards in the range.
+   *
+   * @return Routing.
+   */
+  public String getRouting() {
+    return routing;
+  }
+
+  @Override
+  public String toString() {
+    return low + "-" + high + " " + issuer + " " + product + " " + routing;
+  }
+
+  /**
+   * Gets the first account number prefix in the range, padded with zeros to the maximum number of
+   * digits.
+   */
+  long first() {
+    return first;
+  }
+
+  /**
+   * Gets the last account number prefix in the range, padded with nines to the maximum number of
+   * digits.
+   */
+  long last() {
+    return last;
+  }
+}
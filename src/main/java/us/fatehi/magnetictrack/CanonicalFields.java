@@ -0,0 +1,114 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import us.fatehi.creditcardnumber.ExpirationDate;
+import us.fatehi.creditcardnumber.ServiceCode;
+
+/**
+ * Expiration dates and service codes from fields of raw track data. Each track gets its own
+ * instance, since the raw data of an instance can be disposed, so only the strings that they are
+ * created from are shared, and tracks do not create a new string for every swipe. Each instance
+ * still decodes its string when it is created. There are only 1000 service codes, so their strings
+ * are all created once, up front. Expiration date strings are created the first time that each of
+ * the 10,000 possible values is seen, and then reused.
+ *
+ * <p>Fields that are not present on a track are shared instances, which have no raw data to
+ * dispose.
+ */
+final class CanonicalFields {
+
+  /** Expiration date for when there is none on the track. */
+  static final ExpirationDate EMPTY_EXPIRATION_DATE = new ExpirationDate();
+
+  /** Service code for when there is none on the track. */
+  static final ServiceCode EMPTY_SERVICE_CODE = new ServiceCode();
+
+  private static final String[] serviceCodes = new String[1000];
+  private static final AtomicReferenceArray<String> expirationDates =
+      new AtomicReferenceArray<>(10_000);
+
+  static {
+    for (int i = 0; i < serviceCodes.length; i++) {
+      serviceCodes[i] = String.format("%03d", i);
+    }
+  }
+
+  /**
+   * Gets the expiration date from a field of raw track data.
+   *
+   * @param rawData Raw track data
+   * @param start Start offset of the field, or -1 if the field is not present
+   * @param end End offset of the field
+   * @return New expiration date, or the shared empty expiration date if the field is not present
+   */
+  static ExpirationDate expirationDate(
+      final CharSequence rawData, final int start, final int end) {
+    if (start < 0) {
+      return EMPTY_EXPIRATION_DATE;
+    }
+    final int value = digits(rawData, start, end, 4);
+    if (value < 0) {
+      return new ExpirationDate(rawData.subSequence(start, end).toString());
+    }
+
+    String expirationDate = expirationDates.get(value);
+    if (expirationDate == null) {
+      // Another thread could create the same value at the same time, which is harmless
+      expirationDate = rawData.subSequence(start, end).toString();
+      expirationDates.set(value, expirationDate);
+    }
+    return new ExpirationDate(expirationDate);
+  }
+
+  /**
+   * Gets the service code from a field of raw track data.
+   *
+   * @param rawData Raw track data
+   * @param start Start offset of the field, or -1 if the field is not present
+   * @param end End offset of the field
+   * @return New service code, or the shared empty service code if the field is not present
+   */
+  static ServiceCode serviceCode(final CharSequence rawData, final int start, final int end) {
+    if (start < 0) {
+      return EMPTY_SERVICE_CODE;
+    }
+    final int value = digits(rawData, start, end, 3);
+    if (value < 0) {
+      return new ServiceCode(rawData.subSequence(start, end).toString());
+    }
+    return new ServiceCode(serviceCodes[value]);
+  }
+
+  /**
+   * Reads a field of decimal digits.
+   *
+   * @return Value of the digits, or -1 if the field is not exactly the number of digits
+   */
+  private static int digits(
+      final CharSequence rawData, final int start, final int end, final int length) {
+    if (end - start != length) {
+      return -1;
+    }
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      final char ch = rawData.charAt(i);
+      if (ch < '0' || ch > '9') {
+        return -1;
+      }
+      value = value * 10 + ch - '0';
+    }
+    return value;
+  }
+
+  private CanonicalFields() {
+    // Prevent instantiation
+  }
+}
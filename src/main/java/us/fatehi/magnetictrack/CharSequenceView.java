@@ -0,0 +1,92 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import java.util.Objects;
+
+/**
+ * Reusable view of a range of characters, in either a character sequence or a character array. The
+ * characters are not copied, so the view is only valid for as long as the underlying characters do
+ * not change.
+ */
+final class CharSequenceView implements CharSequence {
+
+  private CharSequence sequence;
+  private char[] array;
+  private int offset;
+  private int length;
+
+  @Override
+  public char charAt(final int index) {
+    Objects.checkIndex(index, length);
+    if (array != null) {
+      return array[offset + index];
+    }
+    return sequence.charAt(offset + index);
+  }
+
+  /** Points the view at nothing, so that it does not hold on to any characters. */
+  void clear() {
+    sequence = null;
+    array = null;
+    offset = 0;
+    length = 0;
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Points the view at a range of a character array.
+   *
+   * @param array Character array
+   * @param start Start of the range
+   * @param end End of the range
+   */
+  void reset(final char[] array, final int start, final int end) {
+    Objects.checkFromToIndex(start, end, array.length);
+    sequence = null;
+    this.array = array;
+    offset = start;
+    length = end - start;
+  }
+
+  /**
+   * Points the view at a range of a character sequence.
+   *
+   * @param sequence Character sequence
+   * @param start Start of the range
+   * @param end End of the range
+   */
+  void reset(final CharSequence sequence, final int start, final int end) {
+    Objects.checkFromToIndex(start, end, sequence.length());
+    this.sequence = sequence;
+    array = null;
+    offset = start;
+    length = end - start;
+  }
+
+  @Override
+  public CharSequence subSequence(final int start, final int end) {
+    Objects.checkFromToIndex(start, end, length);
+    if (array != null) {
+      return new String(array, offset + start, end - start);
+    }
+    return sequence.subSequence(offset + start, offset + end);
+  }
+
+  @Override
+  public String toString() {
+    if (array != null) {
+      return new String(array, offset, length);
+    }
+    return sequence.subSequence(offset, offset + length).toString();
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import java.util.Arrays;
+
+/**
+ * Track characters decoded from raw track bits by {@link F2FDecoder}, with the results of the
+ * parity and longitudinal redundancy checks.
+ */
+public final class DecodedTrack {
+
+  private final int track;
+  private final char[] characters;
+  private final boolean found;
+  private final boolean reversed;
+  private final int parityErrors;
+  private final boolean lrcValid;
+
+  DecodedTrack(
+      final int track,
+      final char[] characters,
+      final boolean found,
+      final boolean reversed,
+      final int parityErrors,
+      final boolean lrcValid) {
+    this.track = track;
+    this.characters = characters;
+    this.found = found;
+    this.reversed = reversed;
+    this.parityErrors = parityErrors;
+    this.lrcValid = lrcValid;
+  }
+
+  /** Disposes the decoded characters from memory, by overwriting them. */
+  public void dispose() {
+    Arrays.fill(characters, '\0');
+  }
+
+  /**
+   * Gets the decoded characters, from the start sentinel to the end sentinel. The array is not
+   * copied, so that it can be passed to a parser, and then overwritten with {@link #dispose()}.
+   *
+   * @return Decoded characters, which are empty if no track was found.
+   */
+  public char[] getCharacters() {
+    return characters;
+  }
+
+  /**
+   * Gets the number of characters that did not have odd parity. The data bits of these characters
+   * are still decoded.
+   *
+   * @return Number of parity errors.
+   */
+  public int getParityErrors() {
+    return parityErrors;
+  }
+
+  /**
+   * Gets the track number.
+   *
+   * @return Track number, 1, 2 or 3.
+   */
+  public int getTrack() {
+    return track;
+  }
+
+  /**
+   * Checks whether both the start sentinel and the end sentinel were found.
+   *
+   * @return True if a track was found.
+   */
+  public boolean hasTrack() {
+    return found;
+  }
+
+  /**
+   * Checks whether the longitudinal redundancy check character was present, with odd parity, and
+   * matched the decoded characters.
+   *
+   * @return True if the longitudinal redundancy check passed.
+   */
+  public boolean isLrcValid() {
+    return lrcValid;
+  }
+
+  /**
+   * Checks whether the card was swiped backwards, so that the bits were decoded in reverse.
+   *
+   * @return True if the swipe was reversed.
+   */
+  public boolean isReversed() {
+    return reversed;
+  }
+
+  /**
+   * Checks whether the track was found, and passed all parity and longitudinal redundancy checks.
+   *
+   * @return True if the decoded characters can be trusted.
+   */
+  public boolean isValid() {
+    return found && parityErrors == 0 && lrcValid;
+  }
+}
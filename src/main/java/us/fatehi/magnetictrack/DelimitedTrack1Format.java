@@ -0,0 +1,186 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Track 1 format where the fields are in a configurable order, separated by a separator character.
+ * The last field runs up to the end sentinel. This fits proprietary layouts, such as format "A",
+ * which is reserved for use by card issuers. For example, a format "A" track with the name first
+ * could be laid out as:
+ *
+ * <pre>
+ * new DelimitedTrack1Format('A', '^', Track1Field.Name, Track1Field.AccountNumber,
+ *     Track1Field.ExpirationDate, Track1Field.DiscretionaryData)
+ * </pre>
+ *
+ * <p>The account number needs to be 1 to 19 digits, and the name 2 to 26 characters. The
+ * expiration date and service code need to be 4 and 3 digits, or empty if they are not on the
+ * card.
+ */
+public final class DelimitedTrack1Format implements Track1Format {
+
+  private final char formatCode;
+  private final char separator;
+  private final Track1Field[] fields;
+
+  /**
+   * Creates a delimited track 1 format.
+   *
+   * @param formatCode Format code, from "A" to "Z".
+   * @param separator Separator between fields.
+   * @param fields Fields in the order that they are on the track, each at most once.
+   */
+  public DelimitedTrack1Format(
+      final char formatCode, final char separator, final Track1Field... fields) {
+    if (formatCode < 'A' || formatCode > 'Z') {
+      throw new IllegalArgumentException(
+          "Track 1 format code needs to be from A to Z: " + formatCode);
+    }
+    if (separator == '?' || separator == '%' || separator == ';') {
+      throw new IllegalArgumentException("Separator cannot be a track sentinel: " + separator);
+    }
+    requireNonNull(fields, "No fields provided");
+    if (fields.length == 0) {
+      throw new IllegalArgumentException("No fields provided");
+    }
+    final Set<Track1Field> distinctFields = EnumSet.noneOf(Track1Field.class);
+    for (final Track1Field field : fields) {
+      requireNonNull(field, "No field provided");
+      if (!distinctFields.add(field)) {
+        throw new IllegalArgumentException("Field is repeated: " + field);
+      }
+    }
+
+    this.formatCode = formatCode;
+    this.separator = separator;
+    this.fields = fields.clone();
+  }
+
+  @Override
+  public char getFormatCode() {
+    return formatCode;
+  }
+
+  @Override
+  public boolean scan(final CharSequence track, final Track1Fields trackFields) {
+    final int length = track.length();
+    int start = 0;
+    for (int i = 0; i < fields.length; i++) {
+      int end = start;
+      if (i == fields.length - 1) {
+        end = length;
+      } else {
+        while (end < length && track.charAt(end) != separator) {
+          end++;
+        }
+        if (end == length) {
+          return trackFields.fail(TrackFailure.InvalidSeparator, end);
+        }
+      }
+      if (!scanField(fields[i], track, start, end, trackFields)) {
+        return false;
+      }
+      start = end + 1;
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder buffer = new StringBuilder().append(formatCode);
+    for (int i = 0; i < fields.length; i++) {
+      if (i > 0) {
+        buffer.append(separator);
+      }
+      buffer.append(fields[i]);
+    }
+    return buffer.toString();
+  }
+
+  private boolean scanDigits(
+      final CharSequence track,
+      final int start,
+      final int end,
+      final int digits,
+      final TrackFailure failure,
+      final Track1Fields trackFields) {
+    for (int i = start; i < end; i++) {
+      final char ch = track.charAt(i);
+      if (i - start == digits || ch < '0' || ch > '9') {
+        return trackFields.fail(failure, i);
+      }
+    }
+    if (end - start < digits) {
+      return trackFields.fail(failure, end);
+    }
+    return true;
+  }
+
+  private boolean scanField(
+      final Track1Field field,
+      final CharSequence track,
+      final int start,
+      final int end,
+      final Track1Fields trackFields) {
+    switch (field) {
+      case AccountNumber:
+        if (start == end) {
+          return trackFields.fail(TrackFailure.InvalidAccountNumber, start);
+        }
+        for (int i = start; i < end; i++) {
+          if (i - start == 19) {
+            return trackFields.fail(TrackFailure.AccountNumberTooLong, i);
+          }
+          final char ch = track.charAt(i);
+          if (ch < '0' || ch > '9') {
+            return trackFields.fail(TrackFailure.InvalidAccountNumber, i);
+          }
+        }
+        trackFields.setAccountNumber(start, end);
+        return true;
+      case Name:
+        // Same bounds as format "B"
+        if (end - start < 2) {
+          return trackFields.fail(TrackFailure.InvalidName, start);
+        }
+        if (end - start > 26) {
+          return trackFields.fail(TrackFailure.InvalidName, start + 26);
+        }
+        trackFields.setName(start, end);
+        return true;
+      case ExpirationDate:
+        if (start == end) {
+          return true;
+        }
+        if (!scanDigits(track, start, end, 4, TrackFailure.InvalidExpirationDate, trackFields)) {
+          return false;
+        }
+        trackFields.setExpirationDate(start, end);
+        return true;
+      case ServiceCode:
+        if (start == end) {
+          return true;
+        }
+        if (!scanDigits(track, start, end, 3, TrackFailure.InvalidServiceCode, trackFields)) {
+          return false;
+        }
+        trackFields.setServiceCode(start, end);
+        return true;
+      default:
+        if (end > start) {
+          trackFields.setDiscretionaryData(start, end);
+        }
+        return true;
+    }
+  }
+}
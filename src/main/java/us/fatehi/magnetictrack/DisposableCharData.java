@@ -0,0 +1,146 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Private copy of sensitive character data, that can be disposed by overwriting it. Unlike {@link
+ * us.fatehi.creditcardnumber.DisposableStringData}, the copy is taken directly from the input
+ * characters, so no intermediate string is ever created.
+ */
+final class DisposableCharData implements CharSequence, Serializable {
+
+  @Serial private static final long serialVersionUID = -3519584916417626052L;
+
+  /**
+   * Takes ownership of characters, without copying them. The caller must not use the array after
+   * this.
+   *
+   * @param data Characters to hold on to
+   * @return Disposable character data backed by the array
+   */
+  static DisposableCharData wrap(final char[] data) {
+    return new DisposableCharData(data);
+  }
+
+  private final char[] data;
+
+  private DisposableCharData(final char[] data) {
+    this.data = data;
+  }
+
+  DisposableCharData(final CharSequence source) {
+    this(source, 0, source == null ? 0 : source.length());
+  }
+
+  DisposableCharData(final CharSequence source, final int start, final int end) {
+    if (source == null || start < 0 || end <= start) {
+      data = new char[0];
+    } else if (source instanceof String) {
+      data = new char[end - start];
+      ((String) source).getChars(start, end, data, 0);
+    } else if (source instanceof CharBuffer) {
+      final CharBuffer buffer = (CharBuffer) source;
+      data = new char[end - start];
+      buffer.get(buffer.position() + start, data);
+    } else {
+      data = new char[end - start];
+      for (int i = 0; i < data.length; i++) {
+        data[i] = source.charAt(start + i);
+      }
+    }
+  }
+
+  @Override
+  public char charAt(final int index) {
+    return data[index];
+  }
+
+  /** Overwrites the data in memory. */
+  void disposeData() {
+    Arrays.fill(data, '\0');
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return Arrays.equals(data, ((DisposableCharData) obj).data);
+  }
+
+  /**
+   * Gets the data as a string. A new string is created on every call.
+   *
+   * @return Data, or null if there is no data or it has been disposed
+   */
+  String getData() {
+    if (hasData()) {
+      return new String(data);
+    }
+    return null;
+  }
+
+  /**
+   * Gets part of the data as a string.
+   *
+   * @param start Start of the part, or -1 if the part is not present
+   * @param end End of the part
+   * @return Part of the data, or null if the part is not present
+   */
+  String getData(final int start, final int end) {
+    if (start < 0) {
+      return null;
+    }
+    return new String(data, start, end - start);
+  }
+
+  /**
+   * Whether data is present, and has not been disposed.
+   *
+   * @return True if data is available
+   */
+  boolean hasData() {
+    for (final char ch : data) {
+      if (ch != '\0') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(data);
+  }
+
+  @Override
+  public int length() {
+    return data.length;
+  }
+
+  @Override
+  public CharSequence subSequence(final int start, final int end) {
+    return CharBuffer.wrap(data, start, end - start).asReadOnlyBuffer();
+  }
+
+  @Override
+  public String toString() {
+    if (hasData()) {
+      return new String(data);
+    }
+    return "";
+  }
+}
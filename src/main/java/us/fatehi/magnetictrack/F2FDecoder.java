@@ -0,0 +1,175 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+/**
+ * Decodes raw track bits, as read by a magnetic head and demodulated from F2F (Aiken biphase)
+ * flux transitions, into track characters, according to ISO/IEC 7811-2. Track 1 has 7-bit
+ * characters, with 6 data bits and an odd parity bit. Tracks 2 and 3 have 5-bit characters, with 4
+ * data bits and an odd parity bit. Data bits are recorded least significant bit first.
+ *
+ * <p>The bits are expected to start with leading zeros, followed by the start sentinel, the data,
+ * the end sentinel, the longitudinal redundancy check (LRC) character, and trailing zeros. If no
+ * start sentinel follows the leading zeros, the card is assumed to have been swiped backwards, and
+ * the bits are decoded in reverse.
+ *
+ * <p>Decoded characters can be passed straight to {@link Track1FormatB#from(char[])}, {@link
+ * Track2#from(char[])} and {@link Track3#from(char[])}. The start sentinel of track 3 is decoded as
+ * "+", which is how {@link Track3} expects it.
+ */
+public final class F2FDecoder {
+
+  private static final int TRACK_1_FRAME_BITS = 7;
+  private static final int TRACK_2_FRAME_BITS = 5;
+  private static final int TRACK_1_CHARACTER_OFFSET = 0x20;
+  private static final int TRACK_2_CHARACTER_OFFSET = 0x30;
+
+  /** Characters for track 1 frames, which are 0 if the parity is not odd. */
+  private static final char[] track1Characters =
+      characterTable(TRACK_1_FRAME_BITS, TRACK_1_CHARACTER_OFFSET);
+
+  /** Characters for track 2 and track 3 frames, which are 0 if the parity is not odd. */
+  private static final char[] track2Characters =
+      characterTable(TRACK_2_FRAME_BITS, TRACK_2_CHARACTER_OFFSET);
+
+  /**
+   * Decodes raw track bits. Bits are packed into bytes in the order that they were read, starting
+   * from the most significant bit of the first byte.
+   *
+   * @param track Track number, 1, 2 or 3.
+   * @param bits Packed raw track bits.
+   * @param bitCount Number of bits that were read.
+   * @return Decoded track.
+   */
+  public static DecodedTrack decode(final int track, final byte[] bits, final int bitCount) {
+    requireNonNull(bits, "No bits provided");
+    if (track < 1 || track > 3) {
+      throw new IllegalArgumentException("Track number needs to be 1, 2 or 3");
+    }
+    if (bitCount < 0 || bitCount > bits.length * 8) {
+      throw new IllegalArgumentException("Bit count is out of range");
+    }
+
+    final DecodedTrack decoded = decode(track, bits, bitCount, false);
+    if (decoded != null) {
+      return decoded;
+    }
+    final DecodedTrack reversed = decode(track, bits, bitCount, true);
+    if (reversed != null) {
+      return reversed;
+    }
+    return new DecodedTrack(track, new char[0], false, false, 0, false);
+  }
+
+  private static int bit(
+      final byte[] bits, final int bitCount, final int index, final boolean reversed) {
+    final int position = reversed ? bitCount - 1 - index : index;
+    return (bits[position >>> 3] >>> (7 - (position & 7))) & 1;
+  }
+
+  /**
+   * Builds a table from every possible frame, with the first bit read as the least significant
+   * bit, to its character. Frames that do not have odd parity map to 0.
+   */
+  private static char[] characterTable(final int frameBits, final int offset) {
+    final int dataMask = (1 << (frameBits - 1)) - 1;
+    final char[] table = new char[1 << frameBits];
+    for (int frame = 0; frame < table.length; frame++) {
+      if (Integer.bitCount(frame) % 2 == 1) {
+        table[frame] = (char) (offset + (frame & dataMask));
+      }
+    }
+    return table;
+  }
+
+  private static DecodedTrack decode(
+      final int track, final byte[] bits, final int bitCount, final boolean reversed) {
+    final char[] table;
+    final int frameBits;
+    final int characterOffset;
+    final char startSentinel;
+    if (track == 1) {
+      table = track1Characters;
+      frameBits = TRACK_1_FRAME_BITS;
+      characterOffset = TRACK_1_CHARACTER_OFFSET;
+      startSentinel = '%';
+    } else {
+      table = track2Characters;
+      frameBits = TRACK_2_FRAME_BITS;
+      characterOffset = TRACK_2_CHARACTER_OFFSET;
+      startSentinel = ';';
+    }
+    final int dataMask = (1 << (frameBits - 1)) - 1;
+
+    // Skip leading zeros, and expect the start sentinel at the first one bit
+    int position = 0;
+    while (position < bitCount && bit(bits, bitCount, position, reversed) == 0) {
+      position++;
+    }
+    if (position + frameBits > bitCount
+        || table[frame(bits, bitCount, position, frameBits, reversed)] != startSentinel) {
+      return null;
+    }
+
+    final char[] characters = new char[(bitCount - position) / frameBits];
+    int length = 0;
+    int parityErrors = 0;
+    int lrc = 0;
+    boolean endSentinel = false;
+    while (!endSentinel && position + frameBits <= bitCount) {
+      final int frame = frame(bits, bitCount, position, frameBits, reversed);
+      char ch = table[frame];
+      if (ch == 0) {
+        parityErrors++;
+        ch = (char) (characterOffset + (frame & dataMask));
+      }
+      characters[length++] = ch;
+      lrc ^= frame & dataMask;
+      endSentinel = ch == '?';
+      position += frameBits;
+    }
+    if (!endSentinel) {
+      Arrays.fill(characters, '\0');
+      return null;
+    }
+
+    boolean lrcValid = false;
+    if (position + frameBits <= bitCount) {
+      final int frame = frame(bits, bitCount, position, frameBits, reversed);
+      lrcValid = table[frame] != 0 && (frame & dataMask) == lrc;
+    }
+
+    if (track == 3) {
+      characters[0] = '+';
+    }
+    final char[] decoded = Arrays.copyOf(characters, length);
+    Arrays.fill(characters, '\0');
+    return new DecodedTrack(track, decoded, true, reversed, parityErrors, lrcValid);
+  }
+
+  private static int frame(
+      final byte[] bits,
+      final int bitCount,
+      final int position,
+      final int frameBits,
+      final boolean reversed) {
+    int frame = 0;
+    for (int i = 0; i < frameBits; i++) {
+      frame |= bit(bits, bitCount, position + i, reversed) << i;
+    }
+    return frame;
+  }
+
+  private F2FDecoder() {
+    // Prevent instantiation
+  }
+}
@@ -0,0 +1,27 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+/**
+ * How much of a parsed swipe is written by {@link BankCardMagneticTrack#formatTo(Appendable,
+ * FormatVerbosity)}.
+ */
+public enum FormatVerbosity {
+
+  /** Raw data of each track only. */
+  RawData,
+
+  /** Raw data and parsed fields of each track. */
+  Tracks,
+
+  /**
+   * Raw data and parsed fields of each track, followed by the bank card information. This is the
+   * same as {@link BankCardMagneticTrack#toString()}.
+   */
+  Full;
+}
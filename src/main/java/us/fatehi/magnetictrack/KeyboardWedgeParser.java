@@ -0,0 +1,308 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Push-style parser for keyboard-wedge card readers, which type a swipe one character at a time.
+ * Each character advances a state machine through the fields of track 1 in format "B" and of
+ * track 2, so that the swipe can be passed on as soon as the end sentinel of track 2 is typed,
+ * before track 3 or the line break that ends the swipe. Authorization can start from track 2
+ * while the reader is still typing.
+ *
+ * <p>A track that does not follow the grammar of its fields, that is interrupted by a line break or
+ * the start of another track, or that is longer than its maximum length, is dropped as soon as the
+ * offending character is typed, and parsing picks up again at the next start sentinel. Track 1 in
+ * other registered formats, and track 3, are read up to the end sentinel. A swipe ends with a blank
+ * line, with track 3, or when a track starts that cannot follow the tracks already read.
+ *
+ * <p>Only the tracks of the current swipe are held, in a fixed buffer, which is cleared as soon as
+ * the swipe ends. A parser is meant for a single reader, and is not thread-safe.
+ */
+public final class KeyboardWedgeParser {
+
+  /** Field of the track that is being typed. */
+  private enum State {
+    None,
+    FormatCode,
+    Track1AccountNumber,
+    Name,
+    ExpirationDate,
+    Track1Data,
+    Track2AccountNumber,
+    Track2ExpirationDate,
+    Track2Data,
+    Track3Data;
+  }
+
+  private static final int MAXIMUM_SWIPE_LENGTH =
+      Track1FormatB.MAXIMUM_LENGTH + Track2.MAXIMUM_LENGTH + Track3.MAXIMUM_LENGTH;
+
+  private final Consumer<? super BankCardMagneticTrack> onTrack2;
+  private final Consumer<? super BankCardMagneticTrack> onSwipe;
+  private final char[] swipe = new char[MAXIMUM_SWIPE_LENGTH];
+  // Start and end of each track that has been read, indexed by track number
+  private final int[] trackStarts = new int[4];
+  private final int[] trackEnds = new int[4];
+  private int length;
+  private State state = State.None;
+  private int track;
+  private int trackStart;
+  private int fieldLength;
+  private int readTrack;
+  private int lineBreaks;
+  private boolean afterCarriageReturn;
+
+  /**
+   * Creates a parser for a keyboard-wedge reader.
+   *
+   * @param onTrack2 Handler for a swipe, as soon as track 2 has been typed, with the tracks that
+   *     have been typed so far.
+   * @param onSwipe Handler for a swipe, with all of its tracks, when the swipe ends.
+   */
+  public KeyboardWedgeParser(
+      final Consumer<? super BankCardMagneticTrack> onTrack2,
+      final Consumer<? super BankCardMagneticTrack> onSwipe) {
+    this.onTrack2 = requireNonNull(onTrack2, "No track 2 handler provided");
+    this.onSwipe = requireNonNull(onSwipe, "No swipe handler provided");
+  }
+
+  /**
+   * Parses a character, as it is typed.
+   *
+   * @param ch Character typed by the reader.
+   */
+  public void accept(final char ch) {
+    final boolean carriageReturn = afterCarriageReturn;
+    afterCarriageReturn = ch == '\r';
+    if (state != State.None && !advance(ch)) {
+      dropTrack();
+    }
+    if (state != State.None) {
+      return;
+    }
+
+    if (ch == '\n' || ch == '\r') {
+      // A line feed that follows a carriage return is part of the same line break
+      if (!(ch == '\n' && carriageReturn)) {
+        lineBreaks++;
+      }
+      if (lineBreaks >= 2) {
+        endSwipe();
+      }
+      return;
+    }
+    if (ch > ' ') {
+      lineBreaks = 0;
+    }
+
+    final int startTrack;
+    final State startState;
+    switch (ch) {
+      case '%':
+        startTrack = 1;
+        startState = State.FormatCode;
+        break;
+      case ';':
+        startTrack = 2;
+        startState = State.Track2AccountNumber;
+        break;
+      case '+':
+        startTrack = 3;
+        startState = State.Track3Data;
+        break;
+      default:
+        return;
+    }
+    // Tracks of a swipe are always in order, so an earlier track starts a new swipe
+    if (startTrack <= readTrack) {
+      endSwipe();
+    }
+    track = startTrack;
+    state = startState;
+    trackStart = length;
+    fieldLength = 0;
+    swipe[length++] = ch;
+  }
+
+  /**
+   * Parses characters, as they are typed.
+   *
+   * @param chars Characters typed by the reader.
+   */
+  public void accept(final CharSequence chars) {
+    requireNonNull(chars, "No characters provided");
+    for (int i = 0; i < chars.length(); i++) {
+      accept(chars.charAt(i));
+    }
+  }
+
+  /**
+   * Ends the current swipe, if any tracks have been typed, such as when the reader has been idle.
+   * A track that has not been completely typed is dropped.
+   */
+  public void flush() {
+    if (state != State.None) {
+      dropTrack();
+    }
+    endSwipe();
+  }
+
+  /**
+   * Advances the state machine of the track that is being typed.
+   *
+   * @param ch Character typed by the reader
+   * @return False if the character cannot be part of the track
+   */
+  private boolean advance(final char ch) {
+    if (ch < ' ' || ch > '~' || ch == '%' || ch == ';' || track != 1 && ch == '+') {
+      return false;
+    }
+    final boolean digit = ch >= '0' && ch <= '9';
+    switch (state) {
+      case FormatCode:
+        if (ch == 'B' && Track1Formats.format(ch) == Track1Formats.FORMAT_B) {
+          state = State.Track1AccountNumber;
+        } else if (ch >= 'A' && ch <= 'Z' && Track1Formats.format(ch) != null) {
+          state = State.Track1Data;
+        } else {
+          return false;
+        }
+        break;
+      case Track1AccountNumber:
+        if (!nextField(digit, ch == '^', 19, 1, State.Name)) {
+          return false;
+        }
+        break;
+      case Name:
+        if (!nextField(ch != '^', ch == '^', 26, 2, State.ExpirationDate)) {
+          return false;
+        }
+        break;
+      case ExpirationDate:
+        if (ch == '^' && fieldLength == 0) {
+          state = State.Track1Data;
+        } else if (!digit) {
+          return false;
+        } else if (++fieldLength == 4) {
+          state = State.Track1Data;
+        }
+        break;
+      case Track2AccountNumber:
+        if (!nextField(digit, ch == '=', 19, 1, State.Track2ExpirationDate)) {
+          return false;
+        }
+        break;
+      case Track2ExpirationDate:
+        // Expiration date, and service code
+        if (!digit) {
+          return false;
+        }
+        if (++fieldLength == 7) {
+          state = State.Track2Data;
+        }
+        break;
+      default:
+        if (ch == '?') {
+          swipe[length++] = ch;
+          endTrack();
+          return true;
+        }
+        break;
+    }
+
+    swipe[length++] = ch;
+    return length - trackStart < maximumLength(track);
+  }
+
+  private void dropTrack() {
+    Arrays.fill(swipe, trackStart, length, '\0');
+    length = trackStart;
+    state = State.None;
+  }
+
+  private void endSwipe() {
+    readTrack = 0;
+    lineBreaks = 0;
+    if (length > 0) {
+      final BankCardMagneticTrack parsed = parse();
+      Arrays.fill(swipe, 0, length, '\0');
+      Arrays.fill(trackEnds, 0);
+      length = 0;
+      onSwipe.accept(parsed);
+    }
+  }
+
+  private void endTrack() {
+    trackStarts[track] = trackStart;
+    trackEnds[track] = length;
+    readTrack = track;
+    state = State.None;
+    if (track == 2) {
+      onTrack2.accept(parse());
+    } else if (track == 3) {
+      endSwipe();
+    }
+  }
+
+  private int maximumLength(final int track) {
+    switch (track) {
+      case 1:
+        return Track1FormatB.MAXIMUM_LENGTH;
+      case 2:
+        return Track2.MAXIMUM_LENGTH;
+      default:
+        return Track3.MAXIMUM_LENGTH;
+    }
+  }
+
+  /**
+   * Advances through a field that ends with a separator.
+   *
+   * @param valid Whether the character can be part of the field
+   * @param separator Whether the character is the separator after the field
+   * @param maximumLength Maximum length of the field
+   * @param minimumLength Minimum length of the field
+   * @param next State after the separator
+   * @return False if the character cannot be part of the track
+   */
+  private boolean nextField(
+      final boolean valid,
+      final boolean separator,
+      final int maximumLength,
+      final int minimumLength,
+      final State next) {
+    if (separator) {
+      if (fieldLength < minimumLength) {
+        return false;
+      }
+      state = next;
+      fieldLength = 0;
+      return true;
+    }
+    return valid && ++fieldLength <= maximumLength;
+  }
+
+  private BankCardMagneticTrack parse() {
+    // Each track is parsed on its own, since line breaks between tracks are not kept
+    return BankCardMagneticTrack.parse(
+        CharBuffer.wrap(swipe, 0, length), trackData(1), trackData(2), trackData(3));
+  }
+
+  private CharBuffer trackData(final int track) {
+    if (trackEnds[track] == 0) {
+      return null;
+    }
+    return CharBuffer.wrap(swipe, trackStarts[track], trackEnds[track] - trackStarts[track]);
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static us.fatehi.creditcardnumber.AccountNumbers.completeAccountNumber;
+import static us.fatehi.creditcardnumber.AccountNumbers.emptyAccountNumber;
+
+import java.io.Serial;
+import us.fatehi.creditcardnumber.AccountNumber;
+import us.fatehi.creditcardnumber.CardBrand;
+import us.fatehi.creditcardnumber.MajorIndustryIdentifier;
+
+/**
+ * Primary account number that holds on to a disposable copy of the digits, and only creates the
+ * complete account number, with its card brand detection and Luhn check, when it is first used.
+ * Until then, the primary account number never exists as a string. Disposing it before it is used
+ * overwrites the digits without creating the complete account number, so the card brand and other
+ * details are not available after that.
+ */
+final class LazyAccountNumber implements AccountNumber {
+
+  @Serial private static final long serialVersionUID = 5106196125460364426L;
+
+  private final DisposableCharData rawAccountNumber;
+  private volatile AccountNumber accountNumber;
+  private boolean rawDataDisposed;
+
+  LazyAccountNumber(final DisposableCharData rawAccountNumber) {
+    this.rawAccountNumber = rawAccountNumber;
+  }
+
+  @Override
+  public void dispose() {
+    synchronized (this) {
+      if (accountNumber == null) {
+        rawAccountNumber.disposeData();
+        accountNumber = emptyAccountNumber();
+        return;
+      }
+    }
+    accountNumber.dispose();
+  }
+
+  @Override
+  public void disposeRawData() {
+    synchronized (this) {
+      if (accountNumber == null) {
+        // The raw data is disposed when the complete account number is created
+        rawDataDisposed = true;
+        return;
+      }
+    }
+    accountNumber.disposeRawData();
+  }
+
+  /**
+   * Gets the digits of the account number, without creating the complete account number.
+   *
+   * @return Digits, or null if the complete account number has already been created
+   */
+  CharSequence digits() {
+    synchronized (this) {
+      return accountNumber == null ? rawAccountNumber : null;
+    }
+  }
+
+  /**
+   * Checks whether the account number has been disposed, without creating the complete account
+   * number.
+   *
+   * @return True if the account number has been disposed
+   */
+  boolean isDisposed() {
+    final AccountNumber accountNumber = this.accountNumber;
+    return accountNumber != null && !accountNumber.hasAccountNumber();
+  }
+
+  @Override
+  public boolean exceedsMaximumLength() {
+    return accountNumber().exceedsMaximumLength();
+  }
+
+  @Override
+  public String getAccountNumber() {
+    return accountNumber().getAccountNumber();
+  }
+
+  @Override
+  public int getAccountNumberLength() {
+    return accountNumber().getAccountNumberLength();
+  }
+
+  @Override
+  public CardBrand getCardBrand() {
+    return accountNumber().getCardBrand();
+  }
+
+  @Override
+  public String getIssuerIdentificationNumber() {
+    return accountNumber().getIssuerIdentificationNumber();
+  }
+
+  @Override
+  public String getLastFourDigits() {
+    return accountNumber().getLastFourDigits();
+  }
+
+  @Override
+  public MajorIndustryIdentifier getMajorIndustryIdentifier() {
+    return accountNumber().getMajorIndustryIdentifier();
+  }
+
+  @Override
+  public String getRawData() {
+    return accountNumber().getRawData();
+  }
+
+  @Override
+  public boolean hasAccountNumber() {
+    return accountNumber().hasAccountNumber();
+  }
+
+  @Override
+  public boolean hasRawData() {
+    return accountNumber().hasRawData();
+  }
+
+  @Override
+  public boolean isLengthValid() {
+    return accountNumber().isLengthValid();
+  }
+
+  @Override
+  public boolean isPrimaryAccountNumberValid() {
+    return accountNumber().isPrimaryAccountNumberValid();
+  }
+
+  @Override
+  public boolean passesLuhnCheck() {
+    return accountNumber().passesLuhnCheck();
+  }
+
+  @Override
+  public AccountNumber toSecureAccountNumber() {
+    return accountNumber().toSecureAccountNumber();
+  }
+
+  @Override
+  public String toString() {
+    return accountNumber().toString();
+  }
+
+  private AccountNumber accountNumber() {
+    AccountNumber accountNumber = this.accountNumber;
+    if (accountNumber == null) {
+      synchronized (this) {
+        accountNumber = this.accountNumber;
+        if (accountNumber == null) {
+          accountNumber = completeAccountNumber(rawAccountNumber.getData());
+          // The complete account number has its own copy of the digits
+          rawAccountNumber.disposeData();
+          if (rawDataDisposed) {
+            accountNumber.disposeRawData();
+          }
+          this.accountNumber = accountNumber;
+        }
+      }
+    }
+    return accountNumber;
+  }
+}
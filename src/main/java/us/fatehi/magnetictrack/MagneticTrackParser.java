@@ -0,0 +1,344 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_1;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_2;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_3;
+import static us.fatehi.magnetictrack.MaskedTrackData.MASK;
+import static us.fatehi.magnetictrack.MaskedTrackData.isMaskedDigit;
+
+import java.nio.ByteBuffer;
+import us.fatehi.creditcardnumber.ExpirationDate;
+import us.fatehi.creditcardnumber.ServiceCode;
+
+/**
+ * Reusable parser that reports the fields of each track to a {@link TrackVisitor}, instead of
+ * creating track objects. A parser reuses its internal state for every swipe, so after the first
+ * swipe, parsing does not allocate any memory. Tracks are found in exactly the same way as {@link
+ * BankCardMagneticTrack#from(String)}.
+ *
+ * <p>A parser is not thread-safe. Create one parser for each thread, and reuse it for every swipe
+ * on that thread.
+ */
+public final class MagneticTrackParser {
+
+  private static final ThreadLocal<MagneticTrackParser> threadParser =
+      ThreadLocal.withInitial(MagneticTrackParser::new);
+
+  /**
+   * Gets a parser that is confined to the current thread, for internal use only.
+   *
+   * @return Parser for the current thread
+   */
+  static MagneticTrackParser forCurrentThread() {
+    return threadParser.get();
+  }
+
+  private final TrackScanner scanner;
+  private final AsciiCharSequence bytes;
+  private final CharSequenceView chars;
+  private final CharSequenceView field;
+
+  public MagneticTrackParser() {
+    scanner = new TrackScanner();
+    bytes = new AsciiCharSequence();
+    chars = new CharSequenceView();
+    field = new CharSequenceView();
+  }
+
+  /**
+   * Masks ASCII bytes between the buffer's position and limit. The buffer can be a heap or direct
+   * buffer, and its position is not changed.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and other tracks as
+   *     well.
+   * @return Masked track data.
+   */
+  public MaskedTrackData mask(final ByteBuffer rawTrackData) {
+    requireNonNull(rawTrackData, "No raw track data provided");
+    bytes.reset(rawTrackData);
+    return mask((CharSequence) bytes);
+  }
+
+  /**
+   * Masks characters. The characters are not copied, so the caller can overwrite them as soon as
+   * this method returns.
+   *
+   * @param rawTrackData Raw track data as characters. Can include newlines, and other tracks as
+   *     well.
+   * @return Masked track data.
+   */
+  public MaskedTrackData mask(final char[] rawTrackData) {
+    requireNonNull(rawTrackData, "No raw track data provided");
+    chars.reset(rawTrackData, 0, rawTrackData.length);
+    return mask((CharSequence) chars);
+  }
+
+  /**
+   * Masks a character sequence, such as a string, while it is parsed. Tracks are found in exactly
+   * the same way as when parsing, and only masked characters are ever copied out of the raw track
+   * data.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and other tracks as well.
+   * @return Masked track data.
+   */
+  public MaskedTrackData mask(final CharSequence rawTrackData) {
+    try {
+      scanner.reset(rawTrackData);
+
+      final StringBuilder accountNumber = new StringBuilder(19);
+      ExpirationDate expirationDate = null;
+      ServiceCode serviceCode = null;
+      String track1 = null;
+      String track2 = null;
+      String track3 = null;
+      if (scanner.scanTrack1()) {
+        track1 = maskTrack(3, 7, accountNumber);
+        expirationDate = expirationDate(5);
+        serviceCode = serviceCode(6);
+      }
+      if (scanner.scanTrack2()) {
+        track2 = maskTrack(2, 5, accountNumber);
+        if (expirationDate == null || !expirationDate.hasExpirationDate()) {
+          expirationDate = expirationDate(3);
+        }
+        if (serviceCode == null || !serviceCode.hasServiceCode()) {
+          serviceCode = serviceCode(4);
+        }
+      }
+      if (scanner.scanTrack3()) {
+        track3 = maskTrack(-1, 2, accountNumber);
+      }
+      return new MaskedTrackData(
+          accountNumber.toString(),
+          expirationDate == null ? CanonicalFields.EMPTY_EXPIRATION_DATE : expirationDate,
+          serviceCode == null ? CanonicalFields.EMPTY_SERVICE_CODE : serviceCode,
+          track1,
+          track2,
+          track3);
+    } finally {
+      clear();
+    }
+  }
+
+  /**
+   * Parses ASCII bytes between the buffer's position and limit. The buffer can be a heap or direct
+   * buffer, and its position is not changed.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and other tracks as
+   *     well.
+   * @param visitor Visitor for the fields of each track.
+   */
+  public void parse(final ByteBuffer rawTrackData, final TrackVisitor visitor) {
+    requireNonNull(rawTrackData, "No raw track data provided");
+    bytes.reset(rawTrackData);
+    parse((CharSequence) bytes, visitor);
+  }
+
+  /**
+   * Parses characters. The characters are not copied, so the caller can overwrite them as soon as
+   * this method returns.
+   *
+   * @param rawTrackData Raw track data as characters. Can include newlines, and other tracks as
+   *     well.
+   * @param visitor Visitor for the fields of each track.
+   */
+  public void parse(final char[] rawTrackData, final TrackVisitor visitor) {
+    requireNonNull(rawTrackData, "No raw track data provided");
+    chars.reset(rawTrackData, 0, rawTrackData.length);
+    parse((CharSequence) chars, visitor);
+  }
+
+  /**
+   * Parses a character sequence, such as a string.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and other tracks as well.
+   * @param visitor Visitor for the fields of each track.
+   */
+  public void parse(final CharSequence rawTrackData, final TrackVisitor visitor) {
+    requireNonNull(visitor, "No visitor provided");
+    try {
+      scanner.reset(rawTrackData);
+
+      if (scanner.scanTrack1()) {
+        visitor.onTrack(1, scanner.groupView(1, field));
+        visitor.onFormatCode(scanner.groupView(2, field).charAt(0));
+        visitPan(1, 3, visitor);
+        visitName(4, visitor);
+        visitBankCardFields(1, 5, visitor);
+      }
+      if (scanner.scanTrack2()) {
+        visitor.onTrack(2, scanner.groupView(1, field));
+        visitPan(2, 2, visitor);
+        visitBankCardFields(2, 3, visitor);
+      }
+      if (scanner.scanTrack3()) {
+        visitor.onTrack(3, scanner.groupView(1, field));
+        visitDiscretionaryData(3, 2, visitor);
+      }
+    } finally {
+      clear();
+    }
+  }
+
+  /**
+   * Checks which tracks in ASCII bytes are well-formed, without creating any objects. See {@link
+   * #quickCheck(CharSequence)}.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes.
+   * @return Bitmask of well-formed tracks.
+   */
+  public int quickCheck(final ByteBuffer rawTrackData) {
+    requireNonNull(rawTrackData, "No raw track data provided");
+    bytes.reset(rawTrackData);
+    return check(bytes, TRACK_1 | TRACK_2 | TRACK_3);
+  }
+
+  /**
+   * Checks which tracks in characters are well-formed, without creating any objects. See {@link
+   * #quickCheck(CharSequence)}.
+   *
+   * @param rawTrackData Raw track data as characters.
+   * @return Bitmask of well-formed tracks.
+   */
+  public int quickCheck(final char[] rawTrackData) {
+    requireNonNull(rawTrackData, "No raw track data provided");
+    chars.reset(rawTrackData, 0, rawTrackData.length);
+    return check(chars, TRACK_1 | TRACK_2 | TRACK_3);
+  }
+
+  /**
+   * Checks which tracks are well-formed, without creating any objects. Sentinels, separators,
+   * digits and field lengths are checked in exactly the same way as when parsing, so a track is
+   * well-formed if and only if parsing finds it.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and other tracks as well.
+   * @return Bitmask of well-formed tracks, made up of {@link BankCardMagneticTrack#TRACK_1},
+   *     {@link BankCardMagneticTrack#TRACK_2} and {@link BankCardMagneticTrack#TRACK_3}.
+   */
+  public int quickCheck(final CharSequence rawTrackData) {
+    return check(rawTrackData, TRACK_1 | TRACK_2 | TRACK_3);
+  }
+
+  /**
+   * Checks whether some of the tracks are well-formed.
+   *
+   * @param rawTrackData Raw track data.
+   * @param tracks Bitmask of the tracks to check.
+   * @return Bitmask of well-formed tracks, out of the tracks that were checked.
+   */
+  int check(final CharSequence rawTrackData, final int tracks) {
+    try {
+      scanner.reset(rawTrackData);
+      int wellFormed = 0;
+      if ((tracks & TRACK_1) != 0 && scanner.scanTrack1()) {
+        wellFormed |= TRACK_1;
+      }
+      if ((tracks & TRACK_2) != 0 && scanner.scanTrack2()) {
+        wellFormed |= TRACK_2;
+      }
+      if ((tracks & TRACK_3) != 0 && scanner.scanTrack3()) {
+        wellFormed |= TRACK_3;
+      }
+      return wellFormed;
+    } finally {
+      clear();
+    }
+  }
+
+  /** Does not hold on to the caller's data between swipes. */
+  private void clear() {
+    scanner.reset(null);
+    bytes.clear();
+    chars.clear();
+    field.clear();
+  }
+
+  /**
+   * Copies the raw track from the last scan, with the digits of the primary account number that
+   * are not shown, and all of the discretionary data, replaced by the mask character.
+   *
+   * @param panGroup Group of the primary account number, or -1 if the track does not have one
+   * @param discretionaryDataGroup Group of the discretionary data
+   * @param accountNumber Truncated primary account number, which is set if it is still empty
+   * @return Masked raw track
+   */
+  private ExpirationDate expirationDate(final int group) {
+    return CanonicalFields.expirationDate(
+        scanner.groupView(1, field), scanner.start(group), scanner.end(group));
+  }
+
+  private ServiceCode serviceCode(final int group) {
+    return CanonicalFields.serviceCode(
+        scanner.groupView(1, field), scanner.start(group), scanner.end(group));
+  }
+
+  private String maskTrack(
+      final int panGroup, final int discretionaryDataGroup, final StringBuilder accountNumber) {
+    final CharSequence raw = scanner.groupView(1, field);
+    final int panStart = scanner.start(panGroup);
+    final int panEnd = scanner.end(panGroup);
+    final int discretionaryDataStart = scanner.start(discretionaryDataGroup);
+    final int discretionaryDataEnd = scanner.end(discretionaryDataGroup);
+
+    final char[] masked = new char[raw.length()];
+    for (int i = 0; i < masked.length; i++) {
+      final boolean panDigit = i >= panStart && i < panEnd;
+      if (panDigit && isMaskedDigit(i - panStart, panEnd - panStart)
+          || i >= discretionaryDataStart && i < discretionaryDataEnd) {
+        masked[i] = MASK;
+      } else {
+        masked[i] = raw.charAt(i);
+      }
+    }
+    if (accountNumber.length() == 0 && panStart >= 0) {
+      accountNumber.append(masked, panStart, panEnd - panStart);
+    }
+    return new String(masked);
+  }
+
+  /** Reports the expiration date, service code and discretionary data, which follow each other. */
+  private void visitBankCardFields(
+      final int track, final int expirationDateGroup, final TrackVisitor visitor) {
+    final int expirationDate = scanner.groupNumber(expirationDateGroup);
+    if (expirationDate >= 0) {
+      visitor.onExpiration(track, expirationDate);
+    }
+    final int serviceCode = scanner.groupNumber(expirationDateGroup + 1);
+    if (serviceCode >= 0) {
+      visitor.onServiceCode(track, serviceCode);
+    }
+    visitDiscretionaryData(track, expirationDateGroup + 2, visitor);
+  }
+
+  /** Track 1 in a registered format may not have a name. */
+  private void visitName(final int nameGroup, final TrackVisitor visitor) {
+    final CharSequence name = scanner.groupView(nameGroup, field);
+    if (name != null && name.length() > 0) {
+      visitor.onName(name);
+    }
+  }
+
+  /** Track 1 in a registered format may not have a primary account number. */
+  private void visitPan(final int track, final int panGroup, final TrackVisitor visitor) {
+    final CharSequence pan = scanner.groupView(panGroup, field);
+    if (pan != null && pan.length() > 0) {
+      visitor.onPan(track, pan);
+    }
+  }
+
+  private void visitDiscretionaryData(
+      final int track, final int discretionaryDataGroup, final TrackVisitor visitor) {
+    final CharSequence discretionaryData = scanner.groupView(discretionaryDataGroup, field);
+    if (discretionaryData != null && discretionaryData.length() > 0) {
+      visitor.onDiscretionary(track, discretionaryData);
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import java.nio.ByteBuffer;
+import us.fatehi.creditcardnumber.ExpirationDate;
+import us.fatehi.creditcardnumber.ServiceCode;
+
+/**
+ * Masked copy of a card swipe, which is safe to log, display or pass downstream. The primary
+ * account number is truncated to its first 6 and last 4 digits, and the discretionary data is
+ * masked completely. Masking is done while the raw track data is parsed, so the complete primary
+ * account number never exists as a string.
+ *
+ * <p>Primary account numbers of 10 digits or fewer only show the last 4 digits, and primary account
+ * numbers of 4 digits or fewer are masked completely. The name, expiration date and service code are
+ * not masked.
+ */
+public final class MaskedTrackData {
+
+  /** Character that replaces masked digits and discretionary data. */
+  public static final char MASK = '*';
+
+  /**
+   * Masks raw track data from ASCII bytes between the buffer's position and limit. The buffer can
+   * be a heap or direct buffer, and its position is not changed.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and all 3 tracks.
+   * @return Masked track data.
+   */
+  public static MaskedTrackData from(final ByteBuffer rawTrackData) {
+    if (rawTrackData == null) {
+      return from((CharSequence) null);
+    }
+    return MagneticTrackParser.forCurrentThread().mask(rawTrackData);
+  }
+
+  /**
+   * Masks raw track data from characters, which are not copied, so the caller can overwrite them as
+   * soon as this method returns.
+   *
+   * @param rawTrackData Raw track data as characters. Can include newlines, and all 3 tracks.
+   * @return Masked track data.
+   */
+  public static MaskedTrackData from(final char[] rawTrackData) {
+    if (rawTrackData == null) {
+      return from((CharSequence) null);
+    }
+    return MagneticTrackParser.forCurrentThread().mask(rawTrackData);
+  }
+
+  /**
+   * Masks raw track data.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and all 3 tracks.
+   * @return Masked track data.
+   */
+  public static MaskedTrackData from(final CharSequence rawTrackData) {
+    return MagneticTrackParser.forCurrentThread().mask(rawTrackData);
+  }
+
+  /**
+   * Checks whether a digit of the primary account number is masked.
+   *
+   * @param index Index of the digit.
+   * @param length Number of digits in the primary account number.
+   * @return True if the digit is masked.
+   */
+  static boolean isMaskedDigit(final int index, final int length) {
+    if (length > 10) {
+      return index >= 6 && index < length - 4;
+    }
+    return index < length - 4 || length <= 4;
+  }
+
+  private final String accountNumber;
+  private final ExpirationDate expirationDate;
+  private final ServiceCode serviceCode;
+  private final String track1;
+  private final String track2;
+  private final String track3;
+
+  MaskedTrackData(
+      final String accountNumber,
+      final ExpirationDate expirationDate,
+      final ServiceCode serviceCode,
+      final String track1,
+      final String track2,
+      final String track3) {
+    this.accountNumber = accountNumber;
+    this.expirationDate = expirationDate;
+    this.serviceCode = serviceCode;
+    this.track1 = track1;
+    this.track2 = track2;
+    this.track3 = track3;
+  }
+
+  /**
+   * Gets the truncated primary account number, from track 1 if it is available, or else from track
+   * 2.
+   *
+   * @return Truncated primary account number, or an empty string if there is none.
+   */
+  public String getAccountNumber() {
+    return accountNumber;
+  }
+
+  /**
+   * Gets the card expiration date, from track 1 if it has one, or else from track 2, so that the
+   * swipe does not have to be parsed again to read it.
+   *
+   * @return Card expiration date, which is empty if there is none.
+   */
+  public ExpirationDate getExpirationDate() {
+    return expirationDate;
+  }
+
+  /**
+   * Gets the masked raw data of all tracks that were found, one after the other. Characters
+   * outside the tracks are left out, since they could contain an account number that was not
+   * recognized.
+   *
+   * @return Masked raw track data, which is empty if no tracks were found.
+   */
+  public String getRawData() {
+    final StringBuilder buffer = new StringBuilder();
+    if (track1 != null) {
+      buffer.append(track1);
+    }
+    if (track2 != null) {
+      buffer.append(track2);
+    }
+    if (track3 != null) {
+      buffer.append(track3);
+    }
+    return buffer.toString();
+  }
+
+  /**
+   * Gets the card service code, from track 1 if it has one, or else from track 2, so that the swipe
+   * does not have to be parsed again to read it.
+   *
+   * @return Card service code, which is empty if there is none.
+   */
+  public ServiceCode getServiceCode() {
+    return serviceCode;
+  }
+
+  /**
+   * Gets the masked raw data of track 1.
+   *
+   * @return Masked track 1, or null if track 1 was not found.
+   */
+  public String getTrack1() {
+    return track1;
+  }
+
+  /**
+   * Gets the masked raw data of track 2.
+   *
+   * @return Masked track 2, or null if track 2 was not found.
+   */
+  public String getTrack2() {
+    return track2;
+  }
+
+  /**
+   * Gets the masked raw data of track 3.
+   *
+   * @return Masked track 3, or null if track 3 was not found.
+   */
+  public String getTrack3() {
+    return track3;
+  }
+
+  /**
+   * Checks whether a primary account number was found.
+   *
+   * @return True if a truncated primary account number is available.
+   */
+  public boolean hasAccountNumber() {
+    return !accountNumber.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return getRawData();
+  }
+}
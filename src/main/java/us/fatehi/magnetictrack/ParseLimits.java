@@ -0,0 +1,57 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+/**
+ * Limit on the length of raw track data, for all parsing. Raw track data that is longer than the
+ * limit is rejected before any of it is read, and is not kept as the raw data of the swipe, so a
+ * faulty card reader that sends a long run of garbage costs no more to parse than a swipe. The
+ * tracks themselves are limited to {@link Track1FormatB#MAXIMUM_LENGTH}, {@link
+ * Track2#MAXIMUM_LENGTH} and {@link Track3#MAXIMUM_LENGTH}, and parsing stops reading a track as
+ * soon as it is longer than its limit.
+ *
+ * <p>With the limits, parsing reads each character of the raw track data a bounded number of
+ * times, so the time taken is linear in the length of the raw track data, and never more than the
+ * time taken for the maximum input length.
+ */
+public final class ParseLimits {
+
+  /**
+   * Default maximum length of raw track data, which leaves room for all 3 tracks, with whitespace
+   * and line breaks between them.
+   */
+  public static final int DEFAULT_MAXIMUM_INPUT_LENGTH = 1024;
+
+  private static volatile int maximumInputLength = DEFAULT_MAXIMUM_INPUT_LENGTH;
+
+  /**
+   * Gets the maximum length of raw track data.
+   *
+   * @return Maximum number of characters, including any surrounding whitespace.
+   */
+  public static int getMaximumInputLength() {
+    return maximumInputLength;
+  }
+
+  /**
+   * Sets the maximum length of raw track data for all parsing.
+   *
+   * @param maximumInputLength Maximum number of characters, including any surrounding whitespace.
+   */
+  public static void setMaximumInputLength(final int maximumInputLength) {
+    if (maximumInputLength < 0) {
+      throw new IllegalArgumentException(
+          "Maximum input length cannot be negative: " + maximumInputLength);
+    }
+    ParseLimits.maximumInputLength = maximumInputLength;
+  }
+
+  private ParseLimits() {
+    // Prevent instantiation
+  }
+}
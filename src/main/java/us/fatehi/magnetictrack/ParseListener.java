@@ -0,0 +1,40 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+/**
+ * Receives metrics from inside the parser, once it is registered with {@link
+ * ParseListeners#register(ParseListener)}. Listeners are called on the parsing thread, for every
+ * track of every swipe, so they need to be fast and thread-safe. {@link ParseStatistics} is a
+ * ready-made listener that counts outcomes, and records how long parses take.
+ */
+public interface ParseListener {
+
+  /**
+   * Called after a complete swipe is parsed, after the calls for each of its tracks.
+   *
+   * @param inputLength Length of the raw track data.
+   * @param elapsedNanos Time taken to parse the swipe, in nanoseconds.
+   */
+  default void onSwipe(final int inputLength, final long elapsedNanos) {
+    // No metrics by default
+  }
+
+  /**
+   * Called after looking for a track in raw track data.
+   *
+   * @param track Track number, 1, 2 or 3.
+   * @param outcome Whether the track was found.
+   * @param failure Reason that a malformed track could not be read, or null if the track was found
+   *     or not present.
+   * @param inputLength Length of the raw track data.
+   * @param elapsedNanos Time taken to find and create the track, in nanoseconds.
+   */
+  void onTrack(
+      int track, TrackOutcome outcome, TrackFailure failure, int inputLength, long elapsedNanos);
+}
@@ -0,0 +1,47 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Registration of the {@link ParseListener} that every parse in the application reports to. While
+ * no listener is registered, parsing only checks for one, and does not read the clock.
+ */
+public final class ParseListeners {
+
+  private static volatile ParseListener listener;
+
+  /**
+   * Registers the listener for all parsing, in place of any listener that is already registered.
+   *
+   * @param listener Listener for parse metrics.
+   */
+  public static void register(final ParseListener listener) {
+    requireNonNull(listener, "No listener provided");
+    ParseListeners.listener = listener;
+  }
+
+  /** Stops reporting parse metrics. */
+  public static void unregister() {
+    listener = null;
+  }
+
+  /**
+   * Gets the registered listener.
+   *
+   * @return Listener, or null if none is registered
+   */
+  static ParseListener listener() {
+    return listener;
+  }
+
+  private ParseListeners() {
+    // Prevent instantiation
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+/**
+ * Result of parsing one track, with the reason and position where a track that was started could
+ * not be read. The outcome is noted by the scanner as it reads the track, so diagnosing a bad swipe
+ * does not need the raw track data to be read again.
+ *
+ * @param <T> Type of track.
+ */
+public final class ParseOutcome<T> {
+
+  private final T track;
+  private final TrackOutcome outcome;
+  private final TrackFailure failure;
+  private final int failureOffset;
+
+  ParseOutcome(
+      final T track,
+      final TrackOutcome outcome,
+      final TrackFailure failure,
+      final int failureOffset) {
+    this.track = track;
+    this.outcome = outcome;
+    this.failure = failure;
+    this.failureOffset = failureOffset;
+  }
+
+  /**
+   * Gets the reason that a track that was started could not be read.
+   *
+   * @return Failure, or null if the track was found or not present.
+   */
+  public TrackFailure getFailure() {
+    return failure;
+  }
+
+  /**
+   * Gets the position in the raw track data where a track that was started could not be read. This
+   * is the first character that does not fit the track, such as the first non-digit in an
+   * expiration date, or the end of the data if the track is cut short.
+   *
+   * @return Offset from the start of the raw track data, including any surrounding whitespace, or
+   *     -1 if the track was found or not present.
+   */
+  public int getFailureOffset() {
+    return failureOffset;
+  }
+
+  /**
+   * Gets the result of looking for the track.
+   *
+   * @return Outcome.
+   */
+  public TrackOutcome getOutcome() {
+    return outcome;
+  }
+
+  /**
+   * Gets the parsed track, which is empty if the track was not found.
+   *
+   * @return Track.
+   */
+  public T getTrack() {
+    return track;
+  }
+
+  /**
+   * Checks whether the track was found.
+   *
+   * @return True if the track was found.
+   */
+  public boolean isMatched() {
+    return outcome == TrackOutcome.Matched;
+  }
+
+  @Override
+  public String toString() {
+    if (failure == null) {
+      return outcome.toString();
+    }
+    return outcome + " " + failure + " at " + failureOffset;
+  }
+}
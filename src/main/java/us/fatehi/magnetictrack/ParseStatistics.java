@@ -0,0 +1,185 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parse listener that counts the outcome of each track, and keeps histograms of input lengths and
+ * elapsed times. Counters are {@link LongAdder}s, so that many parsing threads can update them
+ * without contention.
+ *
+ * <p>Histograms have one bucket for each power of two. Bucket 0 counts values of 0, and bucket
+ * {@code i} counts values from {@code 2^(i-1)} up to, but not including, {@code 2^i}.
+ */
+public final class ParseStatistics implements ParseListener {
+
+  private static final int BUCKETS = 64;
+  private static final TrackOutcome[] outcomes = TrackOutcome.values();
+  private static final TrackFailure[] failures = TrackFailure.values();
+
+  private static int bucket(final long value) {
+    return Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(Math.max(0, value)));
+  }
+
+  private static LongAdder[] newAdders(final int count) {
+    final LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  private static long[] sum(final LongAdder[] adders, final int offset, final int count) {
+    final long[] sums = new long[count];
+    for (int i = 0; i < count; i++) {
+      sums[i] = adders[offset + i].sum();
+    }
+    return sums;
+  }
+
+  private final LongAdder[] outcomeCounts = newAdders(3 * outcomes.length);
+  private final LongAdder[] failureCounts = newAdders(3 * failures.length);
+  private final LongAdder[] trackElapsed = newAdders(3 * BUCKETS);
+  private final LongAdder[] trackElapsedNanos = newAdders(3);
+  private final LongAdder[] inputLengths = newAdders(3 * BUCKETS);
+  private final LongAdder[] swipeElapsed = newAdders(BUCKETS);
+  private final LongAdder swipeElapsedNanos = new LongAdder();
+  private final LongAdder swipes = new LongAdder();
+
+  /**
+   * Gets the number of times that a track had an outcome.
+   *
+   * @param track Track number, 1, 2 or 3.
+   * @param outcome Outcome of looking for the track.
+   * @return Count.
+   */
+  public long getCount(final int track, final TrackOutcome outcome) {
+    requireNonNull(outcome, "No outcome provided");
+    return outcomeCounts[index(track) * outcomes.length + outcome.ordinal()].sum();
+  }
+
+  /**
+   * Gets a histogram of the time taken to find and create a track.
+   *
+   * @param track Track number, 1, 2 or 3.
+   * @return Counts for each power of two nanoseconds.
+   */
+  public long[] getElapsedHistogram(final int track) {
+    return sum(trackElapsed, index(track) * BUCKETS, BUCKETS);
+  }
+
+  /**
+   * Gets the total time taken to find and create a track.
+   *
+   * @param track Track number, 1, 2 or 3.
+   * @return Total nanoseconds.
+   */
+  public long getElapsedNanos(final int track) {
+    return trackElapsedNanos[index(track)].sum();
+  }
+
+  /**
+   * Gets the number of times that a malformed track failed for a reason.
+   *
+   * @param track Track number, 1, 2 or 3.
+   * @param failure Reason that the track could not be read.
+   * @return Count.
+   */
+  public long getFailureCount(final int track, final TrackFailure failure) {
+    requireNonNull(failure, "No failure provided");
+    return failureCounts[index(track) * failures.length + failure.ordinal()].sum();
+  }
+
+  /**
+   * Gets a histogram of the length of the raw track data that a track was looked for in.
+   *
+   * @param track Track number, 1, 2 or 3.
+   * @return Counts for each power of two characters.
+   */
+  public long[] getInputLengthHistogram(final int track) {
+    return sum(inputLengths, index(track) * BUCKETS, BUCKETS);
+  }
+
+  /**
+   * Gets the number of complete swipes that were parsed.
+   *
+   * @return Count.
+   */
+  public long getSwipeCount() {
+    return swipes.sum();
+  }
+
+  /**
+   * Gets a histogram of the time taken to parse complete swipes.
+   *
+   * @return Counts for each power of two nanoseconds.
+   */
+  public long[] getSwipeElapsedHistogram() {
+    return sum(swipeElapsed, 0, BUCKETS);
+  }
+
+  /**
+   * Gets the total time taken to parse complete swipes.
+   *
+   * @return Total nanoseconds.
+   */
+  public long getSwipeElapsedNanos() {
+    return swipeElapsedNanos.sum();
+  }
+
+  @Override
+  public void onSwipe(final int inputLength, final long elapsedNanos) {
+    swipes.increment();
+    swipeElapsed[bucket(elapsedNanos)].increment();
+    swipeElapsedNanos.add(elapsedNanos);
+  }
+
+  @Override
+  public void onTrack(
+      final int track,
+      final TrackOutcome outcome,
+      final TrackFailure failure,
+      final int inputLength,
+      final long elapsedNanos) {
+    final int index = index(track);
+    outcomeCounts[index * outcomes.length + outcome.ordinal()].increment();
+    if (failure != null) {
+      failureCounts[index * failures.length + failure.ordinal()].increment();
+    }
+    trackElapsed[index * BUCKETS + bucket(elapsedNanos)].increment();
+    trackElapsedNanos[index].add(elapsedNanos);
+    inputLengths[index * BUCKETS + bucket(inputLength)].increment();
+  }
+
+  /**
+   * Resets all counts to zero. Counts from parses that run at the same time as a reset may be
+   * partly kept.
+   */
+  public void reset() {
+    for (final LongAdder[] adders :
+        new LongAdder[][] {
+          outcomeCounts, failureCounts, trackElapsed, trackElapsedNanos, inputLengths, swipeElapsed
+        }) {
+      for (final LongAdder adder : adders) {
+        adder.reset();
+      }
+    }
+    swipeElapsedNanos.reset();
+    swipes.reset();
+  }
+
+  private int index(final int track) {
+    if (track < 1 || track > 3) {
+      throw new IllegalArgumentException("Track number needs to be 1, 2 or 3");
+    }
+    return track - 1;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Serialized form of a track or swipe, which is its {@link TrackCodec} encoding. Tracks extend
+ * {@link us.fatehi.creditcardnumber.BaseRawData}, which cannot be deserialized, so tracks are
+ * always serialized in this form instead, and decoded again when they are deserialized.
+ */
+final class SerializedTrack implements Serializable {
+
+  @Serial private static final long serialVersionUID = -6285127427183012561L;
+
+  private static final int INITIAL_SIZE = 512;
+
+  private final byte[] encoded;
+
+  SerializedTrack(final BaseTrackData track) {
+    ByteBuffer out = ByteBuffer.allocate(INITIAL_SIZE);
+    while (true) {
+      try {
+        write(track, out);
+        break;
+      } catch (final BufferOverflowException e) {
+        out = ByteBuffer.allocate(out.capacity() * 2);
+      }
+    }
+    encoded = Arrays.copyOf(out.array(), out.position());
+  }
+
+  @Serial
+  private Object readResolve() {
+    final ByteBuffer in = ByteBuffer.wrap(encoded);
+    if (encoded.length < 2) {
+      throw new IllegalArgumentException("Encoded track is incomplete");
+    }
+    // The second byte is the type of track
+    switch (encoded[1]) {
+      case 1:
+        return TrackCodec.readTrack1(in);
+      case 2:
+        return TrackCodec.readTrack2(in);
+      case 3:
+        return TrackCodec.readTrack3(in);
+      default:
+        return TrackCodec.readBankCardMagneticTrack(in);
+    }
+  }
+
+  private void write(final BaseTrackData track, final ByteBuffer out) {
+    if (track instanceof Track1FormatB) {
+      TrackCodec.write((Track1FormatB) track, out);
+    } else if (track instanceof Track2) {
+      TrackCodec.write((Track2) track, out);
+    } else if (track instanceof Track3) {
+      TrackCodec.write((Track3) track, out);
+    } else {
+      TrackCodec.write((BankCardMagneticTrack) track, out);
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Incremental decoder for a stream of swipes that follow each other without separators, such as
+ * the output of a serial card reader. Data can arrive in chunks of any size, split anywhere, and
+ * each swipe is parsed and passed on as soon as the end sentinel of the last track that the reader
+ * sends has arrived. A swipe that is missing its last track is passed on when the next swipe
+ * starts, that is, when a track starts that cannot follow the tracks already read.
+ *
+ * <p>Tracks start with "%" for track 1, ";" for track 2 and "+" for track 3, and end with "?".
+ * Anything between tracks, such as line breaks, is skipped. A track that is interrupted by the
+ * start of another track or by a control character, or that is longer than its maximum length, is
+ * dropped, and decoding picks up again at the next start sentinel. Only the tracks of the current
+ * swipe are held, in a fixed buffer, so chunks are never accumulated or copied, and the buffer is
+ * cleared as soon as a swipe has been parsed.
+ *
+ * <p>A decoder is meant for a single stream, and is not thread-safe.
+ */
+public final class SwipeStreamDecoder {
+
+  private static final int MAXIMUM_SWIPE_LENGTH =
+      Track1FormatB.MAXIMUM_LENGTH + Track2.MAXIMUM_LENGTH + Track3.MAXIMUM_LENGTH;
+
+  private static int maximumLength(final int track) {
+    switch (track) {
+      case 1:
+        return Track1FormatB.MAXIMUM_LENGTH;
+      case 2:
+        return Track2.MAXIMUM_LENGTH;
+      default:
+        return Track3.MAXIMUM_LENGTH;
+    }
+  }
+
+  private static int track(final char ch) {
+    switch (ch) {
+      case '%':
+        return 1;
+      case ';':
+        return 2;
+      case '+':
+        return 3;
+      default:
+        return 0;
+    }
+  }
+
+  private final int lastTrack;
+  private final Consumer<? super BankCardMagneticTrack> onSwipe;
+  private final char[] swipe = new char[MAXIMUM_SWIPE_LENGTH];
+  // Start and end of each track that has been read, indexed by track number
+  private final int[] trackStarts = new int[4];
+  private final int[] trackEnds = new int[4];
+  private int length;
+  private int trackStart;
+  private int track;
+  private int readTrack;
+
+  /**
+   * Creates a decoder for a reader that sends the given tracks.
+   *
+   * @param tracks Bitmask of the tracks that the reader sends, made up of {@link
+   *     BankCardMagneticTrack#TRACK_1}, {@link BankCardMagneticTrack#TRACK_2} and {@link
+   *     BankCardMagneticTrack#TRACK_3}.
+   * @param onSwipe Handler for each parsed swipe.
+   */
+  public SwipeStreamDecoder(
+      final int tracks, final Consumer<? super BankCardMagneticTrack> onSwipe) {
+    if (tracks <= 0
+        || (tracks
+                & ~(BankCardMagneticTrack.TRACK_1
+                    | BankCardMagneticTrack.TRACK_2
+                    | BankCardMagneticTrack.TRACK_3))
+            != 0) {
+      throw new IllegalArgumentException("Invalid tracks: " + tracks);
+    }
+    if ((tracks & BankCardMagneticTrack.TRACK_3) != 0) {
+      lastTrack = 3;
+    } else if ((tracks & BankCardMagneticTrack.TRACK_2) != 0) {
+      lastTrack = 2;
+    } else {
+      lastTrack = 1;
+    }
+    this.onSwipe = requireNonNull(onSwipe, "No swipe handler provided");
+  }
+
+  /**
+   * Decodes a chunk of ASCII bytes, between the buffer's position and limit. The buffer can be a
+   * heap or direct buffer, and its position is moved to its limit.
+   *
+   * @param chunk Chunk of raw track data, as ASCII bytes.
+   */
+  public void decode(final ByteBuffer chunk) {
+    requireNonNull(chunk, "No chunk provided");
+    final int limit = chunk.limit();
+    for (int i = chunk.position(); i < limit; i++) {
+      decode((char) (chunk.get(i) & 0xFF));
+    }
+    chunk.position(limit);
+  }
+
+  /**
+   * Decodes a chunk of characters. The caller can overwrite the characters as soon as this method
+   * returns.
+   *
+   * @param chunk Chunk of raw track data, as characters.
+   */
+  public void decode(final char[] chunk) {
+    requireNonNull(chunk, "No chunk provided");
+    decode(chunk, 0, chunk.length);
+  }
+
+  /**
+   * Decodes a range of a chunk of characters. The caller can overwrite the characters as soon as
+   * this method returns.
+   *
+   * @param chunk Chunk of raw track data, as characters.
+   * @param offset Offset of the first character to decode.
+   * @param length Number of characters to decode.
+   */
+  public void decode(final char[] chunk, final int offset, final int length) {
+    requireNonNull(chunk, "No chunk provided");
+    if (offset < 0 || length < 0 || offset > chunk.length - length) {
+      throw new IndexOutOfBoundsException(
+          String.format(
+              "Range [%d, %d) is out of bounds for length %d",
+              offset, offset + length, chunk.length));
+    }
+    for (int i = offset; i < offset + length; i++) {
+      decode(chunk[i]);
+    }
+  }
+
+  /**
+   * Passes on the tracks that have been read of the current swipe, if any, such as at the end of
+   * the stream. A track that has not been completely read is dropped.
+   */
+  public void flush() {
+    if (track != 0) {
+      dropTrack();
+    }
+    emit();
+  }
+
+  private void decode(final char ch) {
+    if (track != 0) {
+      final boolean interrupted = ch == '%' || ch == ';' || track != 1 && ch == '+';
+      if (!interrupted && ch >= ' ' && ch <= '~') {
+        swipe[length++] = ch;
+        if (ch == '?') {
+          trackStarts[track] = trackStart;
+          trackEnds[track] = length;
+          readTrack = track;
+          track = 0;
+          if (readTrack >= lastTrack) {
+            emit();
+          }
+        } else if (length - trackStart == maximumLength(track)) {
+          dropTrack();
+        }
+        return;
+      }
+      dropTrack();
+    }
+
+    final int startTrack = track(ch);
+    if (startTrack != 0) {
+      // Tracks of a swipe are always in order, so an earlier track starts a new swipe
+      if (startTrack <= readTrack) {
+        emit();
+      }
+      track = startTrack;
+      trackStart = length;
+      swipe[length++] = ch;
+    }
+  }
+
+  private void dropTrack() {
+    Arrays.fill(swipe, trackStart, length, '\0');
+    length = trackStart;
+    track = 0;
+  }
+
+  private void emit() {
+    readTrack = 0;
+    if (length > 0) {
+      // Each track is parsed on its own, since nothing separates one track from the next
+      final BankCardMagneticTrack parsed =
+          BankCardMagneticTrack.parse(
+              CharBuffer.wrap(swipe, 0, length), trackData(1), trackData(2), trackData(3));
+      Arrays.fill(swipe, 0, length, '\0');
+      Arrays.fill(trackEnds, 0);
+      length = 0;
+      onSwipe.accept(parsed);
+    }
+  }
+
+  private CharBuffer trackData(final int track) {
+    if (trackEnds[track] == 0) {
+      return null;
+    }
+    return CharBuffer.wrap(swipe, trackStarts[track], trackEnds[track] - trackStarts[track]);
+  }
+}
@@ -0,0 +1,27 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+/** Field of track 1 data, for laying out a {@link DelimitedTrack1Format}. */
+public enum Track1Field {
+
+  /** Primary account number, 1 to 19 digits. */
+  AccountNumber,
+
+  /** Cardholder's name, up to 26 characters. */
+  Name,
+
+  /** Expiration date, 4 digits, or empty if not present. */
+  ExpirationDate,
+
+  /** Service code, 3 digits, or empty if not present. */
+  ServiceCode,
+
+  /** Discretionary data, any characters. */
+  DiscretionaryData;
+}
@@ -0,0 +1,108 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Objects;
+
+/**
+ * Positions of the fields of track 1 data, which a {@link Track1Format} notes as it reads the
+ * track. Positions are offsets in the track data that is passed to the format, and are noted
+ * directly in the parser's scanner, so no field is copied until the track is created.
+ */
+public final class Track1Fields {
+
+  private final TrackScanner scanner;
+  private int offset;
+  private int length;
+
+  Track1Fields(final TrackScanner scanner) {
+    this.scanner = requireNonNull(scanner, "No scanner provided");
+  }
+
+  /**
+   * Notes that the track could not be read.
+   *
+   * @param failure Reason that the track could not be read.
+   * @param offset Position in the track data where the track could not be read, which can be the
+   *     end of the track data.
+   * @return False, always, so that a format can return the result.
+   */
+  public boolean fail(final TrackFailure failure, final int offset) {
+    requireNonNull(failure, "No failure provided");
+    Objects.checkIndex(offset, length + 1);
+    return scanner.fail(failure, this.offset + offset);
+  }
+
+  /**
+   * Notes the position of the primary account number.
+   *
+   * @param start Start of the field in the track data.
+   * @param end End of the field in the track data.
+   */
+  public void setAccountNumber(final int start, final int end) {
+    setGroup(3, start, end);
+  }
+
+  /**
+   * Notes the position of the discretionary data.
+   *
+   * @param start Start of the field in the track data.
+   * @param end End of the field in the track data.
+   */
+  public void setDiscretionaryData(final int start, final int end) {
+    setGroup(7, start, end);
+  }
+
+  /**
+   * Notes the position of the expiration date.
+   *
+   * @param start Start of the field in the track data.
+   * @param end End of the field in the track data.
+   */
+  public void setExpirationDate(final int start, final int end) {
+    setGroup(5, start, end);
+  }
+
+  /**
+   * Notes the position of the cardholder's name.
+   *
+   * @param start Start of the field in the track data.
+   * @param end End of the field in the track data.
+   */
+  public void setName(final int start, final int end) {
+    setGroup(4, start, end);
+  }
+
+  /**
+   * Notes the position of the service code.
+   *
+   * @param start Start of the field in the track data.
+   * @param end End of the field in the track data.
+   */
+  public void setServiceCode(final int start, final int end) {
+    setGroup(6, start, end);
+  }
+
+  /**
+   * Points the fields at the track data in the scanner's input, for the next track.
+   *
+   * @param offset Start of the track data in the input
+   * @param length Length of the track data
+   */
+  void reset(final int offset, final int length) {
+    this.offset = offset;
+    this.length = length;
+  }
+
+  void setGroup(final int group, final int start, final int end) {
+    Objects.checkFromToIndex(start, end, length);
+    scanner.setGroup(group, offset + start, offset + end);
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+/**
+ * Layout of the fields of track 1 data for one format code, once it is registered with {@link
+ * Track1Formats#register(Track1Format)}. The parser reads the start sentinel and the format code,
+ * and then calls the format for that code, so the format only needs to find the fields of the
+ * track. Formats are called on the parsing thread, for every track 1 with their format code, so
+ * they need to be thread-safe, and should not keep the track data.
+ *
+ * <p>Format "B" is built in. {@link DelimitedTrack1Format} is a ready-made format for proprietary
+ * layouts, such as format "A", where the fields are separated by a separator character.
+ */
+public interface Track1Format {
+
+  /**
+   * Gets the format code that this format is for.
+   *
+   * @return Format code, from "A" to "Z".
+   */
+  char getFormatCode();
+
+  /**
+   * Finds the fields of track 1 data, and notes their positions in the fields. Fields that are not
+   * noted are not present on the track.
+   *
+   * @param track Track data after the format code, up to but not including the end sentinel. The
+   *     track data is only valid until this method returns.
+   * @param fields Positions of the fields in the track data, and the reason that the track could
+   *     not be read.
+   * @return True if the track was read. If the track could not be read, the reason is noted with
+   *     {@link Track1Fields#fail(TrackFailure, int)}, and a track without a reason is not present.
+   */
+  boolean scan(CharSequence track, Track1Fields fields);
+}
@@ -8,17 +8,13 @@
 package us.fatehi.magnetictrack;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
-import static org.apache.commons.lang3.StringUtils.trimToEmpty;
-import static us.fatehi.creditcardnumber.AccountNumbers.completeAccountNumber;
 import static us.fatehi.creditcardnumber.AccountNumbers.emptyAccountNumber;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_1;
 
 import java.io.Serial;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.nio.ByteBuffer;
 import us.fatehi.creditcardnumber.AccountNumber;
-import us.fatehi.creditcardnumber.ExpirationDate;
 import us.fatehi.creditcardnumber.Name;
-import us.fatehi.creditcardnumber.ServiceCode;
 
 /**
  * Parses, and represents a card's track 1 data, in format "B". From <a
@@ -44,18 +40,35 @@ import us.fatehi.creditcardnumber.ServiceCode;
  *
  * The maximum record length is 79 alphanumeric characters.
  *
+ * <p>Track 1 data in other formats, such as proprietary format "A", is parsed into the same fields
+ * once a {@link Track1Format} is registered for its format code with {@link Track1Formats}. Track
+ * 1 data with a format code that has no registered format is not parsed.
+ *
  * @see <a href= "https://en.wikipedia.org/wiki/ISO/IEC_7813#Magnetic_tracks">Wikipedia - ISO/IEC
  *     7813</a>
  */
 public final class Track1FormatB extends BaseBankCardTrackData {
 
+  /** Maximum length of track 1 data, including the start and end sentinels, in characters. */
+  public static final int MAXIMUM_LENGTH = 79;
+
   @Serial private static final long serialVersionUID = 3020739300944280022L;
 
-  private static final Pattern track1FormatBPattern =
-      Pattern.compile(
-          "(%?([A-Z])([0-9]{1,19})\\^([^\\^]{2,26})\\^([0-9]{4}|\\^)([0-9]{3}|\\^)?([^\\?]+)?\\??)["
-              + "\t\n\r"
-              + " ]{0,2}.*");
+  private static final Track1FormatB EMPTY =
+      new Track1FormatB(
+          new DisposableCharData(null),
+          "",
+          emptyAccountNumber(),
+          -1,
+          -1,
+          null,
+          -1,
+          -1,
+          -1,
+          -1,
+          -1,
+          -1,
+          new DisposableCharData(""));
 
   /**
    * Parses magnetic track 1 format B data into a Track1FormatB object.
@@ -64,58 +77,193 @@ public final class Track1FormatB extends BaseBankCardTrackData {
    * @return A Track1FormatB instance, corresponding to the parsed data.
    */
   public static Track1FormatB from(final String rawTrackData) {
-    final Matcher matcher = track1FormatBPattern.matcher(trimToEmpty(rawTrackData));
-
-    final String rawTrack1Data;
-    final AccountNumber pan;
-    final ExpirationDate expirationDate;
-    final Name name;
-    final ServiceCode serviceCode;
-    final String formatCode;
-    final String discretionaryData;
-
-    if (matcher.matches()) {
-      rawTrack1Data = getGroup(matcher, 1);
-      formatCode = getGroup(matcher, 2);
-      pan = completeAccountNumber(getGroup(matcher, 3));
-      name = new Name(getGroup(matcher, 4));
-      expirationDate = new ExpirationDate(getGroup(matcher, 5));
-      serviceCode = new ServiceCode(getGroup(matcher, 6));
-      discretionaryData = getGroup(matcher, 7);
-    } else {
-      rawTrack1Data = null;
-      formatCode = "";
-      pan = emptyAccountNumber();
-      name = new Name();
-      expirationDate = new ExpirationDate();
-      serviceCode = new ServiceCode();
-      discretionaryData = "";
+    return from(new TrackScanner(rawTrackData));
+  }
+
+  /**
+   * Parses magnetic track 1 format B data into a Track1FormatB object, from ASCII bytes between the
+   * buffer's position and limit. The buffer can be a heap or direct buffer, and its position is not
+   * changed.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and other tracks as
+   *     well.
+   * @return A Track1FormatB instance, corresponding to the parsed data.
+   */
+  public static Track1FormatB from(final ByteBuffer rawTrackData) {
+    return from(new TrackScanner(rawTrackData));
+  }
+
+  /**
+   * Parses magnetic track 1 format B data into a Track1FormatB object, from a range of ASCII bytes.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and other tracks as
+   *     well.
+   * @param offset Offset of the first byte of track data.
+   * @param length Number of bytes of track data.
+   * @return A Track1FormatB instance, corresponding to the parsed data.
+   */
+  public static Track1FormatB from(final byte[] rawTrackData, final int offset, final int length) {
+    return from(ByteBuffer.wrap(rawTrackData, offset, length));
+  }
+
+  /**
+   * Parses magnetic track 1 format B data into a Track1FormatB object, from characters that the
+   * caller can overwrite as soon as this method returns. The track data is copied directly out of
+   * the array, without creating intermediate strings for the primary account number or
+   * discretionary data.
+   *
+   * @param rawTrackData Raw track data as characters. Can include newlines, and other tracks as
+   *     well.
+   * @return A Track1FormatB instance, corresponding to the parsed data.
+   */
+  public static Track1FormatB from(final char[] rawTrackData) {
+    return from(new TrackScanner(rawTrackData));
+  }
+
+  /**
+   * Checks whether raw track data contains well-formed track 1 format B data, without creating any
+   * objects. The data is well-formed if and only if parsing it finds the track.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and other tracks as well.
+   * @return True if the track is well-formed.
+   */
+  public static boolean isWellFormed(final CharSequence rawTrackData) {
+    return MagneticTrackParser.forCurrentThread().check(rawTrackData, TRACK_1) != 0;
+  }
+
+  /**
+   * Parses magnetic track 1 format B data, and notes why a track that was started could not be
+   * read, and where. The reason is found in the same pass over the data as the track itself.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and other tracks as well.
+   * @return Outcome of parsing, with a Track1FormatB instance that is empty if the track was not
+   *     found.
+   */
+  public static ParseOutcome<Track1FormatB> parse(final CharSequence rawTrackData) {
+    final TrackScanner scanner = new TrackScanner(rawTrackData);
+    final Track1FormatB track = from(scanner);
+    return new ParseOutcome<>(
+        track, scanner.outcome(), scanner.failure(), scanner.failureOffset());
+  }
+
+  /**
+   * Parses track 1 data from a scanner, which may be shared with the other tracks, and reports
+   * the outcome to the registered parse listener, if there is one.
+   *
+   * @param scanner Scanner over raw track data.
+   * @return A Track1FormatB instance, corresponding to the parsed data.
+   */
+  static Track1FormatB from(final TrackScanner scanner) {
+    final ParseListener listener = ParseListeners.listener();
+    if (listener == null) {
+      return scan(scanner);
     }
+    final long start = System.nanoTime();
+    final Track1FormatB track1 = scan(scanner);
+    listener.onTrack(
+        1, scanner.outcome(), scanner.failure(), scanner.length(), System.nanoTime() - start);
+    return track1;
+  }
 
-    return new Track1FormatB(
-        rawTrack1Data, pan, expirationDate, name, serviceCode, formatCode, discretionaryData);
+  /**
+   * Gets the track 1 data for when the track is not found, which is shared by every swipe without
+   * track 1.
+   *
+   * @return Empty track 1 data
+   */
+  static Track1FormatB empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Parses track 1 data from a scanner, without reporting the outcome.
+   *
+   * @param scanner Scanner over raw track data
+   * @return A Track1FormatB instance, corresponding to the parsed data
+   */
+  static Track1FormatB scan(final TrackScanner scanner) {
+    if (scanner.scanTrack1()) {
+      final DisposableCharData accountNumber = scanner.groupData(3);
+      return new Track1FormatB(
+          scanner.groupData(1),
+          scanner.group(2),
+          new LazyAccountNumber(accountNumber),
+          scanner.start(3),
+          scanner.end(3),
+          BinIndexes.lookup(accountNumber, 0, accountNumber.length()),
+          scanner.start(4),
+          scanner.end(4),
+          scanner.start(5),
+          scanner.end(5),
+          scanner.start(6),
+          scanner.end(6),
+          scanner.groupData(7));
+    }
+    return empty();
   }
 
-  private final Name name;
   private final String formatCode;
+  private final BinRange binRange;
+  private final int nameStart;
+  private final int nameEnd;
+  private volatile Name name;
 
-  private Track1FormatB(
-      final String rawTrackData,
-      final AccountNumber pan,
-      final ExpirationDate expirationDate,
-      final Name name,
-      final ServiceCode serviceCode,
+  Track1FormatB(
+      final DisposableCharData rawTrackData,
       final String formatCode,
-      final String discretionaryData) {
-    super(rawTrackData, pan, expirationDate, serviceCode, discretionaryData);
+      final AccountNumber pan,
+      final int panStart,
+      final int panEnd,
+      final BinRange binRange,
+      final int nameStart,
+      final int nameEnd,
+      final int expirationDateStart,
+      final int expirationDateEnd,
+      final int serviceCodeStart,
+      final int serviceCodeEnd,
+      final DisposableCharData discretionaryData) {
+    super(
+        rawTrackData,
+        pan,
+        panStart,
+        panEnd,
+        expirationDateStart,
+        expirationDateEnd,
+        serviceCodeStart,
+        serviceCodeEnd,
+        discretionaryData);
     this.formatCode = formatCode;
-    this.name = name;
+    this.binRange = binRange;
+    this.nameStart = nameStart;
+    this.nameEnd = nameEnd;
   }
 
-  /** The regular expression prevents the maximum length from being exceeded. */
+  @Override
+  void createFields() {
+    super.createFields();
+    getName();
+  }
+
+  /**
+   * Checks whether the raw track data is longer than {@link #MAXIMUM_LENGTH}. The track scanner
+   * rejects tracks that are too long, so only tracks that are created in other ways can exceed it.
+   *
+   * @return True if the track is too long
+   */
   @Override
   public boolean exceedsMaximumLength() {
-    return false;
+    return getRawCharacters().length() > MAXIMUM_LENGTH;
+  }
+
+  /**
+   * Gets the BIN range that the primary account number is in, which is looked up in the BIN index
+   * that is registered with {@link BinIndexes} when the track is parsed.
+   *
+   * @return BIN range, or null if no index was registered, or the account number is not in any
+   *     range
+   */
+  public BinRange getBinRange() {
+    return binRange;
   }
 
   /**
@@ -127,12 +275,35 @@ public final class Track1FormatB extends BaseBankCardTrackData {
     return formatCode;
   }
 
+  /**
+   * Gets the characters of the cardholder's name from the raw track data, if the name has not been
+   * created yet, so that it is not created just to read them.
+   *
+   * @return Characters of the name, or null if it is not present
+   */
+  CharSequence getNameCharacters() {
+    if (name == null && hasRawData()) {
+      return getRawCharacters(nameStart, nameEnd);
+    }
+    return getName().getRawData();
+  }
+
   /**
    * Gets the cardholder's name.
    *
    * @return Cardholder's name
    */
   public Name getName() {
+    Name name = this.name;
+    if (name == null) {
+      synchronized (this) {
+        name = this.name;
+        if (name == null) {
+          name = new Name(getRawData(nameStart, nameEnd));
+          this.name = name;
+        }
+      }
+    }
     return name;
   }
 
@@ -151,6 +322,6 @@ public final class Track1FormatB extends BaseBankCardTrackData {
    * @return True if the cardholder's name is available.
    */
   public boolean hasName() {
-    return name != null && name.hasName();
+    return getName().hasName();
   }
 }
@@ -0,0 +1,92 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Registration of the {@link Track1Format} for each track 1 format code. The parser looks up the
+ * format directly from the format code, so the cost of parsing does not depend on how many formats
+ * are registered, and track 1 data with a format code that has no registered format is rejected as
+ * soon as the format code is read. Format "B" is registered when no other format is registered for
+ * it.
+ */
+public final class Track1Formats {
+
+  /** Built-in format "B", which the scanner reads without calling the format. */
+  static final Track1Format FORMAT_B =
+      new Track1Format() {
+
+        @Override
+        public char getFormatCode() {
+          return 'B';
+        }
+
+        @Override
+        public boolean scan(final CharSequence track, final Track1Fields fields) {
+          return new TrackScanner().scanFormatB(track, fields);
+        }
+      };
+
+  private static volatile Track1Format[] formats = defaultFormats();
+
+  /**
+   * Registers a format for all parsing, in place of any format that is already registered for its
+   * format code.
+   *
+   * @param format Track 1 format.
+   */
+  public static synchronized void register(final Track1Format format) {
+    requireNonNull(format, "No track 1 format provided");
+    final int index = index(format.getFormatCode());
+    final Track1Format[] formats = Track1Formats.formats.clone();
+    formats[index] = format;
+    Track1Formats.formats = formats;
+  }
+
+  /**
+   * Unregisters the format for a format code, so that track 1 data with the format code is not
+   * supported. For format "B", the built-in format is registered again.
+   *
+   * @param formatCode Format code, from "A" to "Z".
+   */
+  public static synchronized void unregister(final char formatCode) {
+    final int index = index(formatCode);
+    final Track1Format[] formats = Track1Formats.formats.clone();
+    formats[index] = formatCode == 'B' ? FORMAT_B : null;
+    Track1Formats.formats = formats;
+  }
+
+  /**
+   * Looks up the registered format for a format code.
+   *
+   * @param formatCode Format code, from "A" to "Z"
+   * @return Format, or null if no format is registered for the format code
+   */
+  static Track1Format format(final char formatCode) {
+    return formats[formatCode - 'A'];
+  }
+
+  private static Track1Format[] defaultFormats() {
+    final Track1Format[] formats = new Track1Format[26];
+    formats['B' - 'A'] = FORMAT_B;
+    return formats;
+  }
+
+  private static int index(final char formatCode) {
+    if (formatCode < 'A' || formatCode > 'Z') {
+      throw new IllegalArgumentException(
+          "Track 1 format code needs to be from A to Z: " + formatCode);
+    }
+    return formatCode - 'A';
+  }
+
+  private Track1Formats() {
+    // Prevent instantiation
+  }
+}
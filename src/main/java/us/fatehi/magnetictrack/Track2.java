@@ -7,16 +7,12 @@
  */
 package us.fatehi.magnetictrack;
 
-import static org.apache.commons.lang3.StringUtils.trimToEmpty;
-import static us.fatehi.creditcardnumber.AccountNumbers.completeAccountNumber;
 import static us.fatehi.creditcardnumber.AccountNumbers.emptyAccountNumber;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_2;
 
 import java.io.Serial;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.nio.ByteBuffer;
 import us.fatehi.creditcardnumber.AccountNumber;
-import us.fatehi.creditcardnumber.ExpirationDate;
-import us.fatehi.creditcardnumber.ServiceCode;
 
 /**
  * From <a href="https://en.wikipedia.org/wiki/ISO/IEC_7813#Magnetic_tracks" >Wikipedia - ISO/IEC
@@ -42,10 +38,23 @@ import us.fatehi.creditcardnumber.ServiceCode;
  */
 public final class Track2 extends BaseBankCardTrackData {
 
+  /** Maximum length of track 2 data, including the start and end sentinels, in characters. */
+  public static final int MAXIMUM_LENGTH = 40;
+
   @Serial private static final long serialVersionUID = 2209024303926876386L;
 
-  private static final Pattern track2Pattern =
-      Pattern.compile(".*[\\t\\n\\r ]?(;([0-9]{1,19})=([0-9]{4})([0-9]{3})(.*)\\?).*");
+  private static final Track2 EMPTY =
+      new Track2(
+          new DisposableCharData(null),
+          emptyAccountNumber(),
+          -1,
+          -1,
+          null,
+          -1,
+          -1,
+          -1,
+          -1,
+          new DisposableCharData(""));
 
   /**
    * Parses magnetic track 2 data into a Track2 object.
@@ -54,43 +63,164 @@ public final class Track2 extends BaseBankCardTrackData {
    * @return A Track2 instance, corresponding to the parsed data.
    */
   public static Track2 from(final String rawTrackData) {
-    final Matcher matcher = track2Pattern.matcher(trimToEmpty(rawTrackData));
-
-    final String rawTrack2Data;
-    final AccountNumber pan;
-    final ExpirationDate expirationDate;
-    final ServiceCode serviceCode;
-    final String discretionaryData;
-
-    if (matcher.matches()) {
-      rawTrack2Data = getGroup(matcher, 1);
-      pan = completeAccountNumber(getGroup(matcher, 2));
-      expirationDate = new ExpirationDate(getGroup(matcher, 3));
-      serviceCode = new ServiceCode(getGroup(matcher, 4));
-      discretionaryData = getGroup(matcher, 5);
-    } else {
-      rawTrack2Data = null;
-      pan = emptyAccountNumber();
-      expirationDate = new ExpirationDate();
-      serviceCode = new ServiceCode();
-      discretionaryData = "";
+    return from(new TrackScanner(rawTrackData));
+  }
+
+  /**
+   * Parses magnetic track 2 data into a Track2 object, from ASCII bytes between the buffer's
+   * position and limit. The buffer can be a heap or direct buffer, and its position is not changed.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and other tracks as
+   *     well.
+   * @return A Track2 instance, corresponding to the parsed data.
+   */
+  public static Track2 from(final ByteBuffer rawTrackData) {
+    return from(new TrackScanner(rawTrackData));
+  }
+
+  /**
+   * Parses magnetic track 2 data into a Track2 object, from a range of ASCII bytes.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and other tracks as
+   *     well.
+   * @param offset Offset of the first byte of track data.
+   * @param length Number of bytes of track data.
+   * @return A Track2 instance, corresponding to the parsed data.
+   */
+  public static Track2 from(final byte[] rawTrackData, final int offset, final int length) {
+    return from(ByteBuffer.wrap(rawTrackData, offset, length));
+  }
+
+  /**
+   * Parses magnetic track 2 data into a Track2 object, from characters that the caller can
+   * overwrite as soon as this method returns. The track data is copied directly out of the array,
+   * without creating intermediate strings for the primary account number or discretionary data.
+   *
+   * @param rawTrackData Raw track data as characters. Can include newlines, and other tracks as
+   *     well.
+   * @return A Track2 instance, corresponding to the parsed data.
+   */
+  public static Track2 from(final char[] rawTrackData) {
+    return from(new TrackScanner(rawTrackData));
+  }
+
+  /**
+   * Checks whether raw track data contains well-formed track 2 data, without creating any objects.
+   * The data is well-formed if and only if parsing it finds the track.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and other tracks as well.
+   * @return True if the track is well-formed.
+   */
+  public static boolean isWellFormed(final CharSequence rawTrackData) {
+    return MagneticTrackParser.forCurrentThread().check(rawTrackData, TRACK_2) != 0;
+  }
+
+  /**
+   * Parses magnetic track 2 data, and notes why a track that was started could not be read,
+   * and where. The reason is found in the same pass over the data as the track itself.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and other tracks as well.
+   * @return Outcome of parsing, with a Track2 instance that is empty if the track was not found.
+   */
+  public static ParseOutcome<Track2> parse(final CharSequence rawTrackData) {
+    final TrackScanner scanner = new TrackScanner(rawTrackData);
+    final Track2 track = from(scanner);
+    return new ParseOutcome<>(
+        track, scanner.outcome(), scanner.failure(), scanner.failureOffset());
+  }
+
+  /**
+   * Parses track 2 data from a scanner, which may be shared with the other tracks, and reports
+   * the outcome to the registered parse listener, if there is one.
+   *
+   * @param scanner Scanner over raw track data.
+   * @return A Track2 instance, corresponding to the parsed data.
+   */
+  static Track2 from(final TrackScanner scanner) {
+    final ParseListener listener = ParseListeners.listener();
+    if (listener == null) {
+      return scan(scanner);
     }
+    final long start = System.nanoTime();
+    final Track2 track2 = scan(scanner);
+    listener.onTrack(
+        2, scanner.outcome(), scanner.failure(), scanner.length(), System.nanoTime() - start);
+    return track2;
+  }
 
-    return new Track2(rawTrack2Data, pan, expirationDate, serviceCode, discretionaryData);
+  /**
+   * Gets the track 2 data for when the track is not found, which is shared by every swipe without
+   * track 2.
+   *
+   * @return Empty track 2 data
+   */
+  static Track2 empty() {
+    return EMPTY;
   }
 
-  private Track2(
-      final String rawTrackData,
+  private static Track2 scan(final TrackScanner scanner) {
+    if (scanner.scanTrack2()) {
+      final DisposableCharData accountNumber = scanner.groupData(2);
+      return new Track2(
+          scanner.groupData(1),
+          new LazyAccountNumber(accountNumber),
+          scanner.start(2),
+          scanner.end(2),
+          BinIndexes.lookup(accountNumber, 0, accountNumber.length()),
+          scanner.start(3),
+          scanner.end(3),
+          scanner.start(4),
+          scanner.end(4),
+          scanner.groupData(5));
+    }
+    return empty();
+  }
+
+  private final BinRange binRange;
+
+  Track2(
+      final DisposableCharData rawTrackData,
       final AccountNumber pan,
-      final ExpirationDate expirationDate,
-      final ServiceCode serviceCode,
-      final String discretionaryData) {
-    super(rawTrackData, pan, expirationDate, serviceCode, discretionaryData);
+      final int panStart,
+      final int panEnd,
+      final BinRange binRange,
+      final int expirationDateStart,
+      final int expirationDateEnd,
+      final int serviceCodeStart,
+      final int serviceCodeEnd,
+      final DisposableCharData discretionaryData) {
+    super(
+        rawTrackData,
+        pan,
+        panStart,
+        panEnd,
+        expirationDateStart,
+        expirationDateEnd,
+        serviceCodeStart,
+        serviceCodeEnd,
+        discretionaryData);
+    this.binRange = binRange;
   }
 
-  /** The regular expression prevents the maximum length from being exceeded. */
+  /**
+   * Checks whether the raw track data is longer than {@link #MAXIMUM_LENGTH}. The track scanner
+   * rejects tracks that are too long, so only tracks that are created in other ways can exceed it.
+   *
+   * @return True if the track is too long
+   */
   @Override
   public boolean exceedsMaximumLength() {
-    return false;
+    return getRawCharacters().length() > MAXIMUM_LENGTH;
+  }
+
+  /**
+   * Gets the BIN range that the primary account number is in, which is looked up in the BIN index
+   * that is registered with {@link BinIndexes} when the track is parsed.
+   *
+   * @return BIN range, or null if no index was registered, or the account number is not in any
+   *     range
+   */
+  public BinRange getBinRange() {
+    return binRange;
   }
 }
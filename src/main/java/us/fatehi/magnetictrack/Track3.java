@@ -7,11 +7,10 @@
  */
 package us.fatehi.magnetictrack;
 
-import static org.apache.commons.lang3.StringUtils.trimToEmpty;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_3;
 
 import java.io.Serial;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.nio.ByteBuffer;
 
 /**
  * @see <a href= "https://en.wikipedia.org/wiki/ISO/IEC_7813#Magnetic_tracks">Wikipedia - ISO/IEC
@@ -19,9 +18,13 @@ import java.util.regex.Pattern;
  */
 public final class Track3 extends BaseTrackData {
 
+  /** Maximum length of track 3 data, including the start and end sentinels, in characters. */
+  public static final int MAXIMUM_LENGTH = 107;
+
   @Serial private static final long serialVersionUID = 1469806733607842924L;
 
-  private static final Pattern track3Pattern = Pattern.compile(".*?[\t\n\r ]{0,2}(\\+(.*)\\?)");
+  private static final Track3 EMPTY =
+      new Track3(new DisposableCharData(null), new DisposableCharData(""));
 
   /**
    * Parses magnetic track 3 data into a Track3 object.
@@ -30,27 +33,121 @@ public final class Track3 extends BaseTrackData {
    * @return A Track3instance, corresponding to the parsed data.
    */
   public static Track3 from(final String rawTrackData) {
-    final Matcher matcher = track3Pattern.matcher(trimToEmpty(rawTrackData));
-
-    final String rawTrack3Data;
-    final String discretionaryData;
-    if (matcher.matches()) {
-      rawTrack3Data = getGroup(matcher, 1);
-      discretionaryData = getGroup(matcher, 2);
-    } else {
-      rawTrack3Data = null;
-      discretionaryData = "";
+    return from(new TrackScanner(rawTrackData));
+  }
+
+  /**
+   * Parses magnetic track 3 data into a Track3 object, from ASCII bytes between the buffer's
+   * position and limit. The buffer can be a heap or direct buffer, and its position is not changed.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and other tracks as
+   *     well.
+   * @return A Track3 instance, corresponding to the parsed data.
+   */
+  public static Track3 from(final ByteBuffer rawTrackData) {
+    return from(new TrackScanner(rawTrackData));
+  }
+
+  /**
+   * Parses magnetic track 3 data into a Track3 object, from a range of ASCII bytes.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes. Can include newlines, and other tracks as
+   *     well.
+   * @param offset Offset of the first byte of track data.
+   * @param length Number of bytes of track data.
+   * @return A Track3 instance, corresponding to the parsed data.
+   */
+  public static Track3 from(final byte[] rawTrackData, final int offset, final int length) {
+    return from(ByteBuffer.wrap(rawTrackData, offset, length));
+  }
+
+  /**
+   * Parses magnetic track 3 data into a Track3 object, from characters that the caller can
+   * overwrite as soon as this method returns. The track data is copied directly out of the array,
+   * without creating intermediate strings for the primary account number or discretionary data.
+   *
+   * @param rawTrackData Raw track data as characters. Can include newlines, and other tracks as
+   *     well.
+   * @return A Track3 instance, corresponding to the parsed data.
+   */
+  public static Track3 from(final char[] rawTrackData) {
+    return from(new TrackScanner(rawTrackData));
+  }
+
+  /**
+   * Checks whether raw track data contains well-formed track 3 data, without creating any objects.
+   * The data is well-formed if and only if parsing it finds the track.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and other tracks as well.
+   * @return True if the track is well-formed.
+   */
+  public static boolean isWellFormed(final CharSequence rawTrackData) {
+    return MagneticTrackParser.forCurrentThread().check(rawTrackData, TRACK_3) != 0;
+  }
+
+  /**
+   * Parses magnetic track 3 data, and notes why a track that was started could not be read,
+   * and where. The reason is found in the same pass over the data as the track itself.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and other tracks as well.
+   * @return Outcome of parsing, with a Track3 instance that is empty if the track was not found.
+   */
+  public static ParseOutcome<Track3> parse(final CharSequence rawTrackData) {
+    final TrackScanner scanner = new TrackScanner(rawTrackData);
+    final Track3 track = from(scanner);
+    return new ParseOutcome<>(
+        track, scanner.outcome(), scanner.failure(), scanner.failureOffset());
+  }
+
+  /**
+   * Parses track 3 data from a scanner, which may be shared with the other tracks, and reports
+   * the outcome to the registered parse listener, if there is one.
+   *
+   * @param scanner Scanner over raw track data.
+   * @return A Track3 instance, corresponding to the parsed data.
+   */
+  static Track3 from(final TrackScanner scanner) {
+    final ParseListener listener = ParseListeners.listener();
+    if (listener == null) {
+      return scan(scanner);
     }
-    return new Track3(rawTrack3Data, discretionaryData);
+    final long start = System.nanoTime();
+    final Track3 track3 = scan(scanner);
+    listener.onTrack(
+        3, scanner.outcome(), scanner.failure(), scanner.length(), System.nanoTime() - start);
+    return track3;
   }
 
-  private Track3(final String rawTrack2Data, final String discretionaryData) {
-    super(rawTrack2Data, discretionaryData);
+  /**
+   * Gets the track 3 data for when the track is not found, which is shared by every swipe without
+   * track 3.
+   *
+   * @return Empty track 3 data
+   */
+  static Track3 empty() {
+    return EMPTY;
+  }
+
+  private static Track3 scan(final TrackScanner scanner) {
+    if (scanner.scanTrack3()) {
+      return new Track3(scanner.groupData(1), scanner.groupData(2));
+    }
+    return empty();
   }
 
-  /** The regular expression prevents the maximum length from being exceeded. */
+  Track3(
+      final DisposableCharData rawTrack3Data, final DisposableCharData discretionaryData) {
+    super(rawTrack3Data, discretionaryData);
+  }
+
+  /**
+   * Checks whether the raw track data is longer than {@link #MAXIMUM_LENGTH}. The track scanner
+   * rejects tracks that are too long, so only tracks that are created in other ways can exceed it.
+   *
+   * @return True if the track is too long
+   */
   @Override
   public boolean exceedsMaximumLength() {
-    return false;
+    return getRawCharacters().length() > MAXIMUM_LENGTH;
   }
 }
@@ -0,0 +1,389 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Cache of parsed swipes, for card readers and terminals that send the same swipe again on
+ * timeouts and retries. Swipes are looked up by a keyed hash (HMAC-SHA256) of the raw track data,
+ * with a random key for each cache, so the cache never holds raw track data as a key. The cache
+ * holds at most a fixed number of swipes, evicting the least recently used swipe first, and a swipe
+ * expires a fixed time after it was parsed.
+ *
+ * <p>The cache is divided into independently locked stripes, so that many threads can use it at
+ * the same time. A swipe that is returned from the cache is shared with every other caller that
+ * looks up the same raw track data, so callers must not dispose it, and must not use it for longer
+ * than the time to live after it was parsed. Swipes that expire or are invalidated have all of
+ * their sensitive data disposed. Swipes that are evicted because the cache is full may still be in
+ * use by callers, so they are not disposed, and are left to the garbage collector.
+ */
+public final class TrackCache {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final int STRIPES = 16;
+  private static final int CHUNK_SIZE = 256;
+
+  private static void dispose(final BankCardMagneticTrack track) {
+    track.disposeRawData();
+    for (final BaseTrackData trackData :
+        new BaseTrackData[] {track.getTrack1(), track.getTrack2(), track.getTrack3()}) {
+      trackData.disposeRawData();
+      trackData.disposeDiscretionaryData();
+      if (trackData instanceof BaseBankCardTrackData) {
+        ((BaseBankCardTrackData) trackData).getAccountNumber().dispose();
+      }
+    }
+  }
+
+  private static long readLong(final byte[] bytes, final int offset) {
+    long value = 0;
+    for (int i = offset; i < offset + Long.BYTES; i++) {
+      value = value << 8 | bytes[i] & 0xFF;
+    }
+    return value;
+  }
+
+  private final Stripe[] stripes;
+  private final long timeToLiveNanos;
+  private final LongSupplier clock;
+  private final ThreadLocal<Hasher> hasher;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param maximumSize Maximum number of swipes in the cache.
+   * @param timeToLive Time after a swipe is parsed that it expires from the cache.
+   */
+  public TrackCache(final int maximumSize, final Duration timeToLive) {
+    this(maximumSize, timeToLive, System::nanoTime);
+  }
+
+  TrackCache(final int maximumSize, final Duration timeToLive, final LongSupplier clock) {
+    requireNonNull(timeToLive, "No time to live provided");
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("Maximum size needs to be positive");
+    }
+    if (timeToLive.isNegative() || timeToLive.isZero()) {
+      throw new IllegalArgumentException("Time to live needs to be positive");
+    }
+
+    // Split the maximum size between the stripes, without going over it
+    stripes = new Stripe[Math.min(STRIPES, Integer.highestOneBit(maximumSize))];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] =
+          new Stripe(maximumSize / stripes.length + (i < maximumSize % stripes.length ? 1 : 0));
+    }
+    timeToLiveNanos = timeToLive.toNanos();
+    this.clock = clock;
+
+    final byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    final SecretKeySpec secretKey = new SecretKeySpec(key, ALGORITHM);
+    Arrays.fill(key, (byte) 0);
+    hasher = ThreadLocal.withInitial(() -> new Hasher(secretKey));
+  }
+
+  /**
+   * Removes all swipes that have expired, and disposes their sensitive data. Expired swipes are
+   * also removed whenever they are looked up.
+   */
+  public void cleanUp() {
+    final long now = clock.getAsLong();
+    for (final Stripe stripe : stripes) {
+      stripe.removeExpired(now, false);
+    }
+  }
+
+  /**
+   * Gets a parsed swipe from the cache, or parses it and adds it to the cache.
+   *
+   * @param rawTrackData Raw track data as ASCII bytes between the buffer's position and limit. The
+   *     buffer's position is not changed.
+   * @return A BankCardMagneticTrack instance, corresponding to the parsed data.
+   */
+  public BankCardMagneticTrack from(final ByteBuffer rawTrackData) {
+    if (rawTrackData == null) {
+      return BankCardMagneticTrack.parse(null);
+    }
+    return lookup(new AsciiCharSequence(rawTrackData));
+  }
+
+  /**
+   * Gets a parsed swipe from the cache, or parses it and adds it to the cache.
+   *
+   * @param rawTrackData Raw track data as characters, which the caller can overwrite as soon as
+   *     this method returns.
+   * @return A BankCardMagneticTrack instance, corresponding to the parsed data.
+   */
+  public BankCardMagneticTrack from(final char[] rawTrackData) {
+    if (rawTrackData == null) {
+      return BankCardMagneticTrack.parse(null);
+    }
+    return lookup(CharBuffer.wrap(rawTrackData));
+  }
+
+  /**
+   * Gets a parsed swipe from the cache, or parses it and adds it to the cache.
+   *
+   * @param rawTrackData Raw track data. Can include newlines, and all 3 tracks.
+   * @return A BankCardMagneticTrack instance, corresponding to the parsed data.
+   */
+  public BankCardMagneticTrack from(final String rawTrackData) {
+    if (rawTrackData == null) {
+      return BankCardMagneticTrack.parse(null);
+    }
+    return lookup(rawTrackData);
+  }
+
+  /**
+   * Gets the number of swipes that were evicted because the cache was full, or because they
+   * expired.
+   *
+   * @return Count.
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Gets the number of lookups that found a swipe in the cache.
+   *
+   * @return Count.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of lookups that had to parse the swipe.
+   *
+   * @return Count.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /** Removes all swipes from the cache, and disposes their sensitive data. */
+  public void invalidateAll() {
+    for (final Stripe stripe : stripes) {
+      stripe.removeExpired(Long.MAX_VALUE, true);
+    }
+  }
+
+  /**
+   * Gets the number of swipes in the cache, including any that have expired but have not been
+   * removed yet.
+   *
+   * @return Number of swipes.
+   */
+  public int size() {
+    int size = 0;
+    for (final Stripe stripe : stripes) {
+      synchronized (stripe) {
+        size = size + stripe.size();
+      }
+    }
+    return size;
+  }
+
+  private BankCardMagneticTrack lookup(final CharSequence rawTrackData) {
+    final Key key = hasher.get().hash(rawTrackData);
+    final Stripe stripe = stripes[(int) (key.h1 & stripes.length - 1)];
+
+    BankCardMagneticTrack track = stripe.get(key, clock.getAsLong());
+    if (track != null) {
+      hits.increment();
+      return track;
+    }
+    misses.increment();
+
+    // Parse outside the lock, and keep the first swipe if another thread parsed it as well
+    track = BankCardMagneticTrack.parse(rawTrackData);
+    final BankCardMagneticTrack cached = stripe.putIfAbsent(key, track, clock.getAsLong());
+    if (cached != track) {
+      dispose(track);
+    }
+    return cached;
+  }
+
+  private static final class Entry {
+
+    private final BankCardMagneticTrack track;
+    private final long expiresAt;
+
+    Entry(final BankCardMagneticTrack track, final long expiresAt) {
+      this.track = track;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  /** Keyed hash of raw track data, which is the full 256 bits of the HMAC. */
+  private static final class Key {
+
+    private final long h0;
+    private final long h1;
+    private final long h2;
+    private final long h3;
+
+    Key(final byte[] digest) {
+      h0 = readLong(digest, 0);
+      h1 = readLong(digest, 8);
+      h2 = readLong(digest, 16);
+      h3 = readLong(digest, 24);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return h0 == other.h0 && h1 == other.h1 && h2 == other.h2 && h3 == other.h3;
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) h0;
+    }
+  }
+
+  /** Thread-confined HMAC, with buffers that are reused for every hash. */
+  private static final class Hasher {
+
+    private final Mac mac;
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+    private final byte[] digest;
+
+    Hasher(final SecretKeySpec secretKey) {
+      try {
+        mac = Mac.getInstance(ALGORITHM);
+        mac.init(secretKey);
+      } catch (final GeneralSecurityException e) {
+        throw new IllegalStateException("Cannot create " + ALGORITHM, e);
+      }
+      digest = new byte[mac.getMacLength()];
+    }
+
+    Key hash(final CharSequence rawTrackData) {
+      final int length = rawTrackData.length();
+      int position = 0;
+      for (int i = 0; i < length; i++) {
+        // ASCII characters take one byte, and other characters are escaped with a marker byte
+        final char ch = rawTrackData.charAt(i);
+        if (ch < 0x80) {
+          chunk[position++] = (byte) ch;
+        } else {
+          chunk[position++] = (byte) 0x80;
+          chunk[position++] = (byte) (ch >> 8);
+          chunk[position++] = (byte) ch;
+        }
+        if (position > CHUNK_SIZE - 3) {
+          mac.update(chunk, 0, position);
+          position = 0;
+        }
+      }
+      mac.update(chunk, 0, position);
+      // Overwrite the copy of the raw track data
+      Arrays.fill(chunk, (byte) 0);
+      try {
+        mac.doFinal(digest, 0);
+      } catch (final GeneralSecurityException e) {
+        throw new IllegalStateException("Cannot hash track data", e);
+      }
+      return new Key(digest);
+    }
+  }
+
+  /** Least recently used map of swipes, guarded by its own lock. */
+  private final class Stripe extends LinkedHashMap<Key, Entry> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+
+    Stripe(final int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    synchronized BankCardMagneticTrack get(final Key key, final long now) {
+      final Entry entry = super.get(key);
+      if (entry == null) {
+        return null;
+      }
+      if (now - entry.expiresAt >= 0) {
+        remove(key);
+        expire(entry);
+        return null;
+      }
+      return entry.track;
+    }
+
+    synchronized BankCardMagneticTrack putIfAbsent(
+        final Key key, final BankCardMagneticTrack track, final long now) {
+      final BankCardMagneticTrack cached = get(key, now);
+      if (cached != null) {
+        return cached;
+      }
+      put(key, new Entry(track, now + timeToLiveNanos));
+      return track;
+    }
+
+    synchronized void removeExpired(final long now, final boolean all) {
+      final Iterator<Entry> entries = values().iterator();
+      while (entries.hasNext()) {
+        final Entry entry = entries.next();
+        if (all || now - entry.expiresAt >= 0) {
+          entries.remove();
+          if (all) {
+            dispose(entry.track);
+          } else {
+            expire(entry);
+          }
+        }
+      }
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+      if (size() <= capacity) {
+        return false;
+      }
+      // The swipe has not expired, so callers that looked it up may still be using it
+      evictions.increment();
+      return true;
+    }
+
+    private void expire(final Entry entry) {
+      evictions.increment();
+      dispose(entry.track);
+    }
+  }
+}
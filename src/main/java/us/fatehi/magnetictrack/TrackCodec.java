@@ -0,0 +1,974 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+import static us.fatehi.creditcardnumber.AccountNumbers.emptyAccountNumber;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import us.fatehi.creditcardnumber.AccountNumber;
+
+/**
+ * Compact, versioned binary encoding of parsed tracks, for passing them between services or holding
+ * them in caches, instead of Java serialization. Each encoding starts with a version byte and a
+ * type byte, followed by the fields of the track:
+ *
+ * <ul>
+ *   <li>Primary account number as a digit count, followed by packed binary coded decimal (BCD)
+ *       digits
+ *   <li>Expiration date as 2 bytes of packed BCD digits, YYMM
+ *   <li>Service code as a short
+ *   <li>Name and discretionary data as a variable length byte count, followed by the characters in
+ *       modified UTF-8, which is one byte for each ASCII character
+ * </ul>
+ *
+ * <p>Fields are encoded from the raw track data, so encoding does not create fields that have not
+ * been used yet. Decoded tracks rebuild their raw track data from these fields, with the start and
+ * end sentinels, and create the same fields when they are first used as the tracks that were
+ * encoded. Characters before, between and after the tracks in the raw data of a {@link
+ * BankCardMagneticTrack}, such as line breaks, are encoded after the tracks, so that the decoded
+ * swipe has the same raw track data. If the tracks cannot be found in order in the raw data of the
+ * swipe, such as when a track was disposed on its own, the raw data of the swipe is encoded whole.
+ * If the raw track data had been disposed before encoding, it is disposed again after decoding.
+ *
+ * <p>Track 1 in a format other than the built-in format "B" has its own layout, so its raw track
+ * data is encoded instead of its fields, and it is read again with the format that is registered
+ * in {@link Track1Formats} for its format code when it is decoded. The same format has to be
+ * registered wherever such a track is decoded, and decoding fails if no format, or a format that
+ * cannot read the track, is registered. Such a track cannot be encoded once its raw track data has
+ * been disposed.
+ *
+ * <p>The buffer's position is moved past the encoded track. If the buffer does not have enough
+ * space, or does not contain a complete encoded track, its position is not changed.
+ */
+public final class TrackCodec {
+
+  private static final byte VERSION = 1;
+
+  private static final byte TRACK_1 = 1;
+  private static final byte TRACK_2 = 2;
+  private static final byte TRACK_3 = 3;
+  private static final byte SWIPE = 4;
+
+  private static final int FOUND = 0x01;
+  private static final int RAW_DATA = 0x02;
+  private static final int EXPIRATION_DATE = 0x04;
+  private static final int SERVICE_CODE = 0x08;
+  private static final int EXPIRATION_DATE_SEPARATOR = 0x10;
+  private static final int SERVICE_CODE_SEPARATOR = 0x20;
+  private static final int START_SENTINEL = 0x40;
+  private static final int END_SENTINEL = 0x80;
+
+  /** Marks a swipe with characters around its tracks, which follow the tracks. */
+  private static final int TRACK_SEPARATORS = 0x04;
+  /** Marks a swipe whose raw track data follows the tracks, whole. */
+  private static final int RAW_TEXT = 0x08;
+
+  /** Marks the format code of track 1 that is encoded as raw track data. */
+  private static final int RAW_LAYOUT = 0x80;
+
+  /**
+   * Reads an encoded swipe, with all 3 tracks.
+   *
+   * @param in Buffer positioned at the encoded swipe.
+   * @return Decoded swipe.
+   * @throws IllegalArgumentException If the buffer does not contain an encoded swipe, of a
+   *     supported version, or track 1 cannot be read with the track 1 format that is registered
+   *     for its format code.
+   * @throws BufferUnderflowException If the encoded swipe is incomplete.
+   */
+  public static BankCardMagneticTrack readBankCardMagneticTrack(final ByteBuffer in) {
+    requireNonNull(in, "No buffer provided");
+    final int start = in.position();
+    try {
+      readHeader(in, SWIPE);
+      final int flags = in.get() & 0xFF;
+      final int track1Flags = in.get() & 0xFF;
+      final Track1FormatB track1 = readTrack1Fields(in, track1Flags);
+      final int track2Flags = in.get() & 0xFF;
+      final Track2 track2 = readTrack2Fields(in, track2Flags);
+      final int track3Flags = in.get() & 0xFF;
+      final Track3 track3 = readTrack3Fields(in, track3Flags);
+
+      final char[] raw;
+      if ((flags & RAW_TEXT) != 0) {
+        raw = readText(in);
+      } else {
+        raw = readSwipe(in, flags, track1, track2, track3);
+      }
+      final BankCardMagneticTrack track =
+          new BankCardMagneticTrack(DisposableCharData.wrap(raw), track1, track2, track3);
+
+      disposeIfRequired(track1, track1Flags);
+      disposeIfRequired(track2, track2Flags);
+      disposeIfRequired(track3, track3Flags);
+      disposeIfRequired(track, flags);
+      return track;
+    } catch (final RuntimeException e) {
+      in.position(start);
+      throw e;
+    }
+  }
+
+  /**
+   * Reads an encoded track 1.
+   *
+   * @param in Buffer positioned at the encoded track.
+   * @return Decoded track.
+   * @throws IllegalArgumentException If the buffer does not contain an encoded track 1, of a
+   *     supported version, or the track cannot be read with the track 1 format that is registered
+   *     for its format code.
+   * @throws BufferUnderflowException If the encoded track is incomplete.
+   */
+  public static Track1FormatB readTrack1(final ByteBuffer in) {
+    requireNonNull(in, "No buffer provided");
+    final int start = in.position();
+    try {
+      readHeader(in, TRACK_1);
+      final int flags = in.get() & 0xFF;
+      return disposeIfRequired(readTrack1Fields(in, flags), flags);
+    } catch (final RuntimeException e) {
+      in.position(start);
+      throw e;
+    }
+  }
+
+  /**
+   * Reads an encoded track 2.
+   *
+   * @param in Buffer positioned at the encoded track.
+   * @return Decoded track.
+   * @throws IllegalArgumentException If the buffer does not contain an encoded track 2, of a
+   *     supported version.
+   * @throws BufferUnderflowException If the encoded track is incomplete.
+   */
+  public static Track2 readTrack2(final ByteBuffer in) {
+    requireNonNull(in, "No buffer provided");
+    final int start = in.position();
+    try {
+      readHeader(in, TRACK_2);
+      final int flags = in.get() & 0xFF;
+      return disposeIfRequired(readTrack2Fields(in, flags), flags);
+    } catch (final RuntimeException e) {
+      in.position(start);
+      throw e;
+    }
+  }
+
+  /**
+   * Reads an encoded track 3.
+   *
+   * @param in Buffer positioned at the encoded track.
+   * @return Decoded track.
+   * @throws IllegalArgumentException If the buffer does not contain an encoded track 3, of a
+   *     supported version.
+   * @throws BufferUnderflowException If the encoded track is incomplete.
+   */
+  public static Track3 readTrack3(final ByteBuffer in) {
+    requireNonNull(in, "No buffer provided");
+    final int start = in.position();
+    try {
+      readHeader(in, TRACK_3);
+      final int flags = in.get() & 0xFF;
+      return disposeIfRequired(readTrack3Fields(in, flags), flags);
+    } catch (final RuntimeException e) {
+      in.position(start);
+      throw e;
+    }
+  }
+
+  /**
+   * Writes a swipe, with all 3 tracks.
+   *
+   * @param track Swipe to encode.
+   * @param out Buffer to write to.
+   * @throws BufferOverflowException If the buffer does not have enough space.
+   */
+  public static void write(final BankCardMagneticTrack track, final ByteBuffer out) {
+    requireNonNull(track, "No track provided");
+    requireNonNull(out, "No buffer provided");
+    final int start = out.position();
+    try {
+      out.put(VERSION).put(SWIPE);
+      final int[] trackOffsets = track.hasRawData() ? trackOffsets(track) : null;
+      int flags = 0;
+      if (track.hasRawData()) {
+        flags |= RAW_DATA;
+        if (trackOffsets == null) {
+          flags |= RAW_TEXT;
+        } else if (hasSeparators(track, trackOffsets)) {
+          flags |= TRACK_SEPARATORS;
+        }
+      }
+      out.put((byte) flags);
+      writeFields(track.getTrack1(), out);
+      writeFields(track.getTrack2(), out);
+      writeFields(track.getTrack3(), out);
+      if ((flags & RAW_TEXT) != 0) {
+        writeText(track.getRawCharacters(), out);
+      } else if ((flags & TRACK_SEPARATORS) != 0) {
+        writeSeparators(track, trackOffsets, out);
+      }
+    } catch (final RuntimeException e) {
+      out.position(start);
+      throw e;
+    }
+  }
+
+  /**
+   * Writes track 1.
+   *
+   * @param track Track to encode.
+   * @param out Buffer to write to.
+   * @throws BufferOverflowException If the buffer does not have enough space.
+   */
+  public static void write(final Track1FormatB track, final ByteBuffer out) {
+    requireNonNull(track, "No track provided");
+    requireNonNull(out, "No buffer provided");
+    final int start = out.position();
+    try {
+      out.put(VERSION).put(TRACK_1);
+      writeFields(track, out);
+    } catch (final RuntimeException e) {
+      out.position(start);
+      throw e;
+    }
+  }
+
+  /**
+   * Writes track 2.
+   *
+   * @param track Track to encode.
+   * @param out Buffer to write to.
+   * @throws BufferOverflowException If the buffer does not have enough space.
+   */
+  public static void write(final Track2 track, final ByteBuffer out) {
+    requireNonNull(track, "No track provided");
+    requireNonNull(out, "No buffer provided");
+    final int start = out.position();
+    try {
+      out.put(VERSION).put(TRACK_2);
+      writeFields(track, out);
+    } catch (final RuntimeException e) {
+      out.position(start);
+      throw e;
+    }
+  }
+
+  /**
+   * Writes track 3.
+   *
+   * @param track Track to encode.
+   * @param out Buffer to write to.
+   * @throws BufferOverflowException If the buffer does not have enough space.
+   */
+  public static void write(final Track3 track, final ByteBuffer out) {
+    requireNonNull(track, "No track provided");
+    requireNonNull(out, "No buffer provided");
+    final int start = out.position();
+    try {
+      out.put(VERSION).put(TRACK_3);
+      writeFields(track, out);
+    } catch (final RuntimeException e) {
+      out.position(start);
+      throw e;
+    }
+  }
+
+  private static int copy(final CharSequence source, final char[] destination, final int offset) {
+    for (int i = 0; i < source.length(); i++) {
+      destination[offset + i] = source.charAt(i);
+    }
+    return offset + source.length();
+  }
+
+  private static <T extends BaseTrackData> T disposeIfRequired(final T track, final int flags) {
+    if ((flags & RAW_DATA) == 0) {
+      track.disposeRawData();
+    }
+    return track;
+  }
+
+  private static int digits(final CharSequence field, final int length) {
+    if (field == null || field.length() != length) {
+      return -1;
+    }
+    int value = 0;
+    for (int i = 0; i < length; i++) {
+      final char ch = field.charAt(i);
+      if (ch < '0' || ch > '9') {
+        return -1;
+      }
+      value = value * 10 + ch - '0';
+    }
+    return value;
+  }
+
+  private static int digitCount(final ByteBuffer in) {
+    final int count = in.get() & 0xFF;
+    if (count > 19) {
+      throw new IllegalArgumentException("Primary account number has too many digits");
+    }
+    return count;
+  }
+
+  private static boolean isSeparator(final CharSequence field) {
+    return field != null && field.length() == 1 && field.charAt(0) == '^';
+  }
+
+  private static boolean isFound(final BaseTrackData track) {
+    return track.getRawCharacters().length() > 0;
+  }
+
+  private static int putDigits(
+      final char[] raw, final int offset, final int value, final int count) {
+    int remaining = value;
+    for (int i = count - 1; i >= 0; i--) {
+      raw[offset + i] = (char) ('0' + remaining % 10);
+      remaining = remaining / 10;
+    }
+    return offset + count;
+  }
+
+  private static int readAccountNumber(
+      final ByteBuffer in, final int count, final char[] raw, final int offset) {
+    for (int i = 0; i < count; i++) {
+      final int packed = in.get(in.position() + i / 2) & 0xFF;
+      final int digit = i % 2 == 0 ? packed >>> 4 : packed & 0x0F;
+      if (digit > 9) {
+        throw new IllegalArgumentException("Invalid packed digit");
+      }
+      raw[offset + i] = (char) ('0' + digit);
+    }
+    in.position(in.position() + (count + 1) / 2);
+    return offset + count;
+  }
+
+  private static int readExpirationDate(final ByteBuffer in) {
+    final int packed = in.getShort() & 0xFFFF;
+    int value = 0;
+    for (int shift = 12; shift >= 0; shift = shift - 4) {
+      final int digit = (packed >>> shift) & 0x0F;
+      if (digit > 9) {
+        throw new IllegalArgumentException("Invalid packed digit");
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private static void readHeader(final ByteBuffer in, final byte type) {
+    final byte version = in.get();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported encoding version, " + version);
+    }
+    if (in.get() != type) {
+      throw new IllegalArgumentException("Encoded data is not the expected type of track");
+    }
+  }
+
+  private static int readServiceCode(final ByteBuffer in) {
+    final int serviceCode = in.getShort();
+    if (serviceCode < 0 || serviceCode > 999) {
+      throw new IllegalArgumentException("Invalid service code");
+    }
+    return serviceCode;
+  }
+
+  /**
+   * Reads the raw track data of a swipe, from the raw track data of its tracks, and the characters
+   * around them, if any were encoded.
+   */
+  private static char[] readSwipe(
+      final ByteBuffer in,
+      final int flags,
+      final Track1FormatB track1,
+      final Track2 track2,
+      final Track3 track3) {
+    final CharSequence[] parts = new CharSequence[7];
+    parts[1] = track1.getRawCharacters();
+    parts[3] = track2.getRawCharacters();
+    parts[5] = track3.getRawCharacters();
+    for (int i = 0; i < parts.length; i = i + 2) {
+      parts[i] = (flags & TRACK_SEPARATORS) != 0 ? CharBuffer.wrap(readText(in)) : "";
+    }
+
+    int rawLength = 0;
+    for (final CharSequence part : parts) {
+      rawLength = rawLength + part.length();
+    }
+    final char[] raw = new char[rawLength];
+    int length = 0;
+    for (final CharSequence part : parts) {
+      length = copy(part, raw, length);
+    }
+    return raw;
+  }
+
+  /** Reads characters, after the count of bytes. */
+  private static char[] readText(final ByteBuffer in) {
+    final int byteCount = readVarint(in);
+    final char[] text = new char[textLength(in, byteCount)];
+    readText(in, byteCount, text, 0);
+    return text;
+  }
+
+  /**
+   * Reads characters, which were counted by {@link #textLength(ByteBuffer)}, from the position
+   * after the byte count.
+   */
+  private static int readText(
+      final ByteBuffer in, final int byteCount, final char[] raw, final int offset) {
+    final int end = in.position() + byteCount;
+    int length = offset;
+    while (in.position() < end) {
+      final int first = in.get() & 0xFF;
+      final char ch;
+      if (first < 0x80) {
+        ch = (char) first;
+      } else if ((first & 0xE0) == 0xC0) {
+        ch = (char) ((first & 0x1F) << 6 | readContinuation(in, end));
+      } else if ((first & 0xF0) == 0xE0) {
+        final int second = readContinuation(in, end);
+        ch = (char) ((first & 0x0F) << 12 | second << 6 | readContinuation(in, end));
+      } else {
+        throw new IllegalArgumentException("Invalid encoded character");
+      }
+      raw[length++] = ch;
+    }
+    return length;
+  }
+
+  private static int readContinuation(final ByteBuffer in, final int end) {
+    if (in.position() >= end) {
+      throw new IllegalArgumentException("Invalid encoded character");
+    }
+    final int b = in.get() & 0xFF;
+    if ((b & 0xC0) != 0x80) {
+      throw new IllegalArgumentException("Invalid encoded character");
+    }
+    return b & 0x3F;
+  }
+
+  private static Track1FormatB readTrack1Fields(final ByteBuffer in, final int flags) {
+    if ((flags & FOUND) == 0) {
+      return Track1FormatB.empty();
+    }
+
+    final int format = in.get() & 0xFF;
+    if ((format & RAW_LAYOUT) != 0) {
+      return readTrack1Layout(in);
+    }
+    final char formatCode = (char) format;
+    final int panLength = digitCount(in);
+    final int panPosition = in.position();
+    in.position(panPosition + (panLength + 1) / 2);
+    final int nameBytes = readVarint(in);
+    final int namePosition = in.position();
+    final int nameLength = textLength(in, nameBytes);
+    in.position(namePosition + nameBytes);
+    final int expirationDate = (flags & EXPIRATION_DATE) != 0 ? readExpirationDate(in) : -1;
+    final int serviceCode = (flags & SERVICE_CODE) != 0 ? readServiceCode(in) : -1;
+    final int discretionaryDataBytes = readVarint(in);
+    final int discretionaryDataPosition = in.position();
+    final int discretionaryDataLength = textLength(in, discretionaryDataBytes);
+    final int end = discretionaryDataPosition + discretionaryDataBytes;
+
+    final char[] raw =
+        new char
+            [((flags & START_SENTINEL) != 0 ? 1 : 0)
+                + 1
+                + panLength
+                + 1
+                + nameLength
+                + 1
+                + (expirationDate >= 0 ? 4 : 0)
+                + ((flags & EXPIRATION_DATE_SEPARATOR) != 0 ? 1 : 0)
+                + (serviceCode >= 0 ? 3 : 0)
+                + ((flags & SERVICE_CODE_SEPARATOR) != 0 ? 1 : 0)
+                + discretionaryDataLength
+                + ((flags & END_SENTINEL) != 0 ? 1 : 0)];
+    int length = 0;
+    if ((flags & START_SENTINEL) != 0) {
+      raw[length++] = '%';
+    }
+    raw[length++] = formatCode;
+    in.position(panPosition);
+    final int panStart = length;
+    length = readAccountNumber(in, panLength, raw, length);
+    final int panEnd = length;
+    raw[length++] = '^';
+    in.position(namePosition);
+    final int nameStart = length;
+    length = readText(in, nameBytes, raw, length);
+    final int nameEnd = length;
+    raw[length++] = '^';
+    final int expirationDateStart = length;
+    if (expirationDate >= 0) {
+      length = putDigits(raw, length, expirationDate, 4);
+    } else if ((flags & EXPIRATION_DATE_SEPARATOR) != 0) {
+      raw[length++] = '^';
+    }
+    final int expirationDateEnd = length;
+    final int serviceCodeStart = length;
+    if (serviceCode >= 0) {
+      length = putDigits(raw, length, serviceCode, 3);
+    } else if ((flags & SERVICE_CODE_SEPARATOR) != 0) {
+      raw[length++] = '^';
+    }
+    final int serviceCodeEnd = length;
+    in.position(discretionaryDataPosition);
+    final int discretionaryDataStart = length;
+    length = readText(in, discretionaryDataBytes, raw, length);
+    final int discretionaryDataEnd = length;
+    if ((flags & END_SENTINEL) != 0) {
+      raw[length++] = '?';
+    }
+    in.position(end);
+
+    final DisposableCharData rawData = DisposableCharData.wrap(raw);
+    return new Track1FormatB(
+        rawData,
+        String.valueOf(formatCode),
+        accountNumber(rawData, panStart, panEnd),
+        start(panStart, panEnd),
+        panEnd,
+        BinIndexes.lookup(rawData, panStart, panEnd),
+        nameStart,
+        nameEnd,
+        start(expirationDateStart, expirationDateEnd),
+        expirationDateEnd,
+        start(serviceCodeStart, serviceCodeEnd),
+        serviceCodeEnd,
+        new DisposableCharData(rawData, discretionaryDataStart, discretionaryDataEnd));
+  }
+
+  /** Reads track 1 that was encoded as raw track data, with the registered format. */
+  private static Track1FormatB readTrack1Layout(final ByteBuffer in) {
+    final int rawBytes = readVarint(in);
+    final char[] raw = new char[textLength(in, rawBytes)];
+    readText(in, rawBytes, raw, 0);
+    try {
+      final Track1FormatB track = Track1FormatB.scan(new TrackScanner(raw));
+      if (!isFound(track)) {
+        throw new IllegalArgumentException(
+            "Encoded track 1 cannot be read with the registered track 1 format");
+      }
+      return track;
+    } finally {
+      // The track has its own copy of the raw track data
+      Arrays.fill(raw, '\0');
+    }
+  }
+
+  private static Track2 readTrack2Fields(final ByteBuffer in, final int flags) {
+    if ((flags & FOUND) == 0) {
+      return Track2.empty();
+    }
+
+    final int panLength = digitCount(in);
+    final int panPosition = in.position();
+    in.position(panPosition + (panLength + 1) / 2);
+    final int expirationDate = (flags & EXPIRATION_DATE) != 0 ? readExpirationDate(in) : -1;
+    final int serviceCode = (flags & SERVICE_CODE) != 0 ? readServiceCode(in) : -1;
+    final int discretionaryDataBytes = readVarint(in);
+    final int discretionaryDataPosition = in.position();
+    final int discretionaryDataLength = textLength(in, discretionaryDataBytes);
+    final int end = discretionaryDataPosition + discretionaryDataBytes;
+
+    final char[] raw =
+        new char
+            [1
+                + panLength
+                + 1
+                + (expirationDate >= 0 ? 4 : 0)
+                + (serviceCode >= 0 ? 3 : 0)
+                + discretionaryDataLength
+                + 1];
+    int length = 0;
+    raw[length++] = ';';
+    in.position(panPosition);
+    final int panStart = length;
+    length = readAccountNumber(in, panLength, raw, length);
+    final int panEnd = length;
+    raw[length++] = '=';
+    final int expirationDateStart = length;
+    if (expirationDate >= 0) {
+      length = putDigits(raw, length, expirationDate, 4);
+    }
+    final int expirationDateEnd = length;
+    final int serviceCodeStart = length;
+    if (serviceCode >= 0) {
+      length = putDigits(raw, length, serviceCode, 3);
+    }
+    final int serviceCodeEnd = length;
+    in.position(discretionaryDataPosition);
+    final int discretionaryDataStart = length;
+    length = readText(in, discretionaryDataBytes, raw, length);
+    final int discretionaryDataEnd = length;
+    raw[length] = '?';
+    in.position(end);
+
+    final DisposableCharData rawData = DisposableCharData.wrap(raw);
+    return new Track2(
+        rawData,
+        accountNumber(rawData, panStart, panEnd),
+        start(panStart, panEnd),
+        panEnd,
+        BinIndexes.lookup(rawData, panStart, panEnd),
+        start(expirationDateStart, expirationDateEnd),
+        expirationDateEnd,
+        start(serviceCodeStart, serviceCodeEnd),
+        serviceCodeEnd,
+        new DisposableCharData(rawData, discretionaryDataStart, discretionaryDataEnd));
+  }
+
+  private static Track3 readTrack3Fields(final ByteBuffer in, final int flags) {
+    if ((flags & FOUND) == 0) {
+      return Track3.empty();
+    }
+
+    final int discretionaryDataBytes = readVarint(in);
+    final int discretionaryDataLength = textLength(in, discretionaryDataBytes);
+
+    final char[] raw = new char[discretionaryDataLength + 2];
+    raw[0] = '+';
+    readText(in, discretionaryDataBytes, raw, 1);
+    raw[raw.length - 1] = '?';
+
+    final DisposableCharData rawData = DisposableCharData.wrap(raw);
+    return new Track3(rawData, new DisposableCharData(rawData, 1, raw.length - 1));
+  }
+
+  private static int readVarint(final ByteBuffer in) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift = shift + 7) {
+      final int b = in.get() & 0xFF;
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          throw new IllegalArgumentException("Invalid length");
+        }
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Invalid length");
+  }
+
+  private static AccountNumber accountNumber(
+      final DisposableCharData rawData, final int start, final int end) {
+    if (start == end) {
+      return emptyAccountNumber();
+    }
+    return new LazyAccountNumber(new DisposableCharData(rawData, start, end));
+  }
+
+  /** Offset of a field that is present, or -1 for a field that is not. */
+  private static int start(final int start, final int end) {
+    return start == end ? -1 : start;
+  }
+
+  /** Counts the characters in encoded text, without moving the buffer's position. */
+  private static int textLength(final ByteBuffer in, final int byteCount) {
+    if (byteCount > in.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    int length = 0;
+    for (int i = in.position(); i < in.position() + byteCount; i++) {
+      // Count every byte that is not a continuation byte
+      if ((in.get(i) & 0xC0) != 0x80) {
+        length++;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Writes the primary account number from the digits in the raw track data, or held by an
+   * account number that has not been used yet, so that the account number is not created as a
+   * string.
+   */
+  private static void writeAccountNumber(
+      final BaseBankCardTrackData track, final ByteBuffer out) {
+    final AccountNumber pan = track.getAccountNumber();
+    final LazyAccountNumber lazyPan =
+        pan instanceof LazyAccountNumber ? (LazyAccountNumber) pan : null;
+    if (lazyPan == null ? !pan.hasAccountNumber() : lazyPan.isDisposed()) {
+      out.put((byte) 0);
+      return;
+    }
+    CharSequence digits = track.getAccountNumberCharacters();
+    if (digits == null && lazyPan != null) {
+      digits = lazyPan.digits();
+    }
+    if (digits == null) {
+      digits = pan.getAccountNumber();
+    }
+    if (digits.length() > 19 || !isAllDigits(digits)) {
+      throw new IllegalArgumentException("Primary account number cannot be encoded");
+    }
+    out.put((byte) digits.length());
+    for (int i = 0; i < digits.length(); i = i + 2) {
+      final int high = digits.charAt(i) - '0';
+      final int low = i + 1 < digits.length() ? digits.charAt(i + 1) - '0' : 0x0F;
+      out.put((byte) (high << 4 | low));
+    }
+  }
+
+  private static boolean isAllDigits(final CharSequence field) {
+    for (int i = 0; i < field.length(); i++) {
+      final char ch = field.charAt(i);
+      if (ch < '0' || ch > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void writeFields(final Track1FormatB track, final ByteBuffer out) {
+    if (!isFound(track)) {
+      out.put((byte) 0);
+      return;
+    }
+    final char formatCode = track.getFormatCode().charAt(0);
+    if (formatCode != 'B' || Track1Formats.format(formatCode) != Track1Formats.FORMAT_B) {
+      writeLayout(track, formatCode, out);
+      return;
+    }
+
+    final CharSequence expirationDateField = track.getExpirationDateCharacters();
+    final CharSequence serviceCodeField = track.getServiceCodeCharacters();
+    final int expirationDate = digits(expirationDateField, 4);
+    final int serviceCode = digits(serviceCodeField, 3);
+
+    int flags = FOUND;
+    if (track.hasRawData()) {
+      flags |= RAW_DATA;
+      final CharSequence raw = track.getRawCharacters();
+      if (raw.charAt(0) == '%') {
+        flags |= START_SENTINEL;
+      }
+      if (raw.charAt(raw.length() - 1) == '?') {
+        flags |= END_SENTINEL;
+      }
+    } else {
+      flags |= START_SENTINEL | END_SENTINEL;
+    }
+    if (expirationDate >= 0) {
+      flags |= EXPIRATION_DATE;
+    } else if (isSeparator(expirationDateField)) {
+      flags |= EXPIRATION_DATE_SEPARATOR;
+    }
+    if (serviceCode >= 0) {
+      flags |= SERVICE_CODE;
+    } else if (isSeparator(serviceCodeField)) {
+      flags |= SERVICE_CODE_SEPARATOR;
+    }
+
+    out.put((byte) flags);
+    out.put((byte) formatCode);
+    writeAccountNumber(track, out);
+    final CharSequence name = track.getNameCharacters();
+    writeText(name == null ? "" : name, out);
+    if (expirationDate >= 0) {
+      writeExpirationDate(expirationDate, out);
+    }
+    if (serviceCode >= 0) {
+      out.putShort((short) serviceCode);
+    }
+    writeText(track.getDiscretionaryCharacters(), out);
+  }
+
+  /** Writes track 1 in a format other than format "B", as its raw track data. */
+  private static void writeLayout(
+      final Track1FormatB track, final char formatCode, final ByteBuffer out) {
+    if (!track.hasRawData()) {
+      throw new IllegalArgumentException(
+          "Track 1 in format " + formatCode + " cannot be encoded without its raw track data");
+    }
+    out.put((byte) (FOUND | RAW_DATA));
+    out.put((byte) (formatCode | RAW_LAYOUT));
+    writeText(track.getRawCharacters(), out);
+  }
+
+  private static void writeFields(final Track2 track, final ByteBuffer out) {
+    if (!isFound(track)) {
+      out.put((byte) 0);
+      return;
+    }
+
+    final int expirationDate = digits(track.getExpirationDateCharacters(), 4);
+    final int serviceCode = digits(track.getServiceCodeCharacters(), 3);
+
+    int flags = FOUND;
+    if (track.hasRawData()) {
+      flags |= RAW_DATA;
+    }
+    if (expirationDate >= 0) {
+      flags |= EXPIRATION_DATE;
+    }
+    if (serviceCode >= 0) {
+      flags |= SERVICE_CODE;
+    }
+
+    out.put((byte) flags);
+    writeAccountNumber(track, out);
+    if (expirationDate >= 0) {
+      writeExpirationDate(expirationDate, out);
+    }
+    if (serviceCode >= 0) {
+      out.putShort((short) serviceCode);
+    }
+    writeText(track.getDiscretionaryCharacters(), out);
+  }
+
+  private static void writeFields(final Track3 track, final ByteBuffer out) {
+    if (!isFound(track)) {
+      out.put((byte) 0);
+      return;
+    }
+
+    int flags = FOUND;
+    if (track.hasRawData()) {
+      flags |= RAW_DATA;
+    }
+    out.put((byte) flags);
+    writeText(track.getDiscretionaryCharacters(), out);
+  }
+
+  /**
+   * Finds the tracks in the raw track data of a swipe, in order.
+   *
+   * @return Start and end of each track, where a track that was not found is empty, or null if the
+   *     tracks are not in order, such as when the raw track data of a track was disposed on its own
+   */
+  private static int[] trackOffsets(final BankCardMagneticTrack track) {
+    final CharSequence raw = track.getRawCharacters();
+    final BaseTrackData[] tracks = {track.getTrack1(), track.getTrack2(), track.getTrack3()};
+    final int[] offsets = new int[tracks.length * 2];
+    int position = 0;
+    for (int i = 0; i < tracks.length; i++) {
+      final CharSequence trackRaw = tracks[i].getRawCharacters();
+      if (trackRaw.length() > 0) {
+        position = indexOf(raw, trackRaw, position);
+        if (position < 0) {
+          return null;
+        }
+      }
+      offsets[i * 2] = position;
+      position = position + trackRaw.length();
+      offsets[i * 2 + 1] = position;
+    }
+    return offsets;
+  }
+
+  private static int indexOf(final CharSequence text, final CharSequence part, final int from) {
+    for (int i = from; i <= text.length() - part.length(); i++) {
+      int j = 0;
+      while (j < part.length() && text.charAt(i + j) == part.charAt(j)) {
+        j++;
+      }
+      if (j == part.length()) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean hasSeparators(
+      final BankCardMagneticTrack track, final int[] trackOffsets) {
+    int position = 0;
+    for (int i = 0; i < trackOffsets.length; i = i + 2) {
+      if (trackOffsets[i] != position) {
+        return true;
+      }
+      position = trackOffsets[i + 1];
+    }
+    return position != track.getRawCharacters().length();
+  }
+
+  /** Writes the characters before, between and after the tracks of a swipe. */
+  private static void writeSeparators(
+      final BankCardMagneticTrack track, final int[] trackOffsets, final ByteBuffer out) {
+    final CharSequence raw = track.getRawCharacters();
+    int position = 0;
+    for (int i = 0; i < trackOffsets.length; i = i + 2) {
+      writeText(raw.subSequence(position, trackOffsets[i]), out);
+      position = trackOffsets[i + 1];
+    }
+    writeText(raw.subSequence(position, raw.length()), out);
+  }
+
+  private static void writeExpirationDate(final int expirationDate, final ByteBuffer out) {
+    int packed = 0;
+    int remaining = expirationDate;
+    for (int shift = 0; shift <= 12; shift = shift + 4) {
+      packed |= (remaining % 10) << shift;
+      remaining = remaining / 10;
+    }
+    out.putShort((short) packed);
+  }
+
+  /** Writes characters in modified UTF-8, after the count of bytes. */
+  private static void writeText(final CharSequence text, final ByteBuffer out) {
+    // Disposed data is all zeros, and is written as empty
+    final int length = isDisposed(text) ? 0 : text.length();
+    int byteCount = 0;
+    for (int i = 0; i < length; i++) {
+      final char ch = text.charAt(i);
+      if (ch > 0 && ch < 0x80) {
+        byteCount = byteCount + 1;
+      } else if (ch < 0x800) {
+        byteCount = byteCount + 2;
+      } else {
+        byteCount = byteCount + 3;
+      }
+    }
+
+    writeVarint(byteCount, out);
+    for (int i = 0; i < length; i++) {
+      final char ch = text.charAt(i);
+      if (ch > 0 && ch < 0x80) {
+        out.put((byte) ch);
+      } else if (ch < 0x800) {
+        out.put((byte) (0xC0 | ch >>> 6));
+        out.put((byte) (0x80 | ch & 0x3F));
+      } else {
+        out.put((byte) (0xE0 | ch >>> 12));
+        out.put((byte) (0x80 | ch >>> 6 & 0x3F));
+        out.put((byte) (0x80 | ch & 0x3F));
+      }
+    }
+  }
+
+  private static boolean isDisposed(final CharSequence text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) != '\0') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void writeVarint(final int value, final ByteBuffer out) {
+    int remaining = value;
+    while (remaining >= 0x80) {
+      out.put((byte) (remaining & 0x7F | 0x80));
+      remaining = remaining >>> 7;
+    }
+    out.put((byte) remaining);
+  }
+
+  private TrackCodec() {
+    // Prevent instantiation
+  }
+}
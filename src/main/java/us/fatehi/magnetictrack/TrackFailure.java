@@ -0,0 +1,50 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+/** Reason that a track which was started could not be read. */
+public enum TrackFailure {
+
+  /** Track 1 start sentinel is not followed by a format code, from "A" to "Z". */
+  InvalidFormatCode,
+
+  /** Track 1 format code does not have a format registered with {@link Track1Formats}. */
+  UnsupportedFormatCode,
+
+  /** Primary account number is missing, or does not start with a digit. */
+  InvalidAccountNumber,
+
+  /** Primary account number has more than 19 digits. */
+  AccountNumberTooLong,
+
+  /** Field is not followed by a separator, "^" on track 1 or "=" on track 2. */
+  InvalidSeparator,
+
+  /** Track 1 name is not 2 to 26 characters. */
+  InvalidName,
+
+  /** Expiration date has a character that is not a digit, or a separator on track 1. */
+  InvalidExpirationDate,
+
+  /** Track 2 service code is not 3 digits. */
+  InvalidServiceCode,
+
+  /** Track does not have an end sentinel where one is required. */
+  MissingEndSentinel,
+
+  /** Track is not on a line, or at a position in the input, where it is allowed. */
+  InvalidPosition,
+
+  /** Track is longer than the maximum length for the track. */
+  TrackTooLong,
+
+  /**
+   * Raw track data is longer than {@link ParseLimits#getMaximumInputLength()}, so it was not read.
+   */
+  InputTooLong;
+}
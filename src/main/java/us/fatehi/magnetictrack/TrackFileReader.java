@@ -0,0 +1,274 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a file of raw track data, one swipe per line, by memory-mapping it. Each line is parsed
+ * directly from the mapped ASCII bytes, so lines are never decoded or copied into strings. Lines
+ * end with a line feed, a carriage return, or both, in the same way as {@link
+ * java.io.BufferedReader#readLine()}.
+ *
+ * <p>Tracks are parsed lazily, as the stream or iterator is consumed. A parallel stream splits the
+ * file at line boundaries into chunks that are parsed independently, for files larger than the
+ * split threshold.
+ */
+public final class TrackFileReader implements Closeable, Iterable<BankCardMagneticTrack> {
+
+  private static final long DEFAULT_SPLIT_THRESHOLD = 16L * 1024 * 1024;
+  private static final int MAXIMUM_WINDOW_SIZE = 1 << 30;
+
+  /**
+   * Opens a file of raw track data, with the default split threshold of 16 MiB.
+   *
+   * @param file File with one swipe per line.
+   * @return Reader for the file, which needs to be closed.
+   * @throws IOException On an exception opening the file.
+   */
+  public static TrackFileReader open(final Path file) throws IOException {
+    return open(file, DEFAULT_SPLIT_THRESHOLD);
+  }
+
+  /**
+   * Opens a file of raw track data.
+   *
+   * @param file File with one swipe per line.
+   * @param splitThreshold Size in bytes above which a part of the file is split in two for parallel
+   *     parsing.
+   * @return Reader for the file, which needs to be closed.
+   * @throws IOException On an exception opening the file.
+   */
+  public static TrackFileReader open(final Path file, final long splitThreshold)
+      throws IOException {
+    requireNonNull(file, "No file provided");
+    if (splitThreshold <= 0) {
+      throw new IllegalArgumentException("Split threshold needs to be positive");
+    }
+    return new TrackFileReader(FileChannel.open(file, StandardOpenOption.READ), splitThreshold);
+  }
+
+  private final FileChannel channel;
+  private final long size;
+  private final long splitThreshold;
+
+  private TrackFileReader(final FileChannel channel, final long splitThreshold)
+      throws IOException {
+    this.channel = channel;
+    this.splitThreshold = splitThreshold;
+    size = channel.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Iterates over parsed tracks, one for each line of the file.
+   *
+   * @return Lazy iterator of parsed tracks.
+   */
+  @Override
+  public Iterator<BankCardMagneticTrack> iterator() {
+    return Spliterators.iterator(spliterator());
+  }
+
+  /**
+   * Streams masked track data in parallel, one for each line of the file, in file order. The
+   * complete primary account numbers never exist as strings.
+   *
+   * @return Lazy parallel stream of masked track data.
+   */
+  public Stream<MaskedTrackData> maskedParallelStream() {
+    return StreamSupport.stream(new RecordSpliterator<>(0, size, MaskedTrackData::from), true);
+  }
+
+  /**
+   * Streams masked track data, one for each line of the file, in file order. The complete primary
+   * account numbers never exist as strings.
+   *
+   * @return Lazy stream of masked track data.
+   */
+  public Stream<MaskedTrackData> maskedStream() {
+    return StreamSupport.stream(new RecordSpliterator<>(0, size, MaskedTrackData::from), false);
+  }
+
+  /**
+   * Streams parsed tracks in parallel, one for each line of the file, in file order.
+   *
+   * @return Lazy parallel stream of parsed tracks.
+   */
+  public Stream<BankCardMagneticTrack> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
+  @Override
+  public Spliterator<BankCardMagneticTrack> spliterator() {
+    return new RecordSpliterator<>(0, size, BankCardMagneticTrack::from);
+  }
+
+  /**
+   * Streams parsed tracks, one for each line of the file, in file order.
+   *
+   * @return Lazy stream of parsed tracks.
+   */
+  public Stream<BankCardMagneticTrack> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /** Lines from a range of the file, mapped a window at a time. */
+  private final class RecordSpliterator<T> implements Spliterator<T> {
+
+    private final long end;
+    private final Function<ByteBuffer, T> parser;
+    private long position;
+    private boolean afterCarriageReturn;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    RecordSpliterator(final long start, final long end, final Function<ByteBuffer, T> parser) {
+      position = start;
+      this.end = end;
+      this.parser = parser;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | NONNULL;
+    }
+
+    @Override
+    public long estimateSize() {
+      return end - position;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+      if (afterCarriageReturn && position < end) {
+        // A line feed that follows a carriage return is part of the same line terminator
+        if (window(position).get((int) (position - windowStart)) == '\n') {
+          position++;
+        }
+        afterCarriageReturn = false;
+      }
+      if (position >= end) {
+        return false;
+      }
+
+      while (true) {
+        final ByteBuffer mapped = window(position);
+        final int recordStart = (int) (position - windowStart);
+        int index = recordStart;
+        while (index < mapped.limit() && !isLineTerminator(mapped.get(index))) {
+          index++;
+        }
+
+        if (index == mapped.limit() && windowStart + mapped.limit() < end) {
+          // The line continues past the window, so map a new window from the start of the line
+          if (recordStart == 0) {
+            throw new IllegalStateException(
+                String.format(
+                    "Line at offset %d is longer than %d bytes", position, MAXIMUM_WINDOW_SIZE));
+          }
+          this.window = null;
+          continue;
+        }
+
+        final ByteBuffer record = mapped.slice(recordStart, index - recordStart);
+        if (index < mapped.limit()) {
+          afterCarriageReturn = mapped.get(index) == '\r';
+          position = windowStart + index + 1;
+        } else {
+          position = windowStart + index;
+        }
+        action.accept(parser.apply(record));
+        return true;
+      }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+      if (end - position <= splitThreshold || afterCarriageReturn) {
+        return null;
+      }
+      final long boundary = lineBoundary(position + (end - position) / 2);
+      if (boundary >= end) {
+        return null;
+      }
+      final RecordSpliterator<T> prefix = new RecordSpliterator<>(position, boundary, parser);
+      position = boundary;
+      return prefix;
+    }
+
+    private boolean isLineTerminator(final byte ch) {
+      return ch == '\n' || ch == '\r';
+    }
+
+    /** Finds the start of the first line that starts after an offset, without mapping. */
+    private long lineBoundary(final long from) {
+      final ByteBuffer buffer = ByteBuffer.allocate(4096);
+      boolean carriageReturn = false;
+      long offset = from;
+      try {
+        while (offset < end) {
+          buffer.clear();
+          final int read = channel.read(buffer, offset);
+          if (read <= 0) {
+            break;
+          }
+          for (int i = 0; i < read; i++) {
+            final byte ch = buffer.get(i);
+            if (carriageReturn) {
+              return ch == '\n' ? offset + i + 1 : offset + i;
+            }
+            if (ch == '\n') {
+              return offset + i + 1;
+            }
+            carriageReturn = ch == '\r';
+          }
+          offset += read;
+        }
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return end;
+    }
+
+    /** Gets a mapped window of the file, that includes an offset. */
+    private ByteBuffer window(final long offset) {
+      if (window == null || offset < windowStart || offset >= windowStart + window.limit()) {
+        final long length = Math.min(end - offset, MAXIMUM_WINDOW_SIZE);
+        try {
+          window = channel.map(MapMode.READ_ONLY, offset, length);
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        windowStart = offset;
+      }
+      return window;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+/** Result of looking for one track in raw track data. */
+public enum TrackOutcome {
+
+  /** The track was found. */
+  Matched,
+
+  /** There was no sign of the track, such as its start sentinel. */
+  NotPresent,
+
+  /** The track was started, but could not be read. The reason is a {@link TrackFailure}. */
+  Malformed;
+}
@@ -0,0 +1,263 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Reactive stream processor that parses swipes into tracks, for one subscriber. Demand is passed
+ * upstream as it is requested, so the processor never holds more swipes than the subscriber has
+ * asked for. Swipes are parsed on an executor, in batches of as many swipes as have arrived and
+ * are in demand, and tracks are delivered in the same order as the swipes.
+ *
+ * <p>A swipe that cannot be parsed does not end the stream. It is reported to a failure handler,
+ * together with the exception, and another swipe is requested in its place.
+ *
+ * @param <T> Type of raw track data.
+ */
+public final class TrackProcessor<T> implements Flow.Processor<T, BankCardMagneticTrack> {
+
+  /**
+   * Creates a processor for ASCII bytes of raw track data.
+   *
+   * @param executor Executor to parse on.
+   * @param onFailure Handler for swipes that could not be parsed.
+   * @return Processor.
+   */
+  public static TrackProcessor<byte[]> forBytes(
+      final Executor executor,
+      final BiConsumer<? super byte[], ? super RuntimeException> onFailure) {
+    return new TrackProcessor<>(
+        bytes -> BankCardMagneticTrack.from(bytes, 0, bytes.length), executor, onFailure);
+  }
+
+  /**
+   * Creates a processor for raw track data strings.
+   *
+   * @param executor Executor to parse on.
+   * @param onFailure Handler for swipes that could not be parsed.
+   * @return Processor.
+   */
+  public static TrackProcessor<String> forStrings(
+      final Executor executor,
+      final BiConsumer<? super String, ? super RuntimeException> onFailure) {
+    return new TrackProcessor<>(BankCardMagneticTrack::from, executor, onFailure);
+  }
+
+  private static long addCap(final long a, final long b) {
+    final long sum = a + b;
+    return sum < 0 ? Long.MAX_VALUE : sum;
+  }
+
+  private final Function<T, BankCardMagneticTrack> parser;
+  private final Executor executor;
+  private final BiConsumer<? super T, ? super RuntimeException> onFailure;
+
+  private final Queue<T> swipes = new ConcurrentLinkedQueue<>();
+  private final AtomicLong demand = new AtomicLong();
+  private final AtomicInteger work = new AtomicInteger();
+
+  private Flow.Subscription upstream;
+  private long pendingRequests;
+  private volatile Flow.Subscriber<? super BankCardMagneticTrack> downstream;
+  private volatile boolean cancelled;
+  private volatile boolean done;
+  private volatile Throwable error;
+  private boolean terminated;
+
+  private TrackProcessor(
+      final Function<T, BankCardMagneticTrack> parser,
+      final Executor executor,
+      final BiConsumer<? super T, ? super RuntimeException> onFailure) {
+    this.parser = parser;
+    this.executor = requireNonNull(executor, "No executor provided");
+    this.onFailure = requireNonNull(onFailure, "No failure handler provided");
+  }
+
+  @Override
+  public void onComplete() {
+    done = true;
+    schedule();
+  }
+
+  @Override
+  public void onError(final Throwable throwable) {
+    requireNonNull(throwable, "No error provided");
+    error = throwable;
+    done = true;
+    schedule();
+  }
+
+  @Override
+  public void onNext(final T item) {
+    requireNonNull(item, "No raw track data provided");
+    swipes.offer(item);
+    schedule();
+  }
+
+  @Override
+  public void onSubscribe(final Flow.Subscription subscription) {
+    requireNonNull(subscription, "No subscription provided");
+    final long requests;
+    synchronized (this) {
+      if (upstream != null || cancelled) {
+        subscription.cancel();
+        return;
+      }
+      upstream = subscription;
+      requests = pendingRequests;
+      pendingRequests = 0;
+    }
+    if (requests > 0) {
+      subscription.request(requests);
+    }
+  }
+
+  @Override
+  public void subscribe(final Flow.Subscriber<? super BankCardMagneticTrack> subscriber) {
+    requireNonNull(subscriber, "No subscriber provided");
+    final boolean first;
+    synchronized (this) {
+      first = downstream == null;
+      if (first) {
+        downstream = subscriber;
+      }
+    }
+    if (first) {
+      subscriber.onSubscribe(new TrackSubscription());
+      // Deliver completion or an error that arrived before there was a subscriber
+      schedule();
+      return;
+    }
+    subscriber.onSubscribe(
+        new Flow.Subscription() {
+          @Override
+          public void cancel() {
+            // Nothing to cancel
+          }
+
+          @Override
+          public void request(final long n) {
+            // Nothing to request
+          }
+        });
+    subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+  }
+
+  private void cancelUpstream() {
+    final Flow.Subscription subscription;
+    synchronized (this) {
+      subscription = upstream;
+    }
+    if (subscription != null) {
+      subscription.cancel();
+    }
+  }
+
+  /** Parses swipes that are in demand, and delivers them in order. */
+  private void drain() {
+    int missed = 1;
+    do {
+      final Flow.Subscriber<? super BankCardMagneticTrack> subscriber = downstream;
+      final long requested = demand.get();
+      long delivered = 0;
+      while (delivered != requested && !cancelled && error == null) {
+        final T swipe = swipes.poll();
+        if (swipe == null) {
+          break;
+        }
+        final BankCardMagneticTrack track;
+        try {
+          track = parser.apply(swipe);
+        } catch (final RuntimeException e) {
+          onFailure.accept(swipe, e);
+          requestUpstream(1);
+          continue;
+        }
+        subscriber.onNext(track);
+        delivered++;
+      }
+      if (delivered > 0 && requested != Long.MAX_VALUE) {
+        demand.addAndGet(-delivered);
+      }
+
+      if (cancelled) {
+        swipes.clear();
+      } else if (!terminated && done && (error != null || swipes.isEmpty())) {
+        terminated = true;
+        swipes.clear();
+        if (error != null) {
+          subscriber.onError(error);
+        } else {
+          subscriber.onComplete();
+        }
+      }
+      missed = work.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void requestUpstream(final long n) {
+    final Flow.Subscription subscription;
+    synchronized (this) {
+      subscription = upstream;
+      if (subscription == null) {
+        pendingRequests = addCap(pendingRequests, n);
+        return;
+      }
+    }
+    subscription.request(n);
+  }
+
+  private void schedule() {
+    if (downstream == null || work.getAndIncrement() != 0) {
+      return;
+    }
+    try {
+      executor.execute(this::drain);
+    } catch (final RejectedExecutionException e) {
+      cancelled = true;
+      cancelUpstream();
+      downstream.onError(e);
+    }
+  }
+
+  private final class TrackSubscription implements Flow.Subscription {
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      cancelUpstream();
+      schedule();
+    }
+
+    @Override
+    public void request(final long n) {
+      if (cancelled) {
+        return;
+      }
+      if (n <= 0) {
+        cancelUpstream();
+        onError(new IllegalArgumentException("Requested " + n + " tracks, which is not positive"));
+        return;
+      }
+      demand.getAndAccumulate(n, TrackProcessor::addCap);
+      requestUpstream(n);
+      schedule();
+    }
+  }
+}
@@ -0,0 +1,705 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * Linear-time scanner for raw magnetic track data. Finds the sentinels and field separators of a
+ * track without backtracking, and reports the fields as numbered groups, in the same way as the
+ * regular expressions that were previously used to parse each track.
+ *
+ * <p>Surrounding whitespace is trimmed the same way as {@link String#trim()}, and the positions
+ * of line terminators and track sentinels are noted in a single pass when the scanner is created
+ * or reset, so that all three tracks can be located from one scanner without re-reading the input.
+ *
+ * <p>Input that is longer than {@link ParseLimits#getMaximumInputLength()} is rejected without
+ * reading it, and each track is rejected as soon as it is longer than its maximum length, so a scan
+ * takes time that is linear in the length of the input, and bounded by the maximum input length.
+ */
+final class TrackScanner {
+
+  private static final int MAX_GROUPS = 8;
+
+  private static boolean isDigit(final char ch) {
+    return ch >= '0' && ch <= '9';
+  }
+
+  /** Line terminators, as understood by "." in a regular expression. */
+  private static boolean isLineTerminator(final char ch) {
+    return ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+  }
+
+  /** Whitespace that is allowed between tracks. */
+  private static boolean isTrackSeparator(final char ch) {
+    return ch == '\t' || ch == '\n' || ch == '\r' || ch == ' ';
+  }
+
+  private final int[] groupStart;
+  private final int[] groupEnd;
+  private int groupCount;
+
+  private CharSequence input;
+  private int maximumInputLength;
+  private int begin;
+  private int end;
+  private int firstLineTerminator;
+  private int lastLineTerminator;
+  private int lastEndSentinel;
+  private int lastTrack2StartSentinel;
+  private int firstTrack3StartSentinel;
+  private TrackOutcome outcome;
+  private TrackFailure failure;
+  private int failureOffset;
+  private CharSequenceView track1View;
+  private Track1Fields track1Fields;
+
+  /** Creates a scanner with no input, that can be reused by resetting it with new input. */
+  TrackScanner() {
+    groupStart = new int[MAX_GROUPS];
+    groupEnd = new int[MAX_GROUPS];
+    reset(null);
+  }
+
+  TrackScanner(final ByteBuffer input) {
+    this(input == null ? null : new AsciiCharSequence(input));
+  }
+
+  TrackScanner(final char[] input) {
+    this(input == null ? null : CharBuffer.wrap(input));
+  }
+
+  TrackScanner(final CharSequence input) {
+    this();
+    reset(input);
+  }
+
+  /**
+   * Gets a group from the last successful scan, in the same way as {@link
+   * BaseTrackData#getGroup(java.util.regex.Matcher, int)}.
+   *
+   * @param group Group number, starting from 1
+   * @return Group text, or null if the group is not present
+   */
+  String group(final int group) {
+    if (group <= 0 || group > groupCount || groupStart[group] < 0) {
+      return null;
+    }
+    return input.subSequence(groupStart[group], groupEnd[group]).toString();
+  }
+
+  /**
+   * Gets the start of a group from the last successful scan, relative to the start of the raw
+   * track, which is group 1.
+   *
+   * @param group Group number, starting from 1
+   * @return Start offset, or -1 if the group is not present
+   */
+  int start(final int group) {
+    if (group <= 0 || group > groupCount || groupStart[group] < 0) {
+      return -1;
+    }
+    return groupStart[group] - groupStart[1];
+  }
+
+  /**
+   * Gets the end of a group from the last successful scan, relative to the start of the raw track,
+   * which is group 1.
+   *
+   * @param group Group number, starting from 1
+   * @return End offset, or -1 if the group is not present
+   */
+  int end(final int group) {
+    if (group <= 0 || group > groupCount || groupStart[group] < 0) {
+      return -1;
+    }
+    return groupEnd[group] - groupStart[1];
+  }
+
+  /**
+   * Gets the reason that the last scan did not find a track that was started.
+   *
+   * @return Failure, or null if the track was found or not present
+   */
+  TrackFailure failure() {
+    return failure;
+  }
+
+  /**
+   * Gets the position in the input where the last scan found that a started track could not be
+   * read.
+   *
+   * @return Offset from the start of the input, including any surrounding whitespace, or -1 if the
+   *     track was found or not present
+   */
+  int failureOffset() {
+    return failureOffset;
+  }
+
+  /**
+   * Checks whether the input is longer than the maximum input length, so that it is not read.
+   *
+   * @return True if the input is too long
+   */
+  boolean isInputTooLong() {
+    return input.length() > maximumInputLength;
+  }
+
+  /**
+   * Gets the length of the input, including any surrounding whitespace.
+   *
+   * @return Input length
+   */
+  int length() {
+    return input.length();
+  }
+
+  /**
+   * Gets the result of the last scan.
+   *
+   * @return Outcome of the last scan, or null if nothing has been scanned since the last reset
+   */
+  TrackOutcome outcome() {
+    return outcome;
+  }
+
+  /**
+   * Gets a group from the last successful scan, as a private copy of the characters, without
+   * creating an intermediate string.
+   *
+   * @param group Group number, starting from 1
+   * @return Group data, which is empty if the group is not present
+   */
+  DisposableCharData groupData(final int group) {
+    if (group <= 0 || group > groupCount || groupStart[group] < 0) {
+      return new DisposableCharData(null);
+    }
+    return new DisposableCharData(input, groupStart[group], groupEnd[group]);
+  }
+
+  /**
+   * Gets a group from the last successful scan as a number, without creating a string.
+   *
+   * @param group Group number, starting from 1
+   * @return Number, or -1 if the group is not present, or is not all digits
+   */
+  int groupNumber(final int group) {
+    if (group <= 0 || group > groupCount || groupStart[group] < 0) {
+      return -1;
+    }
+    int number = 0;
+    for (int i = groupStart[group]; i < groupEnd[group]; i++) {
+      final char ch = input.charAt(i);
+      if (!isDigit(ch)) {
+        return -1;
+      }
+      number = number * 10 + ch - '0';
+    }
+    return number;
+  }
+
+  /**
+   * Points a reusable view at a group from the last successful scan, without copying it.
+   *
+   * @param group Group number, starting from 1
+   * @param view View to reuse
+   * @return The view, or null if the group is not present
+   */
+  CharSequence groupView(final int group, final CharSequenceView view) {
+    if (group <= 0 || group > groupCount || groupStart[group] < 0) {
+      return null;
+    }
+    view.reset(input, groupStart[group], groupEnd[group]);
+    return view;
+  }
+
+  /**
+   * Resets the scanner with new input. Surrounding whitespace is trimmed, and line terminators and
+   * track sentinels are noted in a single pass over the input. Input that is longer than the
+   * maximum input length is not read at all.
+   *
+   * @param input Raw track data, which can be null
+   */
+  void reset(final CharSequence input) {
+    if (input == null) {
+      this.input = "";
+    } else {
+      this.input = input;
+    }
+    maximumInputLength = ParseLimits.getMaximumInputLength();
+
+    int begin = 0;
+    int end = this.input.length();
+    if (end > maximumInputLength) {
+      // Nothing is read, so every track is rejected
+      end = 0;
+    }
+    while (begin < end && this.input.charAt(begin) <= ' ') {
+      begin++;
+    }
+    while (end > begin && this.input.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    this.begin = begin;
+    this.end = end;
+
+    int firstLineTerminator = end;
+    int lastLineTerminator = -1;
+    int lastEndSentinel = -1;
+    int lastTrack2StartSentinel = -1;
+    int firstTrack3StartSentinel = -1;
+    for (int i = begin; i < end; i++) {
+      final char ch = this.input.charAt(i);
+      if (isLineTerminator(ch)) {
+        if (firstLineTerminator == end) {
+          firstLineTerminator = i;
+        }
+        lastLineTerminator = i;
+        // Track 3 cannot span lines, so only a start sentinel after the last line counts
+        firstTrack3StartSentinel = -1;
+      } else if (ch == '?') {
+        lastEndSentinel = i;
+      } else if (ch == ';') {
+        lastTrack2StartSentinel = i;
+      } else if (ch == '+' && firstTrack3StartSentinel == -1) {
+        firstTrack3StartSentinel = i;
+      }
+    }
+    this.firstLineTerminator = firstLineTerminator;
+    this.lastLineTerminator = lastLineTerminator;
+    this.lastEndSentinel = lastEndSentinel;
+    this.lastTrack2StartSentinel = lastTrack2StartSentinel;
+    this.firstTrack3StartSentinel = firstTrack3StartSentinel;
+
+    groupCount = 0;
+    outcome = null;
+    failure = null;
+    failureOffset = -1;
+  }
+
+  /**
+   * Scans for track 1 data, which needs to be at the start of the input. Groups are the raw track,
+   * format code, primary account number, name, expiration date, service code, and discretionary
+   * data. The layout of the fields is chosen by the format code, from the formats that are
+   * registered with {@link Track1Formats}.
+   *
+   * @return True if track 1 data was found
+   */
+  boolean scanTrack1() {
+    clearGroups(7);
+    if (isInputTooLong()) {
+      return fail(TrackFailure.InputTooLong, maximumInputLength);
+    }
+
+    int i = begin;
+    final boolean startSentinel = i < end && input.charAt(i) == '%';
+    if (startSentinel) {
+      i++;
+    }
+
+    // Format code
+    if (i >= end || input.charAt(i) < 'A' || input.charAt(i) > 'Z') {
+      return fail(startSentinel ? TrackFailure.InvalidFormatCode : null, i);
+    }
+    final Track1Format format = Track1Formats.format(input.charAt(i));
+    if (format == null) {
+      return fail(startSentinel ? TrackFailure.UnsupportedFormatCode : null, i);
+    }
+    setGroup(2, i, i + 1);
+    i++;
+
+    int j;
+    if (format == Track1Formats.FORMAT_B) {
+      j = scanFormatB(i);
+    } else {
+      j = scanFormat(format, i);
+    }
+    if (j < 0) {
+      return false;
+    }
+    setGroup(1, begin, j);
+
+    // Allow for whitespace, and then any other tracks on the same line
+    for (int k = 0; k < 2 && j < end && isTrackSeparator(input.charAt(j)); k++) {
+      j++;
+    }
+    if (lastLineTerminator >= j) {
+      return fail(TrackFailure.InvalidPosition, begin);
+    }
+    return match();
+  }
+
+  /**
+   * Scans the fields of track 1 data in format "B", after the format code.
+   *
+   * @param start Start of the primary account number
+   * @return End of the track, after any end sentinel, or -1 if the track could not be read
+   */
+  int scanFormatB(final int start) {
+    // Primary account number, up to 19 digits
+    int i = start;
+    final int panStart = i;
+    i = skipDigits(i, 20);
+    if (i == panStart) {
+      return failAt(TrackFailure.InvalidAccountNumber, i);
+    }
+    if (i - panStart > 19) {
+      return failAt(TrackFailure.AccountNumberTooLong, panStart + 19);
+    }
+    if (!isAt(i, '^')) {
+      return failAt(TrackFailure.InvalidSeparator, i);
+    }
+    setGroup(3, panStart, i);
+    i++;
+
+    // Name, 2 to 26 characters
+    final int nameStart = i;
+    int nameLength = 0;
+    while (i < end && input.charAt(i) != '^' && nameLength < 26) {
+      if (Character.isHighSurrogate(input.charAt(i))
+          && i + 1 < end
+          && Character.isLowSurrogate(input.charAt(i + 1))) {
+        i++;
+      }
+      i++;
+      nameLength++;
+    }
+    if (i >= end) {
+      return failAt(TrackFailure.InvalidSeparator, i);
+    }
+    if (nameLength < 2) {
+      return failAt(TrackFailure.InvalidName, nameStart);
+    }
+    if (input.charAt(i) != '^') {
+      return failAt(TrackFailure.InvalidName, i);
+    }
+    setGroup(4, nameStart, i);
+    i++;
+
+    // Expiration date, 4 digits or "^"
+    final int expirationDateEnd = skipDigits(i, 4);
+    if (expirationDateEnd - i == 4) {
+      setGroup(5, i, i + 4);
+      i = i + 4;
+    } else if (isAt(i, '^')) {
+      setGroup(5, i, i + 1);
+      i++;
+    } else {
+      return failAt(TrackFailure.InvalidExpirationDate, expirationDateEnd);
+    }
+
+    // Service code, 3 digits or "^", if present
+    if (skipDigits(i, 3) - i == 3) {
+      setGroup(6, i, i + 3);
+      i = i + 3;
+    } else if (isAt(i, '^')) {
+      setGroup(6, i, i + 1);
+      i++;
+    }
+
+    // Discretionary data, up to the end sentinel
+    final int j = findTrack1End(i);
+    if (j < 0) {
+      return -1;
+    }
+    final int discretionaryDataEnd = j > i && input.charAt(j - 1) == '?' ? j - 1 : j;
+    if (discretionaryDataEnd > i) {
+      setGroup(7, i, discretionaryDataEnd);
+    }
+    return j;
+  }
+
+  /**
+   * Scans the fields of track 1 data in format "B" in a track on its own, for when the format is
+   * called directly rather than from {@link #scanTrack1()}.
+   *
+   * @param track Track data after the format code, up to but not including the end sentinel
+   * @param fields Fields of the track that is being scanned
+   * @return True if the fields were found
+   */
+  boolean scanFormatB(final CharSequence track, final Track1Fields fields) {
+    input = track;
+    begin = 0;
+    end = track.length();
+    clearGroups(7);
+    if (scanFormatB(0) < 0) {
+      return fields.fail(failure, failureOffset);
+    }
+    for (int group = 3; group <= 7; group++) {
+      if (groupStart[group] >= 0) {
+        fields.setGroup(group, groupStart[group], groupEnd[group]);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Scans for track 2 data, anywhere in the input, favoring the last start sentinel. Groups are the
+   * raw track, primary account number, expiration date, service code, and discretionary data.
+   *
+   * @return True if track 2 data was found
+   */
+  boolean scanTrack2() {
+    clearGroups(5);
+    if (isInputTooLong()) {
+      return fail(TrackFailure.InputTooLong, maximumInputLength);
+    }
+
+    final int first;
+    if (firstLineTerminator == end) {
+      first = begin;
+    } else if (firstLineTerminator == lastLineTerminator
+        && isTrackSeparator(input.charAt(firstLineTerminator))) {
+      // Track 2 can start right after the only line break
+      first = firstLineTerminator + 1;
+    } else {
+      return fail(
+          lastTrack2StartSentinel == -1 ? null : TrackFailure.InvalidPosition,
+          lastTrack2StartSentinel);
+    }
+    final int last;
+    if (firstLineTerminator == end) {
+      last = lastTrack2StartSentinel;
+    } else {
+      last = first;
+    }
+
+    fail(
+        lastTrack2StartSentinel == -1 ? null : TrackFailure.InvalidPosition,
+        lastTrack2StartSentinel);
+    for (int start = last; start >= first; start--) {
+      if (input.charAt(start) == ';' && scanTrack2At(start)) {
+        return match();
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Scans for track 3 data, at the end of the input, favoring the first start sentinel. Groups are
+   * the raw track, and discretionary data.
+   *
+   * @return True if track 3 data was found
+   */
+  boolean scanTrack3() {
+    clearGroups(2);
+    if (isInputTooLong()) {
+      return fail(TrackFailure.InputTooLong, maximumInputLength);
+    }
+
+    if (end - begin < 2 || input.charAt(end - 1) != '?') {
+      return fail(firstTrack3StartSentinel == -1 ? null : TrackFailure.MissingEndSentinel, end);
+    }
+
+    // Track 3 cannot span lines, but can follow a line break
+    final int start = firstTrack3StartSentinel;
+    int last;
+    if (firstLineTerminator == end) {
+      last = end - 2;
+    } else {
+      last = firstLineTerminator;
+      while (last < end && last - firstLineTerminator < 2 && isTrackSeparator(input.charAt(last))) {
+        last++;
+      }
+      last = Math.min(last, end - 2);
+    }
+
+    if (start == -1) {
+      return fail(null, -1);
+    }
+    if (start > last) {
+      return fail(TrackFailure.InvalidPosition, start);
+    }
+    if (end - start > Track3.MAXIMUM_LENGTH) {
+      return fail(TrackFailure.TrackTooLong, start + Track3.MAXIMUM_LENGTH);
+    }
+    setGroup(1, start, end);
+    setGroup(2, start + 1, end - 1);
+    return match();
+  }
+
+  private void clearGroups(final int count) {
+    groupCount = count;
+    for (int i = 0; i <= count; i++) {
+      groupStart[i] = -1;
+      groupEnd[i] = -1;
+    }
+  }
+
+  /**
+   * Notes that a scan did not find a track.
+   *
+   * @param failure Reason that a started track could not be read, or null if it was not present
+   * @param offset Position in the input where the track could not be read
+   * @return False, always
+   */
+  boolean fail(final TrackFailure failure, final int offset) {
+    this.failure = failure;
+    if (failure == null) {
+      outcome = TrackOutcome.NotPresent;
+      failureOffset = -1;
+    } else {
+      outcome = TrackOutcome.Malformed;
+      failureOffset = offset;
+    }
+    return false;
+  }
+
+  /**
+   * Finds the end of track 1 data, after the end sentinel if there is one, without reading more
+   * than the maximum length of the track.
+   *
+   * @param start Position in the track data to start looking from
+   * @return End of the track, or -1 if the track is too long
+   */
+  private int findTrack1End(final int start) {
+    final int limit = begin + Track1FormatB.MAXIMUM_LENGTH;
+    int j = start;
+    while (j < end && input.charAt(j) != '?') {
+      if (j >= limit) {
+        return failAt(TrackFailure.TrackTooLong, limit);
+      }
+      j++;
+    }
+    if (j < end) {
+      j++;
+    }
+    if (j > limit) {
+      return failAt(TrackFailure.TrackTooLong, limit);
+    }
+    return j;
+  }
+
+  /**
+   * Notes that a scan could not read a track that was started.
+   *
+   * @param failure Reason that the track could not be read
+   * @param offset Position in the input where the track could not be read
+   * @return -1, always
+   */
+  private int failAt(final TrackFailure failure, final int offset) {
+    fail(failure, offset);
+    return -1;
+  }
+
+  private boolean isAt(final int index, final char ch) {
+    return index < end && input.charAt(index) == ch;
+  }
+
+  /**
+   * Notes that a scan found a track.
+   *
+   * @return True, always
+   */
+  private boolean match() {
+    failure = null;
+    failureOffset = -1;
+    outcome = TrackOutcome.Matched;
+    return true;
+  }
+
+  private boolean scanTrack2At(final int start) {
+    // Primary account number, up to 19 digits
+    final int panStart = start + 1;
+    final int panEnd = skipDigits(panStart, 20);
+    if (panEnd == panStart) {
+      return fail(TrackFailure.InvalidAccountNumber, panEnd);
+    }
+    if (panEnd - panStart > 19) {
+      return fail(TrackFailure.AccountNumberTooLong, panStart + 19);
+    }
+    if (!isAt(panEnd, '=')) {
+      return fail(TrackFailure.InvalidSeparator, panEnd);
+    }
+
+    // Expiration date, and service code
+    final int expirationDateStart = panEnd + 1;
+    final int discretionaryDataStart = expirationDateStart + 7;
+    final int digitsEnd = skipDigits(expirationDateStart, 7);
+    if (digitsEnd != discretionaryDataStart) {
+      return fail(
+          digitsEnd < expirationDateStart + 4
+              ? TrackFailure.InvalidExpirationDate
+              : TrackFailure.InvalidServiceCode,
+          digitsEnd);
+    }
+
+    // Discretionary data runs up to the first end sentinel, so that track 2 never takes in a track
+    // that follows it on the same line
+    if (lastEndSentinel < discretionaryDataStart) {
+      return fail(TrackFailure.MissingEndSentinel, end);
+    }
+    final int limit = Math.min(end, start + Track2.MAXIMUM_LENGTH);
+    int endSentinel = discretionaryDataStart;
+    while (endSentinel < limit && input.charAt(endSentinel) != '?') {
+      endSentinel++;
+    }
+    if (endSentinel == limit) {
+      return fail(TrackFailure.TrackTooLong, start + Track2.MAXIMUM_LENGTH);
+    }
+
+    setGroup(1, start, endSentinel + 1);
+    setGroup(2, panStart, panEnd);
+    setGroup(3, expirationDateStart, expirationDateStart + 4);
+    setGroup(4, expirationDateStart + 4, discretionaryDataStart);
+    setGroup(5, discretionaryDataStart, endSentinel);
+    return true;
+  }
+
+  /**
+   * Scans the fields of track 1 data with a registered format, up to the end sentinel.
+   *
+   * @param format Format for the format code
+   * @param start Start of the track data after the format code
+   * @return End of the track, after any end sentinel, or -1 if the track could not be read
+   */
+  private int scanFormat(final Track1Format format, final int start) {
+    final int trackEnd = findTrack1End(start);
+    if (trackEnd < 0) {
+      return -1;
+    }
+    final int dataEnd =
+        trackEnd > start && input.charAt(trackEnd - 1) == '?' ? trackEnd - 1 : trackEnd;
+
+    if (track1View == null) {
+      track1View = new CharSequenceView();
+      track1Fields = new Track1Fields(this);
+    }
+    track1View.reset(input, start, dataEnd);
+    track1Fields.reset(start, dataEnd - start);
+    outcome = null;
+    final boolean found;
+    try {
+      found = format.scan(track1View, track1Fields);
+    } finally {
+      track1View.clear();
+    }
+    if (!found) {
+      if (outcome != TrackOutcome.Malformed) {
+        // The format did not note a reason, so the data is not a track in this format
+        fail(null, -1);
+      }
+      return -1;
+    }
+    return trackEnd;
+  }
+
+  void setGroup(final int group, final int start, final int end) {
+    groupStart[group] = start;
+    groupEnd[group] = end;
+  }
+
+  private int skipDigits(final int start, final int maxDigits) {
+    int i = start;
+    while (i < end && i - start < maxDigits && isDigit(input.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+/**
+ * Receives the fields of each track that {@link MagneticTrackParser} finds, in track order. Only
+ * fields that are present are reported. Every method does nothing by default, so a visitor only
+ * needs to implement the fields it uses.
+ *
+ * <p>Character sequences are views of the input that are reused for the next field, so they are
+ * only valid until the method returns. Copy a field if it is needed after that, preferably into a
+ * character array that can be overwritten when it is no longer needed.
+ */
+public interface TrackVisitor {
+
+  /**
+   * Called with the discretionary data of a track.
+   *
+   * @param track Track number, 1, 2 or 3
+   * @param discretionaryData Discretionary data
+   */
+  default void onDiscretionary(final int track, final CharSequence discretionaryData) {
+    // No-op by default
+  }
+
+  /**
+   * Called with the expiration date of track 1 or track 2, exactly as it is encoded on the track,
+   * so it may not be a valid date.
+   *
+   * @param track Track number, 1 or 2
+   * @param yymm Expiration date, as a number of the form YYMM
+   */
+  default void onExpiration(final int track, final int yymm) {
+    // No-op by default
+  }
+
+  /**
+   * Called with the format code of track 1, usually "B".
+   *
+   * @param formatCode Format code
+   */
+  default void onFormatCode(final char formatCode) {
+    // No-op by default
+  }
+
+  /**
+   * Called with the cardholder's name from track 1, exactly as it is encoded on the track.
+   *
+   * @param name Cardholder's name
+   */
+  default void onName(final CharSequence name) {
+    // No-op by default
+  }
+
+  /**
+   * Called with the primary account number from track 1 or track 2.
+   *
+   * @param track Track number, 1 or 2
+   * @param pan Primary account number digits
+   */
+  default void onPan(final int track, final CharSequence pan) {
+    // No-op by default
+  }
+
+  /**
+   * Called with the service code of track 1 or track 2, exactly as it is encoded on the track.
+   *
+   * @param track Track number, 1 or 2
+   * @param serviceCode Service code, as a three digit number
+   */
+  default void onServiceCode(final int track, final int serviceCode) {
+    // No-op by default
+  }
+
+  /**
+   * Called when a track is found, before any of its fields.
+   *
+   * @param track Track number, 1, 2 or 3
+   * @param rawTrackData Raw track data, including the sentinels
+   */
+  default void onTrack(final int track, final CharSequence rawTrackData) {
+    // No-op by default
+  }
+}
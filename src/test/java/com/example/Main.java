@@ -7,47 +7,52 @@
  */
 package com.example;
 
-import static org.apache.commons.lang3.StringUtils.isBlank;
-import static org.apache.commons.lang3.math.NumberUtils.toInt;
-
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 
-import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.KeyboardWedgeParser;
 
-/** Magnetic Track Parser console application. */
+/**
+ * Magnetic Track Parser console application, for keyboard-wedge card readers. Track 2 is shown as
+ * soon as it has been typed, which is when authorization could start, and the complete swipe is
+ * shown after a blank line. Enter 0 on a line of its own to quit.
+ */
 public class Main {
 
   public static void main(final String[] args) throws Exception {
 
-    final BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
-
-    while (true) {
-      System.out.println("** Press <Ctrl-C> to quit **");
-      parseMagneticTrackData(in);
-    }
+    final Reader in = new InputStreamReader(System.in);
+    final KeyboardWedgeParser parser =
+        new KeyboardWedgeParser(
+            track -> System.out.println("Track 2 read: " + track.getTrack2()),
+            track -> {
+              System.out.println(track);
+              System.out.println("Magnetic Track (followed by a blank line): ");
+            });
+
+    System.out.println("** Enter 0, or press <Ctrl-D>, to quit **");
+    System.out.println("Magnetic Track (followed by a blank line): ");
+    parseMagneticTrackData(in, parser);
+    parser.flush();
   }
 
-  private static void parseMagneticTrackData(final BufferedReader in) throws IOException {
-    while (true) {
-      System.out.println("Magnetic Track (followed by a blank line): ");
-      final StringBuilder buffer = new StringBuilder();
-      while (true) {
-        final String line = in.readLine();
-        final int choice = toInt(line, -1);
-        if (choice == 0) {
+  private static void parseMagneticTrackData(final Reader in, final KeyboardWedgeParser parser)
+      throws IOException {
+    int ch;
+    int lineLength = 0;
+    boolean zero = false;
+    while ((ch = in.read()) != -1) {
+      if (ch == '\n' || ch == '\r') {
+        if (lineLength == 1 && zero) {
           return;
         }
-
-        if (!isBlank(line)) {
-          buffer.append(line);
-        } else {
-          final BankCardMagneticTrack track = BankCardMagneticTrack.from(buffer.toString());
-          System.out.println(track);
-          break;
-        }
+        lineLength = 0;
+      } else {
+        lineLength++;
+        zero = ch == '0';
       }
+      parser.accept((char) ch);
     }
   }
 }
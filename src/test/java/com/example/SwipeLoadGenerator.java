@@ -0,0 +1,140 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package com.example;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load generator for the {@link SwipeServer}. Opens many concurrent card reader connections, waits
+ * until they are all open, and then sends swipes on every connection, one at a time, timing each
+ * reply. Prints the throughput, and the latency percentiles.
+ *
+ * <p>Arguments are the number of connections (default 10000), the number of swipes for each
+ * connection (default 100), and the port of a running server. Without a port, a server is started
+ * in the same process.
+ */
+public class SwipeLoadGenerator {
+
+  private static final byte[][] swipes = {
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?\n"
+        .getBytes(US_ASCII),
+    "%B379580832431161^ /                        ^1508121140165241?;379580832431161=150812114016524100000?+6202408082356005=15046200000010000000000004976?\n"
+        .getBytes(US_ASCII),
+    ";5350290149345177=16042010000056700100?\n".getBytes(US_ASCII),
+    "not a card swipe\n".getBytes(US_ASCII),
+  };
+
+  public static void main(final String[] args) throws Exception {
+    final int connections = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    final int swipesPerConnection = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+    if (args.length > 2) {
+      run(Integer.parseInt(args[2]), connections, swipesPerConnection);
+      return;
+    }
+    try (SwipeServer server = new SwipeServer(0)) {
+      final Thread acceptor = new Thread(() -> runServer(server), "swipe-server");
+      acceptor.setDaemon(true);
+      acceptor.start();
+      run(server.getPort(), connections, swipesPerConnection);
+    }
+  }
+
+  private static void run(final int port, final int connections, final int swipesPerConnection)
+      throws Exception {
+    final long[] latencies = new long[connections * swipesPerConnection];
+    final AtomicInteger errors = new AtomicInteger();
+    final CountDownLatch connected = new CountDownLatch(connections);
+    final CountDownLatch start = new CountDownLatch(1);
+
+    final ExecutorService clients = SwipeServer.newThreadPerTaskExecutor();
+    final List<Future<?>> results = new ArrayList<>(connections);
+    for (int i = 0; i < connections; i++) {
+      final int connection = i;
+      results.add(
+          clients.submit(
+              () -> {
+                try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                  socket.setTcpNoDelay(true);
+                  final OutputStream out = socket.getOutputStream();
+                  final BufferedReader in =
+                      new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
+                  connected.countDown();
+                  start.await();
+
+                  for (int j = 0; j < swipesPerConnection; j++) {
+                    final long startTime = System.nanoTime();
+                    out.write(swipes[(connection + j) % swipes.length]);
+                    out.flush();
+                    final String reply = in.readLine();
+                    latencies[connection * swipesPerConnection + j] =
+                        System.nanoTime() - startTime;
+                    if (reply == null || reply.isEmpty()) {
+                      errors.incrementAndGet();
+                    }
+                  }
+                } catch (final IOException e) {
+                  errors.incrementAndGet();
+                  connected.countDown();
+                }
+                return null;
+              }));
+    }
+
+    if (!connected.await(2, TimeUnit.MINUTES)) {
+      System.out.println("Timed out connecting");
+    }
+    System.out.printf("%d connections open%n", connections);
+    final long startTime = System.nanoTime();
+    start.countDown();
+    for (final Future<?> result : results) {
+      result.get();
+    }
+    final long elapsed = System.nanoTime() - startTime;
+    clients.shutdown();
+
+    Arrays.sort(latencies);
+    System.out.printf(
+        "%d swipes in %.2f s, %.0f swipes/s, %d errors%n",
+        latencies.length, elapsed / 1e9, latencies.length / (elapsed / 1e9), errors.get());
+    System.out.printf(
+        "Latency p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms%n",
+        percentile(latencies, 0.50),
+        percentile(latencies, 0.99),
+        percentile(latencies, 0.999),
+        latencies[latencies.length - 1] / 1e6);
+  }
+
+  private static double percentile(final long[] sortedLatencies, final double percentile) {
+    final int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+    return sortedLatencies[Math.max(0, index)] / 1e6;
+  }
+
+  private static void runServer(final SwipeServer server) {
+    try {
+      server.run();
+    } catch (final IOException e) {
+      e.printStackTrace();
+    }
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package com.example;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import us.fatehi.creditcardnumber.ExpirationDate;
+import us.fatehi.creditcardnumber.ServiceCode;
+import us.fatehi.magnetictrack.MaskedTrackData;
+import us.fatehi.magnetictrack.ParseLimits;
+
+/**
+ * Swipe ingestion server, which accepts card reader connections on a local TCP socket. Each line
+ * that a card reader sends is one swipe, and the server replies with one line, which is a masked
+ * summary of the swipe:
+ *
+ * <pre>
+ * OK &lt;tracks&gt; &lt;masked account number&gt; &lt;expiration date&gt; &lt;service code&gt;
+ * </pre>
+ *
+ * <p>For example, "OK 12 535029******5177 2016-04 201" for a swipe with tracks 1 and 2. Fields that
+ * are not on the card are "-", and a line without any tracks gets "NONE". A line that is longer
+ * than the {@link ParseLimits#getMaximumInputLength() maximum input length} closes the connection.
+ *
+ * <p>Each connection is handled on its own thread. On Java 21 or later, these are virtual threads,
+ * so the server can hold many thousands of idle card reader connections. On earlier versions of
+ * Java, they are platform threads.
+ */
+public class SwipeServer implements Closeable {
+
+  /** Default port, after ISO/IEC 7813. */
+  public static final int DEFAULT_PORT = 7813;
+
+  public static void main(final String[] args) throws Exception {
+    final int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+    try (SwipeServer server = new SwipeServer(port)) {
+      System.out.println("Listening on " + server.getPort() + " - press <Ctrl-C> to quit");
+      server.run();
+    }
+  }
+
+  /**
+   * Creates an executor that runs each task on a new virtual thread, on Java 21 or later, or on a
+   * pooled platform thread otherwise.
+   *
+   * @return Executor for connections
+   */
+  static ExecutorService newThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (final ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool();
+    }
+  }
+
+  /**
+   * Summarizes a swipe, without the full account number.
+   *
+   * @param rawTrackData One line of raw track data, as ASCII bytes
+   * @return Masked summary of the swipe
+   */
+  static String summarize(final ByteBuffer rawTrackData) {
+    final MaskedTrackData masked = MaskedTrackData.from(rawTrackData);
+
+    final StringBuilder tracks = new StringBuilder(3);
+    if (masked.getTrack1() != null) {
+      tracks.append('1');
+    }
+    if (masked.getTrack2() != null) {
+      tracks.append('2');
+    }
+    if (masked.getTrack3() != null) {
+      tracks.append('3');
+    }
+    if (tracks.length() == 0) {
+      return "NONE";
+    }
+
+    // The expiration date and service code come from the same parse, which never copies out the
+    // complete account number
+    final ExpirationDate expirationDate = masked.getExpirationDate();
+    final ServiceCode serviceCode = masked.getServiceCode();
+
+    final StringBuilder summary = new StringBuilder(64).append("OK ").append(tracks).append(' ');
+    if (masked.hasAccountNumber()) {
+      summary.append(masked.getAccountNumber());
+    } else {
+      summary.append('-');
+    }
+    summary.append(' ');
+    if (expirationDate.hasExpirationDate()) {
+      summary.append(expirationDate.getExpirationDate());
+    } else {
+      summary.append('-');
+    }
+    summary.append(' ');
+    if (serviceCode.hasServiceCode()) {
+      summary.append(serviceCode.getServiceCode());
+    } else {
+      summary.append('-');
+    }
+    return summary.toString();
+  }
+
+  private final ServerSocket serverSocket;
+  private final ExecutorService connections;
+  private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Creates a server on the loopback interface.
+   *
+   * @param port Port to listen on, or 0 for any free port
+   * @throws IOException On an exception opening the socket
+   */
+  public SwipeServer(final int port) throws IOException {
+    serverSocket = new ServerSocket(port, 4096, InetAddress.getLoopbackAddress());
+    connections = newThreadPerTaskExecutor();
+  }
+
+  /** Stops accepting connections, and closes connections that are open. */
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    connections.shutdownNow();
+    for (final Socket socket : sockets) {
+      socket.close();
+    }
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /** Accepts connections until the server is closed. */
+  public void run() throws IOException {
+    while (!serverSocket.isClosed()) {
+      final Socket socket;
+      try {
+        socket = serverSocket.accept();
+      } catch (final SocketException e) {
+        // Server was closed
+        return;
+      }
+      sockets.add(socket);
+      connections.execute(() -> handle(socket));
+    }
+  }
+
+  private void handle(final Socket socket) {
+    // A line longer than the parser reads is not a swipe, so the connection is closed
+    final byte[] buffer = new byte[ParseLimits.getMaximumInputLength()];
+    final ByteBuffer line = ByteBuffer.wrap(buffer);
+    try (socket;
+        InputStream in = new BufferedInputStream(socket.getInputStream());
+        Writer out =
+            new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), US_ASCII))) {
+      socket.setTcpNoDelay(true);
+      final LineReader lines = new LineReader(in);
+      while (lines.readLine(line)) {
+        out.write(summarize(line));
+        out.write('\n');
+        // Card readers that send several swipes at once get their replies together
+        if (in.available() == 0) {
+          out.flush();
+        }
+      }
+    } catch (final IOException e) {
+      // Card reader disconnected, or sent a line that is too long
+    } finally {
+      Arrays.fill(buffer, (byte) 0);
+      sockets.remove(socket);
+    }
+  }
+
+  /** Reader for lines that end with a carriage return, a line feed, or both. */
+  private static final class LineReader {
+
+    private final InputStream in;
+    private boolean afterCarriageReturn;
+
+    LineReader(final InputStream in) {
+      this.in = in;
+    }
+
+    /**
+     * Reads a line.
+     *
+     * @param line Buffer for the line, which is cleared first, and limits the length of the line
+     * @return False at the end of the input
+     * @throws IOException If the line is longer than the buffer, or on an exception reading
+     */
+    boolean readLine(final ByteBuffer line) throws IOException {
+      line.clear();
+      int b;
+      while ((b = in.read()) != -1) {
+        final boolean lineFeedAfterCarriageReturn = b == '\n' && afterCarriageReturn;
+        afterCarriageReturn = b == '\r';
+        if (lineFeedAfterCarriageReturn) {
+          continue;
+        }
+        if (b == '\r' || b == '\n') {
+          line.flip();
+          return true;
+        }
+        if (!line.hasRemaining()) {
+          throw new IOException("Line is longer than " + line.capacity() + " characters");
+        }
+        line.put((byte) b);
+      }
+      line.flip();
+      return line.hasRemaining();
+    }
+  }
+}
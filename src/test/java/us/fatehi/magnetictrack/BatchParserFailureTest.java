@@ -0,0 +1,51 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class BatchParserFailureTest {
+
+  @Test
+  public void failuresByIndex() {
+    final String[] swipes = new String[1_000];
+    for (int i = 0; i < swipes.length; i++) {
+      swipes[i] = i % 7 == 0 ? "fail" : ";5350290149345177=16042010000056700100?";
+    }
+
+    final BatchParseResult result =
+        BatchParser.parseAll(
+            swipes,
+            ForkJoinPool.commonPool(),
+            swipe -> {
+              if (swipe.equals("fail")) {
+                throw new IllegalArgumentException(swipe);
+              }
+              return BankCardMagneticTrack.from(swipe);
+            });
+
+    assertThat(result.hasFailures(), is(true));
+    assertThat(result.getFailures().size(), is(143));
+    for (int i = 0; i < swipes.length; i++) {
+      if (i % 7 == 0) {
+        assertThat(result.getTrack(i), is(nullValue()));
+        assertThat(result.getFailure(i).getMessage(), is("fail"));
+        assertThat(result.getFailures().containsKey(i), is(true));
+      } else {
+        assertThat(result.getTrack(i).getTrack2().hasAccountNumber(), is(true));
+        assertThat(result.getFailure(i), is(nullValue()));
+      }
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.creditcardnumber.CardBrand;
+
+public class LazyAccountNumberTest {
+
+  private static final String pan = "5350290149345177";
+
+  @Test
+  public void disposeBeforeFirstUse() {
+    final DisposableCharData rawAccountNumber = new DisposableCharData(pan);
+    final LazyAccountNumber accountNumber = new LazyAccountNumber(rawAccountNumber);
+    accountNumber.dispose();
+
+    // The digits are overwritten, and the complete account number was never created from them
+    assertThat(rawAccountNumber.hasData(), is(false));
+    assertThat(accountNumber.getCardBrand(), is(CardBrand.Unknown));
+    assertThat(accountNumber.hasAccountNumber(), is(false));
+    assertThat(accountNumber.getAccountNumber(), is(nullValue()));
+    assertThat(accountNumber.hasRawData(), is(false));
+  }
+
+  @Test
+  public void disposeAfterFirstUse() {
+    final LazyAccountNumber accountNumber = new LazyAccountNumber(new DisposableCharData(pan));
+    assertThat(accountNumber.getCardBrand(), is(CardBrand.MasterCard));
+    accountNumber.dispose();
+
+    assertThat(accountNumber.hasAccountNumber(), is(false));
+    assertThat(accountNumber.getCardBrand(), is(CardBrand.MasterCard));
+  }
+
+  @Test
+  public void disposeRawDataBeforeFirstUse() {
+    final DisposableCharData rawAccountNumber = new DisposableCharData(pan);
+    final LazyAccountNumber accountNumber = new LazyAccountNumber(rawAccountNumber);
+    accountNumber.disposeRawData();
+
+    // The complete account number is still not created
+    assertThat(rawAccountNumber.getData(), is(pan));
+
+    assertThat(accountNumber.getAccountNumber(), is(pan));
+    assertThat(accountNumber.hasRawData(), is(false));
+    assertThat(rawAccountNumber.hasData(), is(false));
+  }
+
+  @Test
+  public void encodeBeforeFirstUse() {
+    final Track2 track2 = Track2.from(";" + pan + "=16042010000056700100?");
+    final LazyAccountNumber accountNumber = (LazyAccountNumber) track2.getAccountNumber();
+
+    // Encoding reads the digits from the raw track data, or from the account number once the raw
+    // track data is disposed, without creating the complete account number
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    TrackCodec.write(track2, buffer);
+    track2.disposeRawData();
+    TrackCodec.write(track2, buffer);
+    assertThat(accountNumber.digits(), is(notNullValue()));
+
+    buffer.flip();
+    assertThat(TrackCodec.readTrack2(buffer).getAccountNumber().getAccountNumber(), is(pan));
+    assertThat(TrackCodec.readTrack2(buffer).getAccountNumber().getAccountNumber(), is(pan));
+
+    // A disposed account number is not encoded
+    accountNumber.dispose();
+    TrackCodec.write(track2, buffer.clear());
+    assertThat(TrackCodec.readTrack2(buffer.flip()).hasAccountNumber(), is(false));
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class TrackCacheTest {
+
+  private static final String swipe1 =
+      "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?";
+  private static final String swipe2 = ";5350290149345177=16042010000056700100?";
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  public void badArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new TrackCache(0, Duration.ofMinutes(1)));
+    assertThrows(IllegalArgumentException.class, () -> new TrackCache(10, Duration.ZERO));
+    assertThrows(NullPointerException.class, () -> new TrackCache(10, null));
+  }
+
+  @Test
+  public void cleanUp() {
+    // Large enough that every stripe holds both swipes, whichever stripes they hash to
+    final TrackCache cache = new TrackCache(100, Duration.ofNanos(100), clock::get);
+    final BankCardMagneticTrack track = cache.from(swipe1);
+    cache.from(swipe2);
+
+    clock.set(100);
+    cache.cleanUp();
+
+    assertThat(cache.size(), is(0));
+    assertThat(cache.getEvictionCount(), is(2L));
+    assertThat(track.hasRawData(), is(false));
+  }
+
+  @Test
+  public void eviction() {
+    final TrackCache cache = new TrackCache(1, Duration.ofMinutes(1), clock::get);
+    final BankCardMagneticTrack track = cache.from(swipe1);
+    cache.from(swipe2);
+
+    assertThat(cache.size(), is(1));
+    assertThat(cache.getEvictionCount(), is(1L));
+    // The evicted swipe is not disposed, since it could still be in use
+    assertThat(track.getRawData(), is(swipe1));
+    assertThat(track.getTrack1().hasDiscretionaryData(), is(true));
+    assertThat(track.getTrack2().getAccountNumber().getAccountNumber(), is("5350290149345177"));
+    assertThat(cache.from(swipe1), is(not(sameInstance(track))));
+  }
+
+  @Test
+  public void evictionWhileInUse() throws Exception {
+    final TrackCache cache = new TrackCache(1, Duration.ofMinutes(1));
+    final AtomicBoolean done = new AtomicBoolean();
+    final Thread evicting =
+        new Thread(
+            () -> {
+              for (int i = 0; !done.get(); i = (i + 1) % 1000) {
+                cache.from(String.format(";53502901493%05d=16042010000056700100?", i));
+              }
+            });
+    evicting.start();
+    try {
+      for (int i = 0; i < 10_000; i++) {
+        final BankCardMagneticTrack track = cache.from(swipe1);
+        assertThat(track.getRawData(), is(swipe1));
+        assertThat(track.getTrack1().getDiscretionaryData(), is(notNullValue()));
+        assertThat(
+            track.getTrack2().getAccountNumber().getAccountNumber(), is("5350290149345177"));
+      }
+    } finally {
+      done.set(true);
+      evicting.join();
+    }
+    assertThat(cache.getEvictionCount(), is(greaterThan(0L)));
+  }
+
+  @Test
+  public void expiry() {
+    final TrackCache cache = new TrackCache(10, Duration.ofNanos(100), clock::get);
+    final BankCardMagneticTrack track = cache.from(swipe1);
+
+    clock.set(99);
+    assertThat(cache.from(swipe1), is(sameInstance(track)));
+    clock.set(100);
+    final BankCardMagneticTrack parsed = cache.from(swipe1);
+
+    assertThat(parsed, is(not(sameInstance(track))));
+    assertThat(parsed.getRawData(), is(swipe1));
+    assertThat(track.hasRawData(), is(false));
+    assertThat(cache.getHitCount(), is(1L));
+    assertThat(cache.getMissCount(), is(2L));
+    assertThat(cache.getEvictionCount(), is(1L));
+  }
+
+  @Test
+  public void hits() {
+    // Large enough that every stripe holds both swipes, whichever stripes they hash to
+    final TrackCache cache = new TrackCache(100, Duration.ofMinutes(1));
+    final BankCardMagneticTrack track = cache.from(swipe1);
+
+    assertThat(cache.from(swipe1), is(sameInstance(track)));
+    assertThat(cache.from(swipe1.toCharArray()), is(sameInstance(track)));
+    assertThat(cache.from(ByteBuffer.wrap(swipe1.getBytes(US_ASCII))), is(sameInstance(track)));
+    assertThat(cache.from(swipe2), is(not(sameInstance(track))));
+
+    assertThat(cache.getHitCount(), is(3L));
+    assertThat(cache.getMissCount(), is(2L));
+    assertThat(cache.getEvictionCount(), is(0L));
+    assertThat(cache.size(), is(2));
+    assertThat(track.getRawData(), is(swipe1));
+  }
+
+  @Test
+  public void invalidateAll() {
+    final TrackCache cache = new TrackCache(10, Duration.ofMinutes(1));
+    final BankCardMagneticTrack track = cache.from(swipe1);
+    cache.invalidateAll();
+
+    assertThat(cache.size(), is(0));
+    assertThat(cache.getEvictionCount(), is(0L));
+    assertThat(track.hasRawData(), is(false));
+    assertThat(cache.from(swipe1), is(not(sameInstance(track))));
+  }
+
+  @Test
+  public void maximumSize() {
+    final TrackCache cache = new TrackCache(100, Duration.ofMinutes(1));
+    for (int i = 0; i < 1000; i++) {
+      cache.from(String.format(";53502901493%05d=16042010000056700100?", i));
+    }
+
+    assertThat(cache.size(), is(lessThanOrEqualTo(100)));
+    assertThat(cache.getEvictionCount(), is(1000L - cache.size()));
+  }
+
+  @Test
+  public void nullInput() {
+    final TrackCache cache = new TrackCache(10, Duration.ofMinutes(1));
+
+    assertThat(cache.from((String) null).getTrack2().hasAccountNumber(), is(false));
+    assertThat(cache.getMissCount(), is(0L));
+    assertThat(cache.size(), is(0));
+  }
+}
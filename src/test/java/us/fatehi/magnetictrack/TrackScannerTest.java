@@ -0,0 +1,462 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.magnetictrack;
+
+import static org.apache.commons.lang3.StringUtils.trimToEmpty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential test, which checks that the track scanner finds exactly the same groups as the
+ * regular expressions that it replaced. Track 2 ends at its first end sentinel, rather than at the
+ * last one, so that it does not take in a track 3 that follows it.
+ */
+public class TrackScannerTest {
+
+  private static final Pattern track1FormatBPattern =
+      Pattern.compile(
+          "(%?(B)([0-9]{1,19})\\^([^\\^]{2,26})\\^([0-9]{4}|\\^)([0-9]{3}|\\^)?([^\\?]+)?\\??)["
+              + "\t\n\r"
+              + " ]{0,2}.*");
+
+  private static final Pattern track2Pattern =
+      Pattern.compile(".*[\\t\\n\\r ]?(;([0-9]{1,19})=([0-9]{4})([0-9]{3})((?:(?!\\?).)*)\\?).*");
+
+  private static final Pattern track3Pattern = Pattern.compile(".*?[\t\n\r ]{0,2}(\\+(.*)\\?)");
+
+  private static final Pattern trackLinePattern = Pattern.compile("TRACK [123]: ([%;+].*)");
+
+  /** Card swipes that ManyTest checks, rebuilt from the tracks in its expected output. */
+  private static final List<String> swipes = readSwipes();
+
+  /** Inputs that are not well-formed swipes, or are not in the expected output of ManyTest. */
+  private static final String[] samples = {
+    ";636294169881005271827?",
+    "%B7083560000013710910^MICHAELS OPEN VALUE CARD  ^8551?;7083560000013710910=8551?",
+    "%B5266092201416174999999999999999999^FATEHI/SUALEH^16042010000000000000000000000000000567001000?",
+    "%B5266092201416174^FATEHI/SUALEH^16042010000000000000000000000000000567001000?\n;5266092201416174=16042010000056700100?",
+    "B5266092201416174^FATEHI/SUALEH^16042010000000000000000000000000000567001000",
+    ";5266092201416174=16042010000056700100somelong12345678901234567890",
+    "+6202608082356005=15046200000010000000000004976?",
+    "%B378578692630345^ /                        ^1508121140165241?\r\n;378578692630345=150812114016524100000?\r\n+6202608082356005=15046200000010000000000004976?",
+    "%B5266092201416174^FATEHI/SUALEH^^^?\n+6202608082356005=15046200000010000000000004976?",
+  };
+
+  private static final String alphabet = "%;+?^=/ B\t\n\r\u0085 1234567890AZ";
+
+  private static List<String> generatedInputs() {
+    final Random random = new Random(7813L);
+    final List<String> inputs = new ArrayList<>();
+    final List<String> allSamples = new ArrayList<>(swipes);
+    allSamples.addAll(Arrays.asList(samples));
+    for (final String sample : allSamples) {
+      inputs.add(sample);
+      inputs.add(" \t" + sample + "\n");
+      inputs.add(sample + "\n" + sample);
+      for (int i = 0; i < 2_000; i++) {
+        inputs.add(mutate(sample, random));
+      }
+    }
+    for (int i = 0; i < 20_000; i++) {
+      final StringBuilder buffer = new StringBuilder();
+      final int length = random.nextInt(40);
+      for (int j = 0; j < length; j++) {
+        buffer.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      inputs.add(buffer.toString());
+    }
+    return inputs;
+  }
+
+  /**
+   * Reads the swipes that ManyTest checks, by joining the raw data of the tracks that are listed in
+   * its expected output files.
+   */
+  private static List<String> readSwipes() {
+    try {
+      final Path directory =
+          Paths.get(TrackScannerTest.class.getResource("/BankCardMagneticTrack.trackA.txt").toURI())
+              .getParent();
+      final List<Path> files = new ArrayList<>();
+      try (DirectoryStream<Path> stream =
+          Files.newDirectoryStream(directory, "BankCardMagneticTrack.track*.txt")) {
+        stream.forEach(files::add);
+      }
+      Collections.sort(files);
+
+      final List<String> swipes = new ArrayList<>();
+      for (final Path file : files) {
+        final StringBuilder swipe = new StringBuilder();
+        for (final String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+          final Matcher matcher = trackLinePattern.matcher(line);
+          if (matcher.matches()) {
+            swipe.append(matcher.group(1));
+          }
+        }
+        swipes.add(swipe.toString());
+      }
+      return swipes;
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (final URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String mutate(final String sample, final Random random) {
+    final StringBuilder buffer = new StringBuilder(sample);
+    final int mutations = 1 + random.nextInt(3);
+    for (int i = 0; i < mutations; i++) {
+      final int position = random.nextInt(buffer.length() + 1);
+      final char ch = alphabet.charAt(random.nextInt(alphabet.length()));
+      switch (random.nextInt(3)) {
+        case 0:
+          buffer.insert(position, ch);
+          break;
+        case 1:
+          if (position < buffer.length()) {
+            buffer.deleteCharAt(position);
+          }
+          break;
+        default:
+          if (position < buffer.length()) {
+            buffer.setCharAt(position, ch);
+          }
+          break;
+      }
+    }
+    return buffer.toString();
+  }
+
+  @Test
+  public void track1() {
+    for (final String input : generatedInputs()) {
+      check(input, track1FormatBPattern, TrackScanner::scanTrack1, Track1FormatB.MAXIMUM_LENGTH);
+    }
+  }
+
+  @Test
+  public void track2() {
+    for (final String input : generatedInputs()) {
+      check(input, track2Pattern, TrackScanner::scanTrack2, Track2.MAXIMUM_LENGTH);
+    }
+  }
+
+  @Test
+  public void track3() {
+    for (final String input : generatedInputs()) {
+      check(input, track3Pattern, TrackScanner::scanTrack3, Track3.MAXIMUM_LENGTH);
+    }
+  }
+
+  @Test
+  public void sharedScanner() {
+    for (final String input : generatedInputs()) {
+      final BankCardMagneticTrack track = BankCardMagneticTrack.from(input);
+      checkTrack(input, track.getTrack1(), Track1FormatB.from(input));
+      checkTrack(input, track.getTrack2(), Track2.from(input));
+      checkTrack(input, track.getTrack3(), Track3.from(input));
+      assertThat(input, track.getTrack1().getName(), is(Track1FormatB.from(input).getName()));
+    }
+  }
+
+  @Test
+  public void nullInput() {
+    final TrackScanner scanner = new TrackScanner((String) null);
+    assertThat(scanner.scanTrack1(), is(false));
+    assertThat(scanner.scanTrack2(), is(false));
+    assertThat(scanner.scanTrack3(), is(false));
+  }
+
+  @Test
+  public void outcomes() {
+    for (final String input : generatedInputs()) {
+      checkOutcome(input, TrackScanner::scanTrack1);
+      checkOutcome(input, TrackScanner::scanTrack2);
+      checkOutcome(input, TrackScanner::scanTrack3);
+    }
+  }
+
+  @Test
+  public void failures() {
+    checkFailure("not a card swipe", TrackScanner::scanTrack1, TrackOutcome.NotPresent, null);
+    checkFailure("not a card swipe", TrackScanner::scanTrack2, TrackOutcome.NotPresent, null);
+    checkFailure("not a card swipe", TrackScanner::scanTrack3, TrackOutcome.NotPresent, null);
+    checkFailure(
+        "%15350290149345177^FATEHI/SUALEH^1604201?",
+        TrackScanner::scanTrack1,
+        TrackOutcome.Malformed,
+        TrackFailure.InvalidFormatCode);
+    checkFailure(
+        "%Z5350290149345177^FATEHI/SUALEH^1604201?",
+        TrackScanner::scanTrack1,
+        TrackOutcome.Malformed,
+        TrackFailure.UnsupportedFormatCode);
+    checkFailure(
+        "Z5350290149345177^FATEHI/SUALEH^1604201?",
+        TrackScanner::scanTrack1,
+        TrackOutcome.NotPresent,
+        null);
+    checkFailure(
+        "%B^FATEHI/SUALEH^1604201?",
+        TrackScanner::scanTrack1,
+        TrackOutcome.Malformed,
+        TrackFailure.InvalidAccountNumber);
+    checkFailure(
+        ";=16042010000056700100?",
+        TrackScanner::scanTrack2,
+        TrackOutcome.Malformed,
+        TrackFailure.InvalidAccountNumber);
+    checkFailure(
+        ";5350290149345177=16X?",
+        TrackScanner::scanTrack2,
+        TrackOutcome.Malformed,
+        TrackFailure.InvalidExpirationDate);
+    checkFailure(
+        ";5350290149345177=16042X?",
+        TrackScanner::scanTrack2,
+        TrackOutcome.Malformed,
+        TrackFailure.InvalidServiceCode);
+    checkFailure(
+        ";5350290149345177=16042010000056700100",
+        TrackScanner::scanTrack2,
+        TrackOutcome.Malformed,
+        TrackFailure.MissingEndSentinel);
+    checkFailure(
+        "+6202408082356005=1504620000001",
+        TrackScanner::scanTrack3,
+        TrackOutcome.Malformed,
+        TrackFailure.MissingEndSentinel);
+  }
+
+  @Test
+  public void failureOffsets() {
+    checkFailureOffset(
+        "%15350290149345177^FATEHI/SUALEH^1604201?",
+        TrackScanner::scanTrack1,
+        TrackFailure.InvalidFormatCode,
+        1);
+    checkFailureOffset(
+        "%B12345678901234567890^FATEHI/SUALEH^1604201?",
+        TrackScanner::scanTrack1,
+        TrackFailure.AccountNumberTooLong,
+        21);
+    checkFailureOffset(
+        "%B5350290149345177X^FATEHI/SUALEH^1604201?",
+        TrackScanner::scanTrack1,
+        TrackFailure.InvalidSeparator,
+        18);
+    checkFailureOffset(
+        "%B5350290149345177^F^1604201?", TrackScanner::scanTrack1, TrackFailure.InvalidName, 19);
+    checkFailureOffset(
+        "%B5350290149345177^ABCDEFGHIJKLMNOPQRSTUVWXYZ0^1604201?",
+        TrackScanner::scanTrack1,
+        TrackFailure.InvalidName,
+        45);
+    checkFailureOffset(
+        "%B5350290149345177^FATEHI/SUALEH",
+        TrackScanner::scanTrack1,
+        TrackFailure.InvalidSeparator,
+        32);
+    checkFailureOffset(
+        "%B5350290149345177^FATEHI/SUALEH^16X4201?",
+        TrackScanner::scanTrack1,
+        TrackFailure.InvalidExpirationDate,
+        35);
+    checkFailureOffset(
+        "  ;5350290149345177=16X?",
+        TrackScanner::scanTrack2,
+        TrackFailure.InvalidExpirationDate,
+        22);
+    checkFailureOffset(
+        ";12345678901234567890=1604201?",
+        TrackScanner::scanTrack2,
+        TrackFailure.AccountNumberTooLong,
+        20);
+    checkFailureOffset(
+        ";5350290149345177D16042010000056700100?",
+        TrackScanner::scanTrack2,
+        TrackFailure.InvalidSeparator,
+        17);
+    checkFailureOffset(
+        ";5350290149345177=16042X?", TrackScanner::scanTrack2, TrackFailure.InvalidServiceCode, 23);
+    checkFailureOffset(
+        ";5350290149345177=16042010000056700100 ",
+        TrackScanner::scanTrack2,
+        TrackFailure.MissingEndSentinel,
+        38);
+    checkFailureOffset(
+        "+6202408082356005=1504620000001",
+        TrackScanner::scanTrack3,
+        TrackFailure.MissingEndSentinel,
+        31);
+
+    final TrackScanner scanner = new TrackScanner(";5350290149345177=16X?");
+    scanner.scanTrack2();
+    scanner.reset(";5350290149345177=16042010000056700100?");
+    assertThat(scanner.failureOffset(), is(-1));
+    scanner.scanTrack2();
+    assertThat(scanner.failureOffset(), is(-1));
+    scanner.scanTrack3();
+    assertThat(scanner.failureOffset(), is(-1));
+  }
+
+  @Test
+  public void maximumLengths() {
+    final String track1 = "%B5350290149345177^FATEHI/SUALEH^1604201" + "0".repeat(40);
+    checkFailureOffset(track1 + "?", TrackScanner::scanTrack1, TrackFailure.TrackTooLong, 79);
+    checkFailureOffset(track1, TrackScanner::scanTrack1, TrackFailure.TrackTooLong, 79);
+    assertThat(new TrackScanner(track1.substring(0, 78) + "?").scanTrack1(), is(true));
+
+    final String track2 = ";5350290149345177=1604201" + "0".repeat(14);
+    checkFailureOffset(track2 + "0?", TrackScanner::scanTrack2, TrackFailure.TrackTooLong, 40);
+    assertThat(new TrackScanner(track2 + "?").scanTrack2(), is(true));
+    // Track 2 ends at its first end sentinel
+    final TrackScanner scanner = new TrackScanner(track2 + "?" + "0".repeat(100) + "?");
+    assertThat(scanner.scanTrack2(), is(true));
+    assertThat(scanner.group(1), is(track2 + "?"));
+
+    final String track3 = "+" + "0".repeat(105);
+    checkFailureOffset(track3 + "0?", TrackScanner::scanTrack3, TrackFailure.TrackTooLong, 107);
+    assertThat(new TrackScanner(track3 + "?").scanTrack3(), is(true));
+  }
+
+  @Test
+  public void shortTracks() {
+    final String input = ";5350290149345177=1604201?+12?";
+    final TrackScanner scanner = new TrackScanner(input);
+    assertThat(scanner.scanTrack2(), is(true));
+    assertThat(scanner.group(1), is(";5350290149345177=1604201?"));
+    assertThat(scanner.scanTrack3(), is(true));
+    assertThat(scanner.group(1), is("+12?"));
+
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from(input);
+    assertThat(track.getTrack2().getRawData(), is(";5350290149345177=1604201?"));
+    assertThat(track.getTrack3().getRawData(), is("+12?"));
+  }
+
+  @Test
+  public void maximumInputLength() {
+    final String input = ";5350290149345177=16042010000056700100?";
+    ParseLimits.setMaximumInputLength(input.length() - 1);
+    try {
+      checkFailureOffset(input, TrackScanner::scanTrack1, TrackFailure.InputTooLong, 38);
+      checkFailureOffset(input, TrackScanner::scanTrack2, TrackFailure.InputTooLong, 38);
+      checkFailureOffset(input, TrackScanner::scanTrack3, TrackFailure.InputTooLong, 38);
+
+      ParseLimits.setMaximumInputLength(input.length());
+      assertThat(new TrackScanner(input).scanTrack2(), is(true));
+    } finally {
+      ParseLimits.setMaximumInputLength(ParseLimits.DEFAULT_MAXIMUM_INPUT_LENGTH);
+    }
+  }
+
+  private void checkFailure(
+      final String input,
+      final Predicate<TrackScanner> scan,
+      final TrackOutcome outcome,
+      final TrackFailure failure) {
+    final TrackScanner scanner = new TrackScanner(input);
+    scan.test(scanner);
+    assertThat(input, scanner.outcome(), is(outcome));
+    assertThat(input, scanner.failure(), is(failure));
+    assertThat(input, scanner.length(), is(input.length()));
+  }
+
+  private void checkFailureOffset(
+      final String input,
+      final Predicate<TrackScanner> scan,
+      final TrackFailure failure,
+      final int failureOffset) {
+    final TrackScanner scanner = new TrackScanner(input);
+    scan.test(scanner);
+    assertThat(input, scanner.failure(), is(failure));
+    assertThat(input, scanner.failureOffset(), is(failureOffset));
+  }
+
+  private void checkOutcome(final String input, final Predicate<TrackScanner> scan) {
+    final TrackScanner scanner = new TrackScanner(input);
+    final boolean matches = scan.test(scanner);
+    assertThat(input, scanner.outcome() == TrackOutcome.Matched, is(matches));
+    if (scanner.outcome() == TrackOutcome.Malformed) {
+      assertThat(input, scanner.failure() == null, is(false));
+      assertThat(input, scanner.failureOffset() >= 0, is(true));
+      assertThat(input, scanner.failureOffset() <= input.length(), is(true));
+    } else {
+      assertThat(input, scanner.failure(), is(nullValue()));
+      assertThat(input, scanner.failureOffset(), is(-1));
+    }
+  }
+
+  private void checkTrack(
+      final String input, final BaseTrackData track, final BaseTrackData expectedTrack) {
+    assertThat(input, track.getRawData(), is(expectedTrack.getRawData()));
+    assertThat(input, track.getDiscretionaryData(), is(expectedTrack.getDiscretionaryData()));
+    if (track instanceof BaseBankCardTrackData) {
+      final BaseBankCardTrackData bankCardTrack = (BaseBankCardTrackData) track;
+      final BaseBankCardTrackData expectedBankCardTrack = (BaseBankCardTrackData) expectedTrack;
+      assertThat(
+          input,
+          bankCardTrack.getAccountNumber().getAccountNumber(),
+          is(expectedBankCardTrack.getAccountNumber().getAccountNumber()));
+      assertThat(
+          input,
+          bankCardTrack.getExpirationDate(),
+          is(expectedBankCardTrack.getExpirationDate()));
+      assertThat(
+          input, bankCardTrack.getServiceCode(), is(expectedBankCardTrack.getServiceCode()));
+    }
+  }
+
+  private void check(
+      final String input,
+      final Pattern pattern,
+      final Predicate<TrackScanner> scan,
+      final int maximumLength) {
+    final Matcher matcher = pattern.matcher(trimToEmpty(input));
+    final TrackScanner scanner = new TrackScanner(input);
+
+    final boolean matches = matcher.matches();
+    if (matches && matcher.group(1).length() > maximumLength) {
+      // The pattern has no maximum length, so the scanner can only find a shorter track
+      if (scan.test(scanner)) {
+        assertThat(input, scanner.group(1).length() <= maximumLength, is(true));
+      }
+      return;
+    }
+    assertThat(input, scan.test(scanner), is(matches));
+    if (matches) {
+      for (int group = 0; group <= matcher.groupCount() + 1; group++) {
+        assertThat(
+            input + " - group " + group,
+            scanner.group(group),
+            is(BaseTrackData.getGroup(matcher, group)));
+      }
+    }
+  }
+}
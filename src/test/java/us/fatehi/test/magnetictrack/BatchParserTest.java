@@ -0,0 +1,82 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.BatchParseResult;
+import us.fatehi.magnetictrack.BatchParser;
+
+public class BatchParserTest {
+
+  private static final String[] tracks = {
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?",
+    ";636294169881005271827?",
+    "+6202608082356005=15046200000010000000000004976?",
+    "",
+    null,
+    ";5266092201416174=16042010000056700100somelong12345678901234567890",
+  };
+
+  private static List<String> swipes(final int count) {
+    final List<String> swipes = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      swipes.add(tracks[i % tracks.length]);
+    }
+    return swipes;
+  }
+
+  @Test
+  public void array() {
+    final String[] swipes = swipes(10_000).toArray(new String[0]);
+    check(swipes(10_000), BatchParser.parseAll(swipes));
+  }
+
+  @Test
+  public void emptyBatch() {
+    final BatchParseResult result = BatchParser.parseAll(new String[0]);
+    assertThat(result.size(), is(0));
+    assertThat(result.hasFailures(), is(false));
+  }
+
+  @Test
+  public void list() {
+    final ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      check(swipes(5_000), BatchParser.parseAll(swipes(5_000), pool));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void stream() {
+    check(swipes(1_000), BatchParser.parseAll(swipes(1_000).stream().parallel()));
+    check(Arrays.asList(tracks), BatchParser.parseAll(Arrays.stream(tracks)));
+  }
+
+  private void check(final List<String> swipes, final BatchParseResult result) {
+    assertThat(result.size(), is(swipes.size()));
+    assertThat(result.hasFailures(), is(false));
+    assertThat(result.getFailures().isEmpty(), is(true));
+    for (int i = 0; i < swipes.size(); i++) {
+      final BankCardMagneticTrack track = result.getTrack(i);
+      assertThat(track.toString(), is(BankCardMagneticTrack.from(swipes.get(i)).toString()));
+      assertThat(result.getTracks().get(i), is(track));
+    }
+  }
+}
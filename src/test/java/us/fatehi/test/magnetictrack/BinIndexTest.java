@@ -0,0 +1,146 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.BinIndex;
+import us.fatehi.magnetictrack.BinIndexes;
+import us.fatehi.magnetictrack.BinRange;
+import us.fatehi.magnetictrack.Track2;
+import us.fatehi.magnetictrack.TrackCodec;
+
+public class BinIndexTest {
+
+  private static final String swipe =
+      "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?";
+
+  @AfterEach
+  public void unregister() {
+    BinIndexes.unregister();
+  }
+
+  @Test
+  public void badRanges() {
+    assertThrows(IllegalArgumentException.class, () -> new BinRange("5", "4", "", "", ""));
+    assertThrows(IllegalArgumentException.class, () -> new BinRange("5X", "5X", "", "", ""));
+    assertThrows(IllegalArgumentException.class, () -> new BinRange("", "", "", "", ""));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new BinRange("1234567890123456789", "1234567890123456789", "", "", ""));
+  }
+
+  @Test
+  public void badFile(@TempDir final Path directory) throws IOException {
+    final Path file = directory.resolve("bins.csv");
+    Files.write(file, List.of("4000,4999,Issuer,Credit,Visa", "5X,,Issuer,Debit,MC"), UTF_8);
+
+    final IOException e = assertThrows(IOException.class, () -> BinIndex.load(file));
+    assertThat(e.getMessage(), containsString("line 2"));
+  }
+
+  @Test
+  public void load(@TempDir final Path directory) throws IOException {
+    final Path file = directory.resolve("bins.csv");
+    Files.write(
+        file,
+        List.of(
+            "# low, high, issuer, product, routing",
+            "",
+            "4000,4999,Any Bank,Credit,Visa",
+            "535029,,Fatehi Bank,Debit,Mastercard"),
+        UTF_8);
+
+    final BinIndex index = BinIndex.load(file);
+
+    assertThat(index.size(), is(2));
+    assertThat(index.lookup("4111111111111111").getIssuer(), is("Any Bank"));
+    assertThat(index.lookup("5350290149345177").getRouting(), is("Mastercard"));
+    assertThat(index.lookup("5350300000000000"), is(nullValue()));
+  }
+
+  @Test
+  public void lookup() {
+    final BinRange visa = new BinRange("4", "4", "Any Bank", "Credit", "Visa");
+    final BinRange bank = new BinRange("411111", "411111", "A Bank", "Credit", "Visa");
+    final BinRange premium = new BinRange("41111111", "41111112", "A Bank", "Premium", "Visa");
+    final BinRange debit = new BinRange("40000", "40999", "Debit Bank", "Debit", "Visa");
+    final BinIndex index = BinIndex.from(List.of(visa, bank, premium, debit));
+
+    assertThat(index.lookup("4111111111111111"), is(sameInstance(premium)));
+    assertThat(index.lookup("4111111211111111"), is(sameInstance(premium)));
+    assertThat(index.lookup("4111113011111111"), is(sameInstance(bank)));
+    assertThat(index.lookup("4111120000000000"), is(sameInstance(visa)));
+    assertThat(index.lookup("4099999999999999"), is(sameInstance(debit)));
+    assertThat(index.lookup("4100000000000000"), is(sameInstance(visa)));
+    assertThat(index.lookup("3999999999999999"), is(nullValue()));
+    assertThat(index.lookup("5000000000000000"), is(nullValue()));
+    assertThat(index.lookup(""), is(nullValue()));
+    assertThat(index.lookup(null), is(nullValue()));
+    assertThat(BinIndex.from(List.of()).lookup("4111111111111111"), is(nullValue()));
+  }
+
+  @Test
+  public void lastRangeWins() {
+    final BinRange first = new BinRange("535029", "535029", "Old Bank", "Debit", "Mastercard");
+    final BinRange second = new BinRange("535029", "535029", "New Bank", "Debit", "Mastercard");
+
+    assertThat(
+        BinIndex.from(List.of(first, second)).lookup("5350290149345177"),
+        is(sameInstance(second)));
+  }
+
+  @Test
+  public void parse(@TempDir final Path directory) throws IOException {
+    assertThat(BankCardMagneticTrack.from(swipe).getTrack2().getBinRange(), is(nullValue()));
+
+    final Path file = directory.resolve("bins.csv");
+    Files.write(file, List.of("535029,,Fatehi Bank,Debit,Mastercard"), UTF_8);
+    BinIndexes.load(file);
+
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from(swipe);
+    assertThat(track.getTrack1().getBinRange().getIssuer(), is("Fatehi Bank"));
+    assertThat(track.getTrack2().getBinRange().getIssuer(), is("Fatehi Bank"));
+    assertThat(Track2.from("").getBinRange(), is(nullValue()));
+
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    TrackCodec.write(track, buffer);
+    final BankCardMagneticTrack decoded = TrackCodec.readBankCardMagneticTrack(buffer.flip());
+    assertThat(decoded.getTrack2().getBinRange(), is(track.getTrack2().getBinRange()));
+
+    // Reload, and parsed tracks keep the range that they were parsed with
+    Files.write(file, List.of("535029,,Other Bank,Debit,Mastercard"), UTF_8);
+    BinIndexes.load(file);
+    assertThat(
+        BankCardMagneticTrack.from(swipe).getTrack2().getBinRange().getIssuer(), is("Other Bank"));
+    assertThat(track.getTrack2().getBinRange().getIssuer(), is("Fatehi Bank"));
+
+    // A file that cannot be loaded keeps the registered index
+    Files.write(file, List.of("bad"), UTF_8);
+    assertThrows(IOException.class, () -> BinIndexes.load(file));
+    assertThat(
+        BankCardMagneticTrack.from(swipe).getTrack2().getBinRange().getIssuer(), is("Other Bank"));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.Track1FormatB;
+import us.fatehi.magnetictrack.Track2;
+import us.fatehi.magnetictrack.Track3;
+
+public class ByteInputTest {
+
+  private static final String[] tracks = {
+    "",
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?",
+    "%B5266092201416174^FATEHI/SUALEH^16042010000000000000000000000000000567001000?\n;5266092201416174=16042010000056700100?",
+    "%B379580832431161^ /                        ^1508121140165241?;379580832431161=150812114016524100000?+6202408082356005=15046200000010000000000004976?",
+    ";636294169881005271827?",
+    ";5266092201416174=16042010000056700100somelong12345678901234567890",
+  };
+
+  @Test
+  public void byteArray() {
+    for (final String track : tracks) {
+      final byte[] bytes = ("\u0000\u0000" + track + "\u0000").getBytes(US_ASCII);
+      final int length = bytes.length - 3;
+      check(track, BankCardMagneticTrack.from(bytes, 2, length));
+      assertThat(
+          Track1FormatB.from(bytes, 2, length).getRawData(),
+          is(Track1FormatB.from(track).getRawData()));
+      assertThat(Track2.from(bytes, 2, length).getRawData(), is(Track2.from(track).getRawData()));
+      assertThat(Track3.from(bytes, 2, length).getRawData(), is(Track3.from(track).getRawData()));
+    }
+  }
+
+  @Test
+  public void directBuffer() {
+    for (final String track : tracks) {
+      final byte[] bytes = track.getBytes(US_ASCII);
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 4);
+      buffer.position(4);
+      buffer.put(bytes);
+      buffer.position(4);
+
+      check(track, BankCardMagneticTrack.from(buffer));
+      assertThat(
+          Track2.from(buffer).getDiscretionaryData(), is(Track2.from(track).getDiscretionaryData()));
+      assertThat(buffer.position(), is(4));
+      assertThat(buffer.remaining(), is(bytes.length));
+    }
+  }
+
+  @Test
+  public void heapBuffer() {
+    for (final String track : tracks) {
+      final ByteBuffer buffer = ByteBuffer.wrap(track.getBytes(US_ASCII));
+
+      check(track, BankCardMagneticTrack.from(buffer));
+      check(track, BankCardMagneticTrack.from(buffer.asReadOnlyBuffer()));
+      assertThat(
+          Track3.from(buffer).getDiscretionaryData(), is(Track3.from(track).getDiscretionaryData()));
+      assertThat(buffer.position(), is(0));
+    }
+  }
+
+  @Test
+  public void nonAsciiBytes() {
+    final byte[] bytes = "_;5266092201416174=16042010000056700100?".getBytes(US_ASCII);
+    bytes[0] = (byte) 0x85;
+
+    final Track2 track2 = Track2.from(bytes, 0, bytes.length);
+    assertThat(track2.getRawData(), is(Track2.from(new String(bytes, US_ASCII)).getRawData()));
+    assertThat(track2.getAccountNumber().getAccountNumber(), is("5266092201416174"));
+  }
+
+  @Test
+  public void nullBuffer() {
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from((ByteBuffer) null);
+    check("", track);
+    assertThat(Track2.from((ByteBuffer) null).hasRawData(), is(false));
+  }
+
+  private void check(final String track, final BankCardMagneticTrack bytesTrack) {
+    final BankCardMagneticTrack stringTrack = BankCardMagneticTrack.from(track);
+    assertThat(bytesTrack.getRawData(), is(stringTrack.getRawData()));
+    assertThat(bytesTrack.toString(), is(stringTrack.toString()));
+  }
+}
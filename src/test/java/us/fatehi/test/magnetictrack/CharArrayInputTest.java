@@ -0,0 +1,83 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.creditcardnumber.CardBrand;
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.Track1FormatB;
+import us.fatehi.magnetictrack.Track2;
+import us.fatehi.magnetictrack.Track3;
+
+public class CharArrayInputTest {
+
+  private static final String trackData =
+      "%B379580832431161^ /                        ^1508121140165241?;379580832431161=150812114016524100000?+6202408082356005=15046200000010000000000004976?";
+
+  @Test
+  public void bankCardMagneticTrack() {
+    final char[] chars = trackData.toCharArray();
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from(chars);
+    Arrays.fill(chars, '\0');
+
+    final BankCardMagneticTrack expectedTrack = BankCardMagneticTrack.from(trackData);
+    assertThat(track.getRawData(), is(expectedTrack.getRawData()));
+    assertThat(track.toString(), is(expectedTrack.toString()));
+  }
+
+  @Test
+  public void dispose() {
+    final char[] chars = trackData.toCharArray();
+    final Track2 track2 = Track2.from(chars);
+    Arrays.fill(chars, '\0');
+
+    track2.disposeRawData();
+    assertThat(track2.hasRawData(), is(false));
+    assertThat(track2.getRawData(), is(nullValue()));
+    assertThat(track2.hasDiscretionaryData(), is(true));
+
+    track2.disposeDiscretionaryData();
+    assertThat(track2.hasDiscretionaryData(), is(false));
+    assertThat(track2.getDiscretionaryData(), is(nullValue()));
+
+    assertThat(track2.getAccountNumber().getAccountNumber(), is("379580832431161"));
+    track2.getAccountNumber().dispose();
+    assertThat(track2.hasAccountNumber(), is(false));
+    assertThat(track2.getAccountNumber().getCardBrand(), is(CardBrand.AmericanExpress));
+  }
+
+  @Test
+  public void nullArray() {
+    assertThat(BankCardMagneticTrack.from((char[]) null).hasRawData(), is(false));
+    assertThat(Track1FormatB.from((char[]) null).hasRawData(), is(false));
+    assertThat(Track3.from((char[]) null).hasRawData(), is(false));
+  }
+
+  @Test
+  public void tracks() {
+    final char[] chars = trackData.toCharArray();
+    final Track1FormatB track1 = Track1FormatB.from(chars);
+    final Track2 track2 = Track2.from(chars);
+    final Track3 track3 = Track3.from(chars);
+    Arrays.fill(chars, '\0');
+
+    assertThat(track1.getRawData(), is(Track1FormatB.from(trackData).getRawData()));
+    assertThat(track1.getAccountNumber().getAccountNumber(), is("379580832431161"));
+    assertThat(track1.getDiscretionaryData(), is("140165241"));
+    assertThat(track2.getRawData(), is(Track2.from(trackData).getRawData()));
+    assertThat(track2.getExpirationDate().toString(), is("2015-08"));
+    assertThat(track3.getRawData(), is("+6202408082356005=15046200000010000000000004976?"));
+  }
+}
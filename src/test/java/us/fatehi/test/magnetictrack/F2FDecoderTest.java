@@ -0,0 +1,167 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.DecodedTrack;
+import us.fatehi.magnetictrack.F2FDecoder;
+import us.fatehi.magnetictrack.Track1FormatB;
+import us.fatehi.magnetictrack.Track2;
+import us.fatehi.magnetictrack.Track3;
+
+public class F2FDecoderTest {
+
+  /** Raw track bits, as a head would read them, with a bit that can be flipped. */
+  private static final class TrackBits {
+
+    private final BitSet bits = new BitSet();
+    private int bitCount;
+
+    TrackBits(final int track, final String characters) {
+      final int dataBits = track == 1 ? 6 : 4;
+      final int offset = track == 1 ? 0x20 : 0x30;
+      zeros(20);
+      int lrc = 0;
+      for (int i = 0; i < characters.length(); i++) {
+        char ch = characters.charAt(i);
+        if (track == 3 && ch == '+') {
+          ch = ';';
+        }
+        final int data = ch - offset;
+        lrc ^= data;
+        character(data, dataBits);
+      }
+      character(lrc, dataBits);
+      zeros(20);
+    }
+
+    void flip(final int index) {
+      bits.flip(index);
+    }
+
+    byte[] pack(final boolean reversed) {
+      final byte[] packed = new byte[(bitCount + 7) / 8];
+      for (int i = 0; i < bitCount; i++) {
+        final int position = reversed ? bitCount - 1 - i : i;
+        if (bits.get(position)) {
+          packed[i / 8] |= (byte) (0x80 >>> (i % 8));
+        }
+      }
+      return packed;
+    }
+
+    private void character(final int data, final int dataBits) {
+      int ones = 0;
+      for (int i = 0; i < dataBits; i++) {
+        final boolean bit = (data >>> i & 1) == 1;
+        bits.set(bitCount++, bit);
+        if (bit) {
+          ones++;
+        }
+      }
+      bits.set(bitCount++, ones % 2 == 0);
+    }
+
+    private void zeros(final int count) {
+      bitCount += count;
+    }
+  }
+
+  private static final String track1 =
+      "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?";
+  private static final String track2 = ";5350290149345177=16042010000056700100?";
+  private static final String track3 = "+6202408082356005=15046200000010000000000004976?";
+
+  @Test
+  public void badLrc() {
+    final TrackBits bits = new TrackBits(2, track2);
+    // First data bit of the LRC character, which follows 20 zeros and the track
+    bits.flip(20 + track2.length() * 5);
+
+    final DecodedTrack decoded = F2FDecoder.decode(2, bits.pack(false), bits.bitCount);
+    assertThat(decoded.hasTrack(), is(true));
+    assertThat(decoded.getParityErrors(), is(0));
+    assertThat(decoded.isLrcValid(), is(false));
+    assertThat(decoded.isValid(), is(false));
+  }
+
+  @Test
+  public void noTrack() {
+    final DecodedTrack decoded = F2FDecoder.decode(1, new byte[16], 128);
+    assertThat(decoded.hasTrack(), is(false));
+    assertThat(decoded.getCharacters().length, is(0));
+    assertThat(decoded.isValid(), is(false));
+  }
+
+  @Test
+  public void parityError() {
+    final TrackBits bits = new TrackBits(1, track1);
+    // First data bit of the second character, which is the format code
+    bits.flip(20 + 7);
+
+    final DecodedTrack decoded = F2FDecoder.decode(1, bits.pack(false), bits.bitCount);
+    assertThat(decoded.hasTrack(), is(true));
+    assertThat(decoded.getParityErrors(), is(1));
+    assertThat(decoded.isLrcValid(), is(false));
+    assertThat(decoded.isValid(), is(false));
+  }
+
+  @Test
+  public void reversedSwipe() {
+    for (final boolean reversed : new boolean[] {false, true}) {
+      final TrackBits bits = new TrackBits(2, track2);
+      final DecodedTrack decoded = F2FDecoder.decode(2, bits.pack(reversed), bits.bitCount);
+      assertThat(decoded.isValid(), is(true));
+      assertThat(decoded.isReversed(), is(reversed));
+      assertThat(new String(decoded.getCharacters()), is(track2));
+    }
+  }
+
+  @Test
+  public void tracks() {
+    final DecodedTrack decoded1 = decode(1, track1);
+    final DecodedTrack decoded2 = decode(2, track2);
+    final DecodedTrack decoded3 = decode(3, track3);
+
+    assertThat(
+        Track1FormatB.from(decoded1.getCharacters()).getRawData(),
+        is(Track1FormatB.from(track1).getRawData()));
+    assertThat(
+        Track2.from(decoded2.getCharacters()).getRawData(), is(Track2.from(track2).getRawData()));
+    assertThat(
+        Track3.from(decoded3.getCharacters()).getRawData(), is(Track3.from(track3).getRawData()));
+
+    final String swipe =
+        new String(decoded1.getCharacters())
+            + new String(decoded2.getCharacters())
+            + new String(decoded3.getCharacters());
+    assertThat(
+        BankCardMagneticTrack.from(swipe).toString(),
+        is(BankCardMagneticTrack.from(track1 + track2 + track3).toString()));
+
+    decoded2.dispose();
+    assertThat(new String(decoded2.getCharacters()), is("\0".repeat(track2.length())));
+  }
+
+  private DecodedTrack decode(final int track, final String characters) {
+    final TrackBits bits = new TrackBits(track, characters);
+    final DecodedTrack decoded = F2FDecoder.decode(track, bits.pack(false), bits.bitCount);
+    assertThat(decoded.getTrack(), is(track));
+    assertThat(decoded.isValid(), is(true));
+    assertThat(decoded.isReversed(), is(false));
+    assertThat(new String(decoded.getCharacters()), is(characters));
+    return decoded;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.FormatVerbosity;
+
+public class FormatToTest {
+
+  private static final String NEWLINE = System.getProperty("line.separator");
+
+  private static final String[] swipes = {
+    "",
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?",
+    "%B379580832431161^ /                        ^1508121140165241?;379580832431161=150812114016524100000?+6202408082356005=15046200000010000000000004976?",
+    "%B7083560000013710910^MICHAELS OPEN VALUE CARD  ^8551?;7083560000013710910=8551?",
+    "%B5266092201416174^FATEHI/SUALEH^^^?\n+6202608082356005=15046200000010000000000004976?",
+    ";5350290149345177=16042010000056700100?",
+  };
+
+  @Test
+  public void formatToWriter() throws Exception {
+    for (final String swipe : swipes) {
+      final BankCardMagneticTrack track = BankCardMagneticTrack.from(swipe);
+      final StringWriter writer = new StringWriter();
+      track.formatTo(writer);
+      assertThat(writer.toString(), is(track.toString()));
+    }
+  }
+
+  @Test
+  public void rawDataOnly() {
+    final BankCardMagneticTrack track =
+        BankCardMagneticTrack.from("+6202608082356005=15046200000010000000000004976?");
+    final String formatted =
+        track.formatTo(new StringBuilder(), FormatVerbosity.RawData).toString();
+
+    assertThat(
+        formatted,
+        is(
+            "TRACK 1:  Not Available."
+                + NEWLINE
+                + "TRACK 2:  Not Available."
+                + NEWLINE
+                + "TRACK 3: +6202608082356005=15046200000010000000000004976?"
+                + NEWLINE));
+  }
+
+  @Test
+  public void trackExpirationDates() {
+    final BankCardMagneticTrack track =
+        BankCardMagneticTrack.from(
+            "%B5350290149345177^FATEHI/SUALEH^1604201000?;5350290149345177=17052010000056700100?");
+    final String formatted = track.formatTo(new StringBuilder(), FormatVerbosity.Tracks).toString();
+
+    final int track2Start = formatted.indexOf("TRACK 2:");
+    assertThat(
+        formatted.substring(0, track2Start), containsString("  Expiration Date: 2016-04" + NEWLINE));
+    assertThat(
+        formatted.substring(track2Start), containsString("  Expiration Date: 2017-05" + NEWLINE));
+  }
+
+  @Test
+  public void track2AccountNumber() {
+    final BankCardMagneticTrack track =
+        BankCardMagneticTrack.from(";5350290149345177=16042010000056700100?");
+    final String formatted = track.formatTo(new StringBuilder(), FormatVerbosity.Tracks).toString();
+
+    assertThat(formatted, not(containsString("No Primary Account Number")));
+    assertThat(
+        formatted,
+        containsString("  Primary Account Number: " + track.getTrack2().getAccountNumber()));
+    assertThat(formatted, not(containsString("Bank Card Information")));
+  }
+
+  @Test
+  public void tracksWithoutBankCard() {
+    for (final String swipe : swipes) {
+      final BankCardMagneticTrack track = BankCardMagneticTrack.from(swipe);
+      final String tracks = track.formatTo(new StringBuilder(), FormatVerbosity.Tracks).toString();
+      final String full = track.formatTo(new StringBuilder(), FormatVerbosity.Full).toString();
+      assertThat(full.startsWith(tracks), is(true));
+      assertThat(full, is(track.toString()));
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.KeyboardWedgeParser;
+
+public class KeyboardWedgeParserTest {
+
+  private static final String track1 =
+      "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?";
+  private static final String track2 = ";5350290149345177=16042010000056700100?";
+  private static final String track3 = "+6202408082356005=15046200000010000000000004976?";
+
+  private final List<String> track2s = new ArrayList<>();
+  private final List<String> swipes = new ArrayList<>();
+  private final KeyboardWedgeParser parser =
+      new KeyboardWedgeParser(rawData(track2s), rawData(swipes));
+
+  @Test
+  public void badArguments() {
+    assertThrows(NullPointerException.class, () -> new KeyboardWedgeParser(null, rawData(swipes)));
+    assertThrows(NullPointerException.class, () -> new KeyboardWedgeParser(rawData(swipes), null));
+    assertThrows(NullPointerException.class, () -> parser.accept(null));
+  }
+
+  @Test
+  public void blankLine() {
+    parser.accept(track1 + "\r\n" + track2 + "\r\n");
+    assertThat(track2s, contains(track1 + track2));
+    assertThat(swipes, is(empty()));
+
+    parser.accept("  \r\n");
+    assertThat(swipes, contains(track1 + track2));
+
+    // Only track 1, ended by a blank line
+    parser.accept(track1 + "\n\n");
+    assertThat(swipes, contains(track1 + track2, track1));
+    assertThat(track2s.size(), is(1));
+  }
+
+  @Test
+  public void dropped() {
+    parser.accept("%B53502901X9345177^FATEHI/SUALEH^1604201000?");
+    parser.accept("%B5350290149345177^F^1604201000?");
+    parser.accept("%B5350290149345177^FATEHI/SUALEH^16X4201000?");
+    parser.accept("%B53502901493451771234^FATEHI/SUALEH^1604201000?");
+    parser.accept("%ZFATEHI/SUALEH^5350290149345177^1604201000?");
+    parser.accept(";5350290149345177=1604X010000056700100?");
+    parser.accept(";5350290149345177=16042010000056700100");
+    parser.accept(";5350290149345177=160420100000567001000000000000?");
+    parser.accept(";5350290149345177\n=16042010000056700100?");
+    parser.accept(";636294169881005271827?");
+    parser.flush();
+    assertThat(track2s, is(empty()));
+    assertThat(swipes, is(empty()));
+
+    // Parsing picks up again at the next start sentinel
+    parser.accept(";53502901" + track2);
+    assertThat(track2s, contains(track2));
+  }
+
+  @Test
+  public void earlyTrack2() {
+    final String swipe = track1 + "\r\n" + track2 + "\r\n" + track3 + "\r\n";
+    final int track2End = swipe.indexOf(track2) + track2.length();
+    for (int i = 0; i < swipe.length(); i++) {
+      parser.accept(swipe.charAt(i));
+      assertThat(track2s.size(), is(i < track2End - 1 ? 0 : 1));
+    }
+
+    assertThat(track2s, contains(track1 + track2));
+    assertThat(swipes, contains(track1 + track2 + track3));
+  }
+
+  @Test
+  public void flush() {
+    parser.flush();
+    assertThat(swipes, is(empty()));
+
+    parser.accept(track2 + "\n+62024080823");
+    parser.flush();
+    assertThat(swipes, contains(track2));
+  }
+
+  @Test
+  public void nextSwipe() {
+    // A track that cannot follow the tracks already read starts a new swipe
+    parser.accept(track1 + track2 + track1 + track1 + track2);
+    assertThat(track2s, contains(track1 + track2, track1 + track2));
+    assertThat(swipes, contains(track1 + track2, track1));
+  }
+
+  @Test
+  public void shortTracks() {
+    final String shortTrack1 = "%B5350290149345177^FATEHI/SUALEH^1604201?";
+    final String shortTrack2 = ";5350290149345177=1604201?";
+    final String shortTrack3 = "+12?";
+    final List<BankCardMagneticTrack> track2s = new ArrayList<>();
+    final List<BankCardMagneticTrack> swipes = new ArrayList<>();
+    final KeyboardWedgeParser parser = new KeyboardWedgeParser(track2s::add, swipes::add);
+    parser.accept(shortTrack1 + "\n" + shortTrack2 + "\n" + shortTrack3 + "\n\n");
+
+    assertThat(track2s.size(), is(1));
+    assertThat(track2s.get(0).getTrack2().getRawData(), is(shortTrack2));
+    assertThat(swipes.size(), is(1));
+    final BankCardMagneticTrack swipe = swipes.get(0);
+    assertThat(swipe.getTrack1().getRawData(), is(shortTrack1));
+    assertThat(swipe.getTrack2().getRawData(), is(shortTrack2));
+    assertThat(swipe.getTrack2().hasDiscretionaryData(), is(false));
+    assertThat(swipe.getTrack3().getRawData(), is(shortTrack3));
+  }
+
+  @Test
+  public void sameAsParsing() {
+    final String[] rawTrackData = {
+      "%B4181887684889366^FATEHI/SUALEH^1605101097670000000000120000000?;4181887684889366=160510101200009767?",
+      "%B5391285197433215^FATEHI/SUALEH             ^1701101000001540000000154000000?;5391285197433215=17011010000015400000?",
+      "%B379580832431161^ /                        ^1508121140165241?;379580832431161=150812114016524100000?+6202408082356005=15046200000010000000000004976?",
+      "%B378578692630345^ /                        ^1508121140165241?\r\n;378578692630345=150812114016524100000?\r\n+6202608082356005=15046200000010000000000004976?",
+      "%B7083560000013710910^MICHAELS OPEN VALUE CARD  ^8551?;7083560000013710910=8551?",
+      "%B5266092201416174^FATEHI/SUALEH^^^?\n+6202608082356005=15046200000010000000000004976?",
+    };
+    final List<BankCardMagneticTrack> parsed = new ArrayList<>();
+    final KeyboardWedgeParser parser = new KeyboardWedgeParser(track -> {}, parsed::add);
+    for (final String swipe : rawTrackData) {
+      parser.accept(swipe + "\n\n");
+    }
+
+    assertThat(parsed.size(), is(rawTrackData.length));
+    for (int i = 0; i < rawTrackData.length; i++) {
+      // Same as joining the lines that the reader typed, and parsing them
+      final BankCardMagneticTrack expected =
+          BankCardMagneticTrack.from(rawTrackData[i].replaceAll("[\r\n]", ""));
+      final BankCardMagneticTrack actual = parsed.get(i);
+      assertThat(
+          rawTrackData[i], actual.getTrack1().getRawData(), is(expected.getTrack1().getRawData()));
+      assertThat(
+          rawTrackData[i], actual.getTrack2().getRawData(), is(expected.getTrack2().getRawData()));
+      assertThat(
+          rawTrackData[i], actual.getTrack3().getRawData(), is(expected.getTrack3().getRawData()));
+      assertThat(rawTrackData[i], actual.toString(), is(expected.toString()));
+    }
+  }
+
+  private Consumer<BankCardMagneticTrack> rawData(final List<String> rawData) {
+    return track -> rawData.add(track.getRawData());
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.creditcardnumber.ExpirationDate;
+import us.fatehi.creditcardnumber.ServiceCode;
+import us.fatehi.magnetictrack.Track1FormatB;
+import us.fatehi.magnetictrack.Track2;
+
+public class LazyFieldsTest {
+
+  private static final String track1Data =
+      "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?";
+
+  @Test
+  public void concurrentFirstUse() throws Exception {
+    final Track1FormatB track1 = Track1FormatB.from(track1Data);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Callable<ExpirationDate>> tasks = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        tasks.add(track1::getExpirationDate);
+      }
+      final ExpirationDate expirationDate = track1.getExpirationDate();
+      for (final Future<ExpirationDate> result : executor.invokeAll(tasks)) {
+        assertThat(result.get(), is(sameInstance(expirationDate)));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void disposeRawDataBeforeFirstUse() {
+    final Track1FormatB track1 = Track1FormatB.from(track1Data);
+    track1.disposeRawData();
+
+    assertThat(track1.hasRawData(), is(false));
+    assertThat(track1.getName().getFullName(), is("Sualeh Fatehi"));
+    assertThat(track1.getExpirationDate().getExpirationDate(), is(YearMonth.of(2016, 4)));
+    assertThat(track1.getServiceCode().getRawData(), is("201"));
+    assertThat(track1.getAccountNumber().getAccountNumber(), is("5350290149345177"));
+  }
+
+  @Test
+  public void missingFields() {
+    final Track2 track2 = Track2.from("not a track");
+
+    assertThat(track2.getExpirationDate(), is(new ExpirationDate()));
+    assertThat(track2.getServiceCode(), is(new ServiceCode()));
+    assertThat(track2.hasExpirationDate(), is(false));
+    assertThat(track2.hasServiceCode(), is(false));
+  }
+
+  @Test
+  public void disposeFields() {
+    final Track2 track2 = Track2.from(";5350290149345177=16042010000056700100?");
+    track2.getExpirationDate().disposeRawData();
+    track2.getServiceCode().disposeRawData();
+
+    // Fields of other tracks with the same values are not disposed
+    final Track1FormatB track1 = Track1FormatB.from(track1Data);
+    assertThat(track1.getExpirationDate().getRawData(), is("1604"));
+    assertThat(track1.getServiceCode().getRawData(), is("201"));
+    final Track2 parsed = Track2.from(";5350290149345177=16042010000056700100?");
+    assertThat(parsed.getExpirationDate().getRawData(), is("1604"));
+    assertThat(parsed.getServiceCode().getRawData(), is("201"));
+  }
+
+  @Test
+  public void ownFields() {
+    final Track1FormatB track1 = Track1FormatB.from(track1Data);
+    final Track2 track2 = Track2.from(";5350290149345177=16042010000056700100?");
+
+    assertThat(track2.getExpirationDate(), is(not(sameInstance(track1.getExpirationDate()))));
+    assertThat(track2.getExpirationDate(), is(track1.getExpirationDate()));
+    assertThat(track2.getServiceCode(), is(not(sameInstance(track1.getServiceCode()))));
+    assertThat(track2.getServiceCode(), is(track1.getServiceCode()));
+    assertThat(track2.getServiceCode().getRawData(), is("201"));
+    // Missing fields have no raw data, so they are shared
+    assertThat(
+        Track2.from("").getExpirationDate(),
+        is(sameInstance(Track2.from("not a track").getExpirationDate())));
+  }
+
+  @Test
+  public void sameFieldsOnEveryUse() {
+    final Track2 track2 = Track2.from(";5350290149345177=16042010000056700100?");
+
+    assertThat(track2.getExpirationDate(), is(sameInstance(track2.getExpirationDate())));
+    assertThat(track2.getServiceCode(), is(sameInstance(track2.getServiceCode())));
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.apache.commons.lang3.StringUtils.isNumeric;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.MagneticTrackParser;
+import us.fatehi.magnetictrack.Track1Fields;
+import us.fatehi.magnetictrack.Track1Format;
+import us.fatehi.magnetictrack.Track1FormatB;
+import us.fatehi.magnetictrack.Track1Formats;
+import us.fatehi.magnetictrack.Track2;
+import us.fatehi.magnetictrack.Track3;
+import us.fatehi.magnetictrack.TrackVisitor;
+
+public class MagneticTrackParserTest {
+
+  private static final class CountingVisitor implements TrackVisitor {
+
+    private long checksum;
+
+    @Override
+    public void onExpiration(final int track, final int yymm) {
+      checksum += yymm;
+    }
+
+    @Override
+    public void onPan(final int track, final CharSequence pan) {
+      for (int i = 0; i < pan.length(); i++) {
+        checksum += pan.charAt(i);
+      }
+    }
+
+    @Override
+    public void onServiceCode(final int track, final int serviceCode) {
+      checksum += serviceCode;
+    }
+  }
+
+  private static final class RecordingVisitor implements TrackVisitor {
+
+    private final List<String> fields = new ArrayList<>();
+
+    @Override
+    public void onDiscretionary(final int track, final CharSequence discretionaryData) {
+      fields.add(track + " discretionary data: " + discretionaryData);
+    }
+
+    @Override
+    public void onExpiration(final int track, final int yymm) {
+      fields.add(track + " expiration date: " + yymm);
+    }
+
+    @Override
+    public void onFormatCode(final char formatCode) {
+      fields.add("1 format code: " + formatCode);
+    }
+
+    @Override
+    public void onName(final CharSequence name) {
+      fields.add("1 name: " + name);
+    }
+
+    @Override
+    public void onPan(final int track, final CharSequence pan) {
+      fields.add(track + " pan: " + pan);
+    }
+
+    @Override
+    public void onServiceCode(final int track, final int serviceCode) {
+      fields.add(track + " service code: " + serviceCode);
+    }
+
+    @Override
+    public void onTrack(final int track, final CharSequence rawTrackData) {
+      fields.add(track + " track: " + rawTrackData);
+    }
+  }
+
+  private static final String[] tracks = {
+    "",
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?",
+    "%B4181887684889366^FATEHI/SUALEH^1605101097670000000000120000000?;4181887684889366=160510101200009767?",
+    "%B379580832431161^ /                        ^1508121140165241?;379580832431161=150812114016524100000?+6202408082356005=15046200000010000000000004976?",
+    "%B5266092201416174^FATEHI/SUALEH^^^?\n+6202608082356005=15046200000010000000000004976?",
+    "%B7083560000013710910^MICHAELS OPEN VALUE CARD  ^8551?;7083560000013710910=8551?",
+    ";5350290149345177=1604201?",
+    ";636294169881005271827?",
+    "B5266092201416174^FATEHI/SUALEH^16042010000000000000000000000000000567001000",
+  };
+
+  /** Loyalty card format, with a 4 digit expiration date, and no account number or name. */
+  private static final Track1Format loyalty =
+      new Track1Format() {
+
+        @Override
+        public char getFormatCode() {
+          return 'L';
+        }
+
+        @Override
+        public boolean scan(final CharSequence track, final Track1Fields fields) {
+          if (track.length() < 4) {
+            return false;
+          }
+          fields.setExpirationDate(0, 4);
+          fields.setDiscretionaryData(4, track.length());
+          return true;
+        }
+      };
+
+  @AfterEach
+  public void unregister() {
+    Track1Formats.unregister('L');
+  }
+
+  @Test
+  public void allocationFree() {
+    final com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final MagneticTrackParser parser = new MagneticTrackParser();
+    final CountingVisitor visitor = new CountingVisitor();
+    final char[][] chars = new char[tracks.length][];
+    final ByteBuffer[] buffers = new ByteBuffer[tracks.length];
+    for (int i = 0; i < tracks.length; i++) {
+      chars[i] = tracks[i].toCharArray();
+      buffers[i] = ByteBuffer.wrap(tracks[i].getBytes(US_ASCII));
+    }
+
+    for (int i = 0; i < 20_000; i++) {
+      parser.parse(tracks[i % tracks.length], visitor);
+      parser.parse(chars[i % tracks.length], visitor);
+      parser.parse(buffers[i % tracks.length], visitor);
+    }
+
+    final long threadId = Thread.currentThread().getId();
+    final long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 20_000; i++) {
+      parser.parse(tracks[i % tracks.length], visitor);
+      parser.parse(chars[i % tracks.length], visitor);
+      parser.parse(buffers[i % tracks.length], visitor);
+    }
+    final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    // Measuring allocations can itself allocate a little, but nothing like once per swipe
+    assertThat(allocated, is(lessThan(60_000L)));
+  }
+
+  @Test
+  public void fields() {
+    final MagneticTrackParser parser = new MagneticTrackParser();
+    for (final String track : tracks) {
+      final RecordingVisitor stringVisitor = new RecordingVisitor();
+      parser.parse(track, stringVisitor);
+      assertThat(track, stringVisitor.fields, is(expectedFields(track)));
+
+      final RecordingVisitor charsVisitor = new RecordingVisitor();
+      parser.parse(track.toCharArray(), charsVisitor);
+      assertThat(track, charsVisitor.fields, is(stringVisitor.fields));
+
+      final RecordingVisitor bytesVisitor = new RecordingVisitor();
+      parser.parse(ByteBuffer.wrap(track.getBytes(US_ASCII)), bytesVisitor);
+      assertThat(track, bytesVisitor.fields, is(stringVisitor.fields));
+    }
+  }
+
+  @Test
+  public void missingFields() {
+    Track1Formats.register(loyalty);
+
+    final RecordingVisitor visitor = new RecordingVisitor();
+    new MagneticTrackParser().parse("%L1604MEMBER0042?", visitor);
+    assertThat(
+        visitor.fields,
+        is(
+            List.of(
+                "1 track: %L1604MEMBER0042?",
+                "1 format code: L",
+                "1 expiration date: 1604",
+                "1 discretionary data: MEMBER0042")));
+  }
+
+  @Test
+  public void noVisitorMethods() {
+    final MagneticTrackParser parser = new MagneticTrackParser();
+    parser.parse(tracks[3], new TrackVisitor() {});
+    parser.parse((String) null, new TrackVisitor() {});
+  }
+
+  private List<String> expectedFields(final String rawTrackData) {
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from(rawTrackData);
+    final List<String> fields = new ArrayList<>();
+
+    final Track1FormatB track1 = track.getTrack1();
+    if (track1.hasRawData()) {
+      fields.add("1 track: " + track1.getRawData());
+      fields.add("1 format code: " + track1.getFormatCode());
+      fields.add("1 pan: " + track1.getAccountNumber().getAccountNumber());
+      fields.add("1 name: " + track1.getName().getRawData());
+      if (isNumeric(track1.getExpirationDate().getRawData())) {
+        fields.add("1 expiration date: " + Integer.parseInt(track1.getExpirationDate().getRawData()));
+      }
+      if (isNumeric(track1.getServiceCode().getRawData())) {
+        fields.add("1 service code: " + Integer.parseInt(track1.getServiceCode().getRawData()));
+      }
+      if (track1.hasDiscretionaryData()) {
+        fields.add("1 discretionary data: " + track1.getDiscretionaryData());
+      }
+    }
+
+    final Track2 track2 = track.getTrack2();
+    if (track2.hasRawData()) {
+      fields.add("2 track: " + track2.getRawData());
+      fields.add("2 pan: " + track2.getAccountNumber().getAccountNumber());
+      fields.add("2 expiration date: " + Integer.parseInt(track2.getExpirationDate().getRawData()));
+      fields.add("2 service code: " + Integer.parseInt(track2.getServiceCode().getRawData()));
+      if (track2.hasDiscretionaryData()) {
+        fields.add("2 discretionary data: " + track2.getDiscretionaryData());
+      }
+    }
+
+    final Track3 track3 = track.getTrack3();
+    if (track3.hasRawData()) {
+      fields.add("3 track: " + track3.getRawData());
+      if (track3.hasDiscretionaryData()) {
+        fields.add("3 discretionary data: " + track3.getDiscretionaryData());
+      }
+    }
+    return fields;
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.BatchParser;
+import us.fatehi.magnetictrack.MaskedTrackData;
+import us.fatehi.magnetictrack.TrackFileReader;
+
+public class MaskedTrackDataTest {
+
+  private static final String[] swipes = {
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?",
+    "%B379580832431161^ /                        ^1508121140165241?;379580832431161=150812114016524100000?+6202408082356005=15046200000010000000000004976?",
+    "%B7083560000013710910^MICHAELS OPEN VALUE CARD  ^8551?;7083560000013710910=8551?",
+    ";5350290149345177=16042010000056700100?",
+    "not a card swipe at all",
+  };
+
+  @Test
+  public void batch() {
+    final List<MaskedTrackData> masked = BatchParser.maskAll(swipes);
+
+    assertThat(masked.size(), is(swipes.length));
+    for (int i = 0; i < swipes.length; i++) {
+      assertThat(masked.get(i).getRawData(), is(MaskedTrackData.from(swipes[i]).getRawData()));
+    }
+  }
+
+  @Test
+  public void expirationDateAndServiceCode() {
+    final MaskedTrackData masked = MaskedTrackData.from(swipes[0]);
+    assertThat(masked.getExpirationDate().getExpirationDate(), is(YearMonth.of(2016, 4)));
+    assertThat(masked.getServiceCode().getRawData(), is("201"));
+
+    // Track 2 has the fields that track 1 does not
+    final MaskedTrackData track2 =
+        MaskedTrackData.from("%B5266092201416174^FATEHI/SUALEH^^^?;5266092201416174=1701101?");
+    assertThat(track2.getExpirationDate().getExpirationDate(), is(YearMonth.of(2017, 1)));
+    assertThat(track2.getServiceCode().getRawData(), is("101"));
+
+    final MaskedTrackData none = MaskedTrackData.from(swipes[4]);
+    assertThat(none.getExpirationDate().hasExpirationDate(), is(false));
+    assertThat(none.getServiceCode().hasServiceCode(), is(false));
+  }
+
+  @Test
+  public void inputForms() {
+    for (final String swipe : swipes) {
+      final String masked = MaskedTrackData.from(swipe).getRawData();
+      assertThat(MaskedTrackData.from(swipe.toCharArray()).getRawData(), is(masked));
+      assertThat(
+          MaskedTrackData.from(ByteBuffer.wrap(swipe.getBytes(US_ASCII))).getRawData(),
+          is(masked));
+    }
+  }
+
+  @Test
+  public void noAccountNumberInOutput() {
+    for (final String swipe : swipes) {
+      final BankCardMagneticTrack track = BankCardMagneticTrack.from(swipe);
+      final MaskedTrackData masked = MaskedTrackData.from(swipe);
+      if (track.getTrack2().hasAccountNumber()) {
+        final String pan = track.getTrack2().getAccountNumber().getAccountNumber();
+        assertThat(masked.getRawData(), not(containsString(pan)));
+        assertThat(masked.getAccountNumber().length(), is(pan.length()));
+      }
+      final String discretionaryData = track.getTrack2().getDiscretionaryData();
+      if (discretionaryData != null && discretionaryData.length() > 4) {
+        assertThat(masked.getRawData(), not(containsString(discretionaryData)));
+      }
+    }
+  }
+
+  @Test
+  public void noTracks() {
+    final MaskedTrackData masked = MaskedTrackData.from("5350290149345177");
+
+    assertThat(masked.hasAccountNumber(), is(false));
+    assertThat(masked.getAccountNumber(), is(""));
+    assertThat(masked.getRawData(), is(""));
+    assertThat(masked.getTrack1(), is(nullValue()));
+    assertThat(masked.getTrack2(), is(nullValue()));
+    assertThat(masked.getTrack3(), is(nullValue()));
+  }
+
+  @Test
+  public void shortAccountNumber() {
+    final MaskedTrackData masked = MaskedTrackData.from(";1234567890=1604201?");
+
+    assertThat(masked.getAccountNumber(), is("******7890"));
+    assertThat(masked.getTrack2(), is(";******7890=1604201?"));
+  }
+
+  @Test
+  public void stream(@TempDir final Path directory) throws Exception {
+    final Path file = directory.resolve("swipes.txt");
+    Files.write(file, List.of(swipes), US_ASCII);
+
+    final List<String> expected =
+        Stream.of(swipes)
+            .map(swipe -> MaskedTrackData.from(swipe).getRawData())
+            .collect(Collectors.toList());
+    try (TrackFileReader reader = TrackFileReader.open(file)) {
+      assertThat(
+          reader.maskedStream().map(MaskedTrackData::getRawData).collect(Collectors.toList()),
+          is(expected));
+    }
+  }
+
+  @Test
+  public void track3() {
+    final MaskedTrackData masked =
+        MaskedTrackData.from("+6202408082356005=15046200000010000000000004976?");
+
+    assertThat(masked.hasAccountNumber(), is(false));
+    assertThat(masked.getTrack3(), is("+" + "*".repeat(46) + "?"));
+  }
+
+  @Test
+  public void tracks1And2() {
+    final MaskedTrackData masked = MaskedTrackData.from(swipes[0]);
+
+    assertThat(masked.hasAccountNumber(), is(true));
+    assertThat(masked.getAccountNumber(), is("535029******5177"));
+    assertThat(
+        masked.getTrack1(),
+        is("%B535029******5177^FATEHI/SUALEH^1604201" + "*".repeat(37) + "?"));
+    assertThat(masked.getTrack2(), is(";535029******5177=1604201" + "*".repeat(13) + "?"));
+    assertThat(masked.getTrack3(), is(nullValue()));
+    assertThat(masked.getRawData(), is(masked.getTrack1() + masked.getTrack2()));
+    assertThat(masked.toString(), is(masked.getRawData()));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.ParseLimits;
+import us.fatehi.magnetictrack.ParseOutcome;
+import us.fatehi.magnetictrack.Track1FormatB;
+import us.fatehi.magnetictrack.Track2;
+import us.fatehi.magnetictrack.Track3;
+import us.fatehi.magnetictrack.TrackFailure;
+
+public class ParseLimitsTest {
+
+  private static final String swipe =
+      "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?";
+
+  @AfterEach
+  public void resetLimits() {
+    ParseLimits.setMaximumInputLength(ParseLimits.DEFAULT_MAXIMUM_INPUT_LENGTH);
+  }
+
+  @Test
+  public void badLimit() {
+    assertThrows(IllegalArgumentException.class, () -> ParseLimits.setMaximumInputLength(-1));
+  }
+
+  @Test
+  public void garbage() {
+    final String garbage = ";1=1234567" + "0".repeat(10_000) + "?";
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from(garbage);
+    assertThat(track.getTrack1().hasRawData(), is(false));
+    assertThat(track.getTrack2().hasRawData(), is(false));
+    assertThat(track.getTrack3().hasRawData(), is(false));
+    assertThat(track.hasRawData(), is(false));
+    assertThat(Track2.parse(garbage).getFailure(), is(TrackFailure.InputTooLong));
+
+    // Without the input limit, the track limit still rejects it
+    ParseLimits.setMaximumInputLength(Integer.MAX_VALUE);
+    final ParseOutcome<Track2> outcome = Track2.parse(garbage);
+    assertThat(outcome.isMatched(), is(false));
+    assertThat(outcome.getFailure(), is(TrackFailure.TrackTooLong));
+  }
+
+  @Test
+  public void maximumInputLength() {
+    ParseLimits.setMaximumInputLength(swipe.length() - 1);
+    assertThat(BankCardMagneticTrack.from(swipe).getTrack2().hasRawData(), is(false));
+    assertThat(Track1FormatB.parse(swipe).getFailure(), is(TrackFailure.InputTooLong));
+
+    ParseLimits.setMaximumInputLength(swipe.length());
+    assertThat(BankCardMagneticTrack.from(swipe).getTrack2().hasRawData(), is(true));
+  }
+
+  @Test
+  public void maximumTrackLengths() {
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from(swipe);
+    assertThat(track.getTrack1().exceedsMaximumLength(), is(false));
+    assertThat(track.exceedsMaximumLength(), is(false));
+
+    final String track3 = "+" + "0".repeat(Track3.MAXIMUM_LENGTH - 2) + "?";
+    assertThat(Track3.from(track3).exceedsMaximumLength(), is(false));
+    assertThat(Track3.from("0" + track3).hasRawData(), is(true));
+    assertThat(Track3.parse("+0" + track3).getFailure(), is(TrackFailure.TrackTooLong));
+  }
+}
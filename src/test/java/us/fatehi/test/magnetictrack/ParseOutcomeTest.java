@@ -0,0 +1,78 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.ParseOutcome;
+import us.fatehi.magnetictrack.Track1FormatB;
+import us.fatehi.magnetictrack.Track2;
+import us.fatehi.magnetictrack.Track3;
+import us.fatehi.magnetictrack.TrackFailure;
+import us.fatehi.magnetictrack.TrackOutcome;
+
+public class ParseOutcomeTest {
+
+  @Test
+  public void matched() {
+    final String rawTrackData =
+        "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?";
+
+    final ParseOutcome<Track1FormatB> track1 = Track1FormatB.parse(rawTrackData);
+    assertThat(track1.isMatched(), is(true));
+    assertThat(track1.getOutcome(), is(TrackOutcome.Matched));
+    assertThat(track1.getFailure(), is(nullValue()));
+    assertThat(track1.getFailureOffset(), is(-1));
+    assertThat(track1.getTrack().getName().getFullName(), is("Sualeh Fatehi"));
+
+    final ParseOutcome<Track2> track2 = Track2.parse(rawTrackData);
+    assertThat(track2.isMatched(), is(true));
+    assertThat(track2.getTrack().getAccountNumber().getAccountNumber(), is("5350290149345177"));
+    assertThat(track2.toString(), is("Matched"));
+  }
+
+  @Test
+  public void malformed() {
+    final ParseOutcome<Track2> truncated = Track2.parse(";5350290149345177=1604201000005670");
+    assertThat(truncated.isMatched(), is(false));
+    assertThat(truncated.getOutcome(), is(TrackOutcome.Malformed));
+    assertThat(truncated.getFailure(), is(TrackFailure.MissingEndSentinel));
+    assertThat(truncated.getFailureOffset(), is(34));
+    assertThat(truncated.getTrack().hasRawData(), is(false));
+
+    final ParseOutcome<Track2> misread = Track2.parse(";5350290149345177=16O42010000056700100?");
+    assertThat(misread.getFailure(), is(TrackFailure.InvalidExpirationDate));
+    assertThat(misread.getFailureOffset(), is(20));
+    assertThat(misread.toString(), is("Malformed InvalidExpirationDate at 20"));
+
+    final ParseOutcome<Track1FormatB> tooLong =
+        Track1FormatB.parse("%B53502901493451771234^FATEHI/SUALEH^1604201?");
+    assertThat(tooLong.getFailure(), is(TrackFailure.AccountNumberTooLong));
+    assertThat(tooLong.getFailureOffset(), is(21));
+
+    final ParseOutcome<Track3> track3 = Track3.parse("+6202408082356005=1504620000001");
+    assertThat(track3.getFailure(), is(TrackFailure.MissingEndSentinel));
+    assertThat(track3.getFailureOffset(), is(31));
+  }
+
+  @Test
+  public void notPresent() {
+    for (final String rawTrackData : new String[] {null, "", "not a card swipe"}) {
+      final ParseOutcome<Track2> track2 = Track2.parse(rawTrackData);
+      assertThat(track2.isMatched(), is(false));
+      assertThat(track2.getOutcome(), is(TrackOutcome.NotPresent));
+      assertThat(track2.getFailure(), is(nullValue()));
+      assertThat(track2.getFailureOffset(), is(-1));
+      assertThat(track2.getTrack().hasRawData(), is(false));
+    }
+  }
+}
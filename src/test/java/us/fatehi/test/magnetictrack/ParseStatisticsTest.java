@@ -0,0 +1,102 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.ParseListeners;
+import us.fatehi.magnetictrack.ParseStatistics;
+import us.fatehi.magnetictrack.Track2;
+import us.fatehi.magnetictrack.TrackFailure;
+import us.fatehi.magnetictrack.TrackOutcome;
+
+public class ParseStatisticsTest {
+
+  private ParseStatistics statistics;
+
+  @BeforeEach
+  public void register() {
+    statistics = new ParseStatistics();
+    ParseListeners.register(statistics);
+  }
+
+  @AfterEach
+  public void unregister() {
+    ParseListeners.unregister();
+  }
+
+  @Test
+  public void invalidTrack() {
+    assertThrows(
+        IllegalArgumentException.class, () -> statistics.getCount(0, TrackOutcome.Matched));
+    assertThrows(IllegalArgumentException.class, () -> statistics.getElapsedHistogram(4));
+  }
+
+  @Test
+  public void noListener() {
+    ParseListeners.unregister();
+    BankCardMagneticTrack.from(";5350290149345177=16042010000056700100?");
+
+    assertThat(statistics.getSwipeCount(), is(0L));
+    assertThat(statistics.getCount(2, TrackOutcome.Matched), is(0L));
+  }
+
+  @Test
+  public void reset() {
+    BankCardMagneticTrack.from(";5350290149345177=16042010000056700100?");
+    statistics.reset();
+
+    assertThat(statistics.getSwipeCount(), is(0L));
+    assertThat(statistics.getCount(2, TrackOutcome.Matched), is(0L));
+    assertThat(LongStream.of(statistics.getInputLengthHistogram(2)).sum(), is(0L));
+  }
+
+  @Test
+  public void swipes() {
+    BankCardMagneticTrack.from(
+        "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?");
+    BankCardMagneticTrack.from(";5350290149345177=16X?");
+    BankCardMagneticTrack.from("not a card swipe at all");
+
+    assertThat(statistics.getSwipeCount(), is(3L));
+    assertThat(LongStream.of(statistics.getSwipeElapsedHistogram()).sum(), is(3L));
+
+    assertThat(statistics.getCount(1, TrackOutcome.Matched), is(1L));
+    assertThat(statistics.getCount(1, TrackOutcome.NotPresent), is(2L));
+    assertThat(statistics.getCount(2, TrackOutcome.Matched), is(1L));
+    assertThat(statistics.getCount(2, TrackOutcome.Malformed), is(1L));
+    assertThat(statistics.getCount(2, TrackOutcome.NotPresent), is(1L));
+    assertThat(statistics.getFailureCount(2, TrackFailure.InvalidExpirationDate), is(1L));
+    assertThat(statistics.getCount(3, TrackOutcome.NotPresent), is(3L));
+
+    for (int track = 1; track <= 3; track++) {
+      assertThat(LongStream.of(statistics.getElapsedHistogram(track)).sum(), is(3L));
+      assertThat(LongStream.of(statistics.getInputLengthHistogram(track)).sum(), is(3L));
+    }
+  }
+
+  @Test
+  public void track() {
+    Track2.from(";5350290149345177=16042010000056700100");
+
+    assertThat(statistics.getSwipeCount(), is(0L));
+    assertThat(statistics.getCount(2, TrackOutcome.Malformed), is(1L));
+    assertThat(statistics.getFailureCount(2, TrackFailure.MissingEndSentinel), is(1L));
+    // 38 characters is in the bucket from 32 up to 64
+    assertThat(statistics.getInputLengthHistogram(2)[6], is(1L));
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_1;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_2;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_3;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.Track1FormatB;
+import us.fatehi.magnetictrack.Track2;
+import us.fatehi.magnetictrack.Track3;
+
+public class QuickCheckTest {
+
+  private static final String[] tracks = {
+    "",
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?",
+    "%B379580832431161^ /                        ^1508121140165241?;379580832431161=150812114016524100000?+6202408082356005=15046200000010000000000004976?",
+    "%B5266092201416174^FATEHI/SUALEH^^^?\n+6202608082356005=15046200000010000000000004976?",
+    "%B5266092201416174999999999999999999^FATEHI/SUALEH^16042010000000000000000000000000000567001000?",
+    ";5266092201416174=16042010000056700100somelong12345678901234567890",
+    ";5266092201416174=1604201?",
+    "+6202608082356005=15046200000010000000000004976?",
+    "B5266092201416174^FATEHI/SUALEH^16042010000000000000000000000000000567001000",
+    "%B5350290149345177^F^16042010000000000000000000000000000567001000?",
+  };
+
+  @Test
+  public void allocationFree() {
+    final com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final char[][] chars = new char[tracks.length][];
+    for (int i = 0; i < tracks.length; i++) {
+      chars[i] = tracks[i].toCharArray();
+    }
+
+    int checksum = 0;
+    for (int i = 0; i < 20_000; i++) {
+      checksum += BankCardMagneticTrack.quickCheck(tracks[i % tracks.length]);
+      checksum += BankCardMagneticTrack.quickCheck(chars[i % tracks.length]);
+    }
+
+    final long threadId = Thread.currentThread().getId();
+    final long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 20_000; i++) {
+      checksum += BankCardMagneticTrack.quickCheck(tracks[i % tracks.length]);
+      checksum += BankCardMagneticTrack.quickCheck(chars[i % tracks.length]);
+    }
+    final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    assertThat(checksum > 0, is(true));
+    // Measuring allocations can itself allocate a little, but nothing like once per swipe
+    assertThat(allocated, is(lessThan(40_000L)));
+  }
+
+  @Test
+  public void noData() {
+    assertThat(BankCardMagneticTrack.quickCheck((String) null), is(0));
+    assertThat(BankCardMagneticTrack.quickCheck((char[]) null), is(0));
+    assertThat(BankCardMagneticTrack.quickCheck((ByteBuffer) null), is(0));
+    assertThat(Track1FormatB.isWellFormed(null), is(false));
+    assertThat(Track2.isWellFormed(null), is(false));
+    assertThat(Track3.isWellFormed(null), is(false));
+  }
+
+  @Test
+  public void sameAsParsing() {
+    for (final String track : tracks) {
+      final BankCardMagneticTrack parsed = BankCardMagneticTrack.from(track);
+      int expected = 0;
+      if (parsed.getTrack1().hasRawData()) {
+        expected |= TRACK_1;
+      }
+      if (parsed.getTrack2().hasRawData()) {
+        expected |= TRACK_2;
+      }
+      if (parsed.getTrack3().hasRawData()) {
+        expected |= TRACK_3;
+      }
+
+      assertThat(track, BankCardMagneticTrack.quickCheck(track), is(expected));
+      assertThat(track, BankCardMagneticTrack.quickCheck(track.toCharArray()), is(expected));
+      assertThat(
+          track,
+          BankCardMagneticTrack.quickCheck(ByteBuffer.wrap(track.getBytes(US_ASCII))),
+          is(expected));
+      assertThat(track, Track1FormatB.isWellFormed(track), is((expected & TRACK_1) != 0));
+      assertThat(track, Track2.isWellFormed(track), is((expected & TRACK_2) != 0));
+      assertThat(track, Track3.isWellFormed(track), is((expected & TRACK_3) != 0));
+    }
+  }
+}
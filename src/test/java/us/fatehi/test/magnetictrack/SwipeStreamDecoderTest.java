@@ -0,0 +1,187 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_1;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_2;
+import static us.fatehi.magnetictrack.BankCardMagneticTrack.TRACK_3;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.SwipeStreamDecoder;
+
+public class SwipeStreamDecoderTest {
+
+  private static final String track1 =
+      "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?";
+  private static final String track2 = ";5350290149345177=16042010000056700100?";
+  private static final String track3 = "+6202408082356005=15046200000010000000000004976?";
+
+  private static final String otherTrack1 =
+      "%B4181887684889366^FATEHI/SUALEH^1605101097670000000000120000000?";
+  private static final String otherTrack2 = ";4181887684889366=160510101200009767?";
+
+  private final List<String> swipes = new ArrayList<>();
+
+  @Test
+  public void badArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new SwipeStreamDecoder(0, swipes()));
+    assertThrows(IllegalArgumentException.class, () -> new SwipeStreamDecoder(8, swipes()));
+    assertThrows(NullPointerException.class, () -> new SwipeStreamDecoder(TRACK_2, null));
+
+    final SwipeStreamDecoder decoder = new SwipeStreamDecoder(TRACK_2, swipes());
+    assertThrows(NullPointerException.class, () -> decoder.decode((ByteBuffer) null));
+    assertThrows(NullPointerException.class, () -> decoder.decode((char[]) null));
+    assertThrows(IndexOutOfBoundsException.class, () -> decoder.decode(new char[4], 2, 3));
+  }
+
+  @Test
+  public void backToBack() {
+    final String stream = track1 + track2 + otherTrack1 + otherTrack2 + track1 + track2;
+    final SwipeStreamDecoder decoder = new SwipeStreamDecoder(TRACK_1 | TRACK_2, swipes());
+    decoder.decode(stream.toCharArray());
+
+    assertThat(swipes, contains(track1 + track2, otherTrack1 + otherTrack2, track1 + track2));
+  }
+
+  @Test
+  public void chunks() {
+    final String stream = track1 + "\r\n" + track2 + "\r\n" + track3 + otherTrack1 + otherTrack2;
+    final byte[] bytes = stream.getBytes(US_ASCII);
+
+    // Swipes come out the same, wherever the stream is split
+    for (int size = 1; size <= bytes.length; size++) {
+      swipes.clear();
+      final SwipeStreamDecoder decoder =
+          new SwipeStreamDecoder(TRACK_1 | TRACK_2 | TRACK_3, swipes());
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+      for (int i = 0; i < bytes.length; i += size) {
+        buffer.clear();
+        buffer.put(bytes, i, Math.min(size, bytes.length - i));
+        buffer.flip();
+        decoder.decode(buffer);
+        assertThat(buffer.hasRemaining(), is(false));
+      }
+      assertThat(swipes, contains(track1 + track2 + track3));
+
+      decoder.flush();
+      assertThat(swipes, contains(track1 + track2 + track3, otherTrack1 + otherTrack2));
+    }
+  }
+
+  @Test
+  public void emittedOnLastTrack() {
+    final SwipeStreamDecoder decoder = new SwipeStreamDecoder(TRACK_1 | TRACK_2, swipes());
+    final char[] chars = (track1 + track2).toCharArray();
+    decoder.decode(chars, 0, chars.length - 1);
+    assertThat(swipes, is(empty()));
+
+    decoder.decode(chars, chars.length - 1, 1);
+    assertThat(swipes, contains(track1 + track2));
+  }
+
+  @Test
+  public void flush() {
+    final SwipeStreamDecoder decoder = new SwipeStreamDecoder(TRACK_1 | TRACK_2, swipes());
+    decoder.flush();
+    assertThat(swipes, is(empty()));
+
+    decoder.decode((track1 + ";53502901").toCharArray());
+    decoder.flush();
+    assertThat(swipes, contains(track1));
+
+    decoder.flush();
+    assertThat(swipes, contains(track1));
+  }
+
+  @Test
+  public void missingTracks() {
+    // A swipe without its last track is passed on when the next swipe starts
+    final String stream = track1 + otherTrack1 + otherTrack2 + track2 + track2;
+    final SwipeStreamDecoder decoder = new SwipeStreamDecoder(TRACK_1 | TRACK_2, swipes());
+    decoder.decode(stream.toCharArray());
+
+    assertThat(swipes, contains(track1, otherTrack1 + otherTrack2, track2, track2));
+  }
+
+  @Test
+  public void resynchronize() {
+    final String stream =
+        "garbage\r\n"
+            + "%B53502901493"
+            + otherTrack1
+            + ";5350290149345177=1604\r\n"
+            + otherTrack2
+            + ";"
+            + "0".repeat(100)
+            + "?junk"
+            + track1
+            + ";5350\u00ff"
+            + track2
+            + "%"
+            + "A".repeat(200)
+            + "?"
+            + track1
+            + track2;
+    final SwipeStreamDecoder decoder = new SwipeStreamDecoder(TRACK_1 | TRACK_2, swipes());
+    decoder.decode(ByteBuffer.wrap(stream.getBytes(ISO_8859_1)));
+    decoder.flush();
+
+    assertThat(swipes, contains(otherTrack1 + otherTrack2, track1 + track2, track1 + track2));
+  }
+
+  @Test
+  public void shortTracks() {
+    final String shortTrack1 = "%B5350290149345177^FATEHI/SUALEH^1604201?";
+    final String shortTrack2 = ";5350290149345177=1604201?";
+    final String shortTrack3 = "+12?";
+    final List<BankCardMagneticTrack> tracks = new ArrayList<>();
+    final SwipeStreamDecoder decoder =
+        new SwipeStreamDecoder(TRACK_1 | TRACK_2 | TRACK_3, tracks::add);
+    decoder.decode((shortTrack1 + shortTrack2 + shortTrack3).toCharArray());
+
+    assertThat(tracks.size(), is(1));
+    final BankCardMagneticTrack track = tracks.get(0);
+    assertThat(track.getRawData(), is(shortTrack1 + shortTrack2 + shortTrack3));
+    assertThat(track.getTrack1().getRawData(), is(shortTrack1));
+    assertThat(track.getTrack2().getRawData(), is(shortTrack2));
+    assertThat(track.getTrack2().hasDiscretionaryData(), is(false));
+    assertThat(track.getTrack3().getRawData(), is(shortTrack3));
+  }
+
+  @Test
+  public void tracks() {
+    final List<BankCardMagneticTrack> tracks = new ArrayList<>();
+    final SwipeStreamDecoder decoder = new SwipeStreamDecoder(TRACK_2, tracks::add);
+    decoder.decode((track2 + otherTrack2).toCharArray());
+
+    assertThat(tracks.size(), is(2));
+    assertThat(
+        tracks.get(0).getTrack2().getAccountNumber().getAccountNumber(), is("5350290149345177"));
+    assertThat(
+        tracks.get(1).getTrack2().getAccountNumber().getAccountNumber(), is("4181887684889366"));
+    assertThat(tracks.get(1).getTrack1().hasRawData(), is(false));
+  }
+
+  private Consumer<BankCardMagneticTrack> swipes() {
+    return track -> swipes.add(track.getRawData());
+  }
+}
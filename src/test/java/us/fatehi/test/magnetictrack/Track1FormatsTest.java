@@ -0,0 +1,179 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.DelimitedTrack1Format;
+import us.fatehi.magnetictrack.ParseOutcome;
+import us.fatehi.magnetictrack.Track1Field;
+import us.fatehi.magnetictrack.Track1Fields;
+import us.fatehi.magnetictrack.Track1Format;
+import us.fatehi.magnetictrack.Track1FormatB;
+import us.fatehi.magnetictrack.Track1Formats;
+import us.fatehi.magnetictrack.TrackFailure;
+import us.fatehi.magnetictrack.TrackOutcome;
+
+public class Track1FormatsTest {
+
+  private static final String formatA =
+      "%AFATEHI/SUALEH^5350290149345177^1604^201^0000567001000?;5350290149345177=16042010000056700100?";
+
+  private static final DelimitedTrack1Format nameFirst =
+      new DelimitedTrack1Format(
+          'A',
+          '^',
+          Track1Field.Name,
+          Track1Field.AccountNumber,
+          Track1Field.ExpirationDate,
+          Track1Field.ServiceCode,
+          Track1Field.DiscretionaryData);
+
+  /** Fixed width format, with a 16 digit account number, and a 4 digit expiration date. */
+  private static final Track1Format fixedWidth =
+      new Track1Format() {
+
+        @Override
+        public char getFormatCode() {
+          return 'P';
+        }
+
+        @Override
+        public boolean scan(final CharSequence track, final Track1Fields fields) {
+          if (track.length() < 20) {
+            return fields.fail(TrackFailure.MissingEndSentinel, track.length());
+          }
+          fields.setAccountNumber(0, 16);
+          fields.setExpirationDate(16, 20);
+          fields.setDiscretionaryData(20, track.length());
+          return true;
+        }
+      };
+
+  @AfterEach
+  public void unregister() {
+    Track1Formats.unregister('A');
+    Track1Formats.unregister('B');
+    Track1Formats.unregister('P');
+  }
+
+  @Test
+  public void badFormats() {
+    assertThrows(IllegalArgumentException.class, () -> Track1Formats.unregister('b'));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new DelimitedTrack1Format('1', '^', Track1Field.AccountNumber));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new DelimitedTrack1Format('A', '?', Track1Field.AccountNumber));
+    assertThrows(IllegalArgumentException.class, () -> new DelimitedTrack1Format('A', '^'));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new DelimitedTrack1Format('A', '^', Track1Field.Name, Track1Field.Name));
+  }
+
+  @Test
+  public void delimited() {
+    Track1Formats.register(nameFirst);
+
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from(formatA);
+    final Track1FormatB track1 = track.getTrack1();
+    assertThat(track1.getRawData(), is(formatA.substring(0, formatA.indexOf('?') + 1)));
+    assertThat(track1.getFormatCode(), is("A"));
+    assertThat(track1.getAccountNumber().getAccountNumber(), is("5350290149345177"));
+    assertThat(track1.getName().getLastName(), is("Fatehi"));
+    assertThat(track1.getExpirationDate().getExpirationDate(), is(YearMonth.of(2016, 4)));
+    assertThat(track1.getServiceCode().getRawData(), is("201"));
+    assertThat(track1.getDiscretionaryData(), is("0000567001000"));
+    assertThat(track.getTrack2().hasRawData(), is(true));
+
+    // Expiration date and service code can be left off
+    final Track1FormatB noDates = Track1FormatB.from("%ASUALEH FATEHI^5350290149345177^^^?");
+    assertThat(noDates.hasRawData(), is(true));
+    assertThat(noDates.getAccountNumber().getAccountNumber(), is("5350290149345177"));
+    assertThat(noDates.getExpirationDate().hasExpirationDate(), is(false));
+    assertThat(noDates.getServiceCode().hasServiceCode(), is(false));
+  }
+
+  @Test
+  public void delimitedFailures() {
+    Track1Formats.register(nameFirst);
+
+    checkFailure(
+        "%AFATEHI/SUALEH^53502901X9345177^1604^201^?", TrackFailure.InvalidAccountNumber, 24);
+    checkFailure(
+        "%AFATEHI/SUALEH^5350290149345177^16X4^201^?", TrackFailure.InvalidExpirationDate, 35);
+    checkFailure(
+        "%AFATEHI/SUALEH^5350290149345177^1604^20^?", TrackFailure.InvalidServiceCode, 40);
+    checkFailure("%AFATEHI/SUALEH^5350290149345177?", TrackFailure.InvalidSeparator, 32);
+    checkFailure(
+        "%AFATEHI/SUALEH^53502901493451771234^1604^201^?", TrackFailure.AccountNumberTooLong, 35);
+    checkFailure("%AF^5350290149345177^1604^201^?", TrackFailure.InvalidName, 2);
+    checkFailure("%A^5350290149345177^1604^201^?", TrackFailure.InvalidName, 2);
+    checkFailure(
+        "%A" + "F".repeat(27) + "^5350290149345177^1604^201^?", TrackFailure.InvalidName, 28);
+  }
+
+  @Test
+  public void replaceFormatB() {
+    final String swipe = "%B5350290149345177^FATEHI/SUALEH^1604201000?";
+    Track1Formats.register(
+        new DelimitedTrack1Format(
+            'B', '^', Track1Field.AccountNumber, Track1Field.DiscretionaryData));
+    final Track1FormatB replaced = Track1FormatB.from(swipe);
+    assertThat(replaced.hasName(), is(false));
+    assertThat(replaced.getDiscretionaryData(), is("FATEHI/SUALEH^1604201000"));
+
+    Track1Formats.unregister('B');
+    assertThat(Track1FormatB.from(swipe).getName().getRawData(), is("FATEHI/SUALEH"));
+  }
+
+  @Test
+  public void unsupported() {
+    final ParseOutcome<Track1FormatB> outcome = Track1FormatB.parse(formatA);
+    assertThat(outcome.getOutcome(), is(TrackOutcome.Malformed));
+    assertThat(outcome.getFailure(), is(TrackFailure.UnsupportedFormatCode));
+    assertThat(outcome.getFailureOffset(), is(1));
+    assertThat(BankCardMagneticTrack.from(formatA).getTrack2().hasRawData(), is(true));
+
+    Track1Formats.register(nameFirst);
+    assertThat(Track1FormatB.parse(formatA).isMatched(), is(true));
+    Track1Formats.unregister('A');
+    assertThat(Track1FormatB.parse(formatA).isMatched(), is(false));
+  }
+
+  @Test
+  public void userFormat() {
+    Track1Formats.register(fixedWidth);
+
+    final Track1FormatB track1 = Track1FormatB.from("%P53502901493451771604LOYALTY?");
+    assertThat(track1.getFormatCode(), is("P"));
+    assertThat(track1.getAccountNumber().getAccountNumber(), is("5350290149345177"));
+    assertThat(track1.getExpirationDate().getExpirationDate(), is(YearMonth.of(2016, 4)));
+    assertThat(track1.hasName(), is(false));
+    assertThat(track1.getDiscretionaryData(), is("LOYALTY"));
+
+    final ParseOutcome<Track1FormatB> outcome = Track1FormatB.parse("%P5350290149?");
+    assertThat(outcome.getFailure(), is(TrackFailure.MissingEndSentinel));
+    assertThat(outcome.getFailureOffset(), is(12));
+  }
+
+  private void checkFailure(final String swipe, final TrackFailure failure, final int offset) {
+    final ParseOutcome<Track1FormatB> outcome = Track1FormatB.parse(swipe);
+    assertThat(swipe, outcome.getFailure(), is(failure));
+    assertThat(swipe, outcome.getFailureOffset(), is(offset));
+  }
+}
@@ -0,0 +1,309 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.creditcardnumber.BaseRawData;
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.DelimitedTrack1Format;
+import us.fatehi.magnetictrack.Track1Field;
+import us.fatehi.magnetictrack.Track1FormatB;
+import us.fatehi.magnetictrack.Track1Formats;
+import us.fatehi.magnetictrack.Track2;
+import us.fatehi.magnetictrack.Track3;
+import us.fatehi.magnetictrack.TrackCodec;
+
+public class TrackCodecTest {
+
+  private static final String[] swipes = {
+    "",
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?",
+    "%B379580832431161^ /                        ^1508121140165241?;379580832431161=150812114016524100000?+6202408082356005=15046200000010000000000004976?",
+    "%B7083560000013710910^MICHAELS OPEN VALUE CARD  ^8551?;7083560000013710910=8551?",
+    "%B5266092201416174^FATEHI/SUALEH^^^?\n+6202608082356005=15046200000010000000000004976?",
+    "B5266092201416174^FATEHI/SUALEH^1604201000000000000000000000000000",
+    ";5350290149345177=16042010000056700100?",
+    "%B5350290149345177^FÄTEHI/SUALEH^16042010000000000000000000000000000567001000?",
+    "not a card swipe at all",
+  };
+
+  @AfterEach
+  public void unregister() {
+    Track1Formats.unregister('A');
+  }
+
+  @Test
+  public void disposedRawData() {
+    final Track1FormatB track1 =
+        Track1FormatB.from(
+            "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?");
+    track1.disposeRawData();
+
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    TrackCodec.write(track1, buffer);
+    final Track1FormatB decoded = TrackCodec.readTrack1(buffer.flip());
+
+    assertThat(decoded.hasRawData(), is(false));
+    assertThat(decoded.getName().getFullName(), is("Sualeh Fatehi"));
+    assertThat(decoded.getExpirationDate(), is(track1.getExpirationDate()));
+    assertThat(decoded.getServiceCode(), is(track1.getServiceCode()));
+    assertThat(decoded.getAccountNumber().getAccountNumber(), is("5350290149345177"));
+    assertThat(decoded.getDiscretionaryData(), is(track1.getDiscretionaryData()));
+  }
+
+  @Test
+  public void emptyTracks() {
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    TrackCodec.write(Track2.from(""), buffer);
+    TrackCodec.write(Track3.from(""), buffer);
+    buffer.flip();
+
+    final Track2 track2 = TrackCodec.readTrack2(buffer);
+    assertThat(track2.hasRawData(), is(false));
+    assertThat(track2.hasAccountNumber(), is(false));
+    final Track3 track3 = TrackCodec.readTrack3(buffer);
+    assertThat(track3.hasRawData(), is(false));
+    assertThat(track3.getDiscretionaryData(), is(nullValue()));
+    assertThat(buffer.hasRemaining(), is(false));
+  }
+
+  @Test
+  public void incomplete() {
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    TrackCodec.write(BankCardMagneticTrack.from(swipes[1]), buffer);
+    buffer.flip().limit(buffer.limit() - 1);
+
+    assertThrows(
+        BufferUnderflowException.class, () -> TrackCodec.readBankCardMagneticTrack(buffer));
+    assertThat(buffer.position(), is(0));
+  }
+
+  @Test
+  public void notEnoughSpace() {
+    final ByteBuffer buffer = ByteBuffer.allocate(16);
+    buffer.put((byte) 1);
+
+    assertThrows(
+        BufferOverflowException.class,
+        () -> TrackCodec.write(BankCardMagneticTrack.from(swipes[1]), buffer));
+    assertThat(buffer.position(), is(1));
+  }
+
+  @Test
+  public void otherFormat() {
+    Track1Formats.register(
+        new DelimitedTrack1Format(
+            'A',
+            '^',
+            Track1Field.Name,
+            Track1Field.AccountNumber,
+            Track1Field.ExpirationDate,
+            Track1Field.DiscretionaryData));
+    final String swipe =
+        "%AFATEHI/SUALEH^5350290149345177^1604^0000567001000?;5350290149345177=16042010000056700100?";
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from(swipe);
+
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    TrackCodec.write(track, buffer);
+    TrackCodec.write(track.getTrack1(), buffer);
+    buffer.flip();
+
+    // Track 1 keeps its own layout
+    final BankCardMagneticTrack decoded = TrackCodec.readBankCardMagneticTrack(buffer);
+    assertThat(decoded.getRawData(), is(swipe));
+    assertThat(decoded.toString(), is(track.toString()));
+    final Track1FormatB track1 = TrackCodec.readTrack1(buffer);
+    assertThat(track1.getFormatCode(), is("A"));
+    assertThat(track1.getName(), is(track.getTrack1().getName()));
+    assertThat(track1.getAccountNumber().getAccountNumber(), is("5350290149345177"));
+    assertThat(track1.getExpirationDate().getExpirationDate(), is(YearMonth.of(2016, 4)));
+    assertThat(track1.getDiscretionaryData(), is("0000567001000"));
+
+    // The track can only be read again with its format
+    buffer.rewind();
+    Track1Formats.unregister('A');
+    assertThrows(
+        IllegalArgumentException.class, () -> TrackCodec.readBankCardMagneticTrack(buffer));
+    assertThat(buffer.position(), is(0));
+
+    // The layout is lost once the raw track data is disposed
+    track.getTrack1().disposeRawData();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> TrackCodec.write(track.getTrack1(), buffer.clear()));
+    assertThat(buffer.position(), is(0));
+  }
+
+  @Test
+  public void otherFormatRegistered() {
+    final Track1Field[] fields = {
+      Track1Field.Name,
+      Track1Field.AccountNumber,
+      Track1Field.ExpirationDate,
+      Track1Field.DiscretionaryData
+    };
+    Track1Formats.register(new DelimitedTrack1Format('A', '^', fields));
+    final Track1FormatB track1 =
+        Track1FormatB.from("%AFATEHI/SUALEH^5350290149345177^1604^0000567001000?");
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    TrackCodec.write(track1, buffer);
+    buffer.flip();
+
+    // Decoding reads the track with the format that is registered at the time
+    Track1Formats.unregister('A');
+    assertThrows(IllegalArgumentException.class, () -> TrackCodec.readTrack1(buffer));
+    assertThat(buffer.position(), is(0));
+
+    Track1Formats.register(
+        new DelimitedTrack1Format(
+            'A',
+            '^',
+            Track1Field.AccountNumber,
+            Track1Field.Name,
+            Track1Field.ExpirationDate,
+            Track1Field.DiscretionaryData));
+    assertThrows(IllegalArgumentException.class, () -> TrackCodec.readTrack1(buffer));
+    assertThat(buffer.position(), is(0));
+
+    Track1Formats.unregister('A');
+    Track1Formats.register(new DelimitedTrack1Format('A', '^', fields));
+    final Track1FormatB decoded = TrackCodec.readTrack1(buffer);
+    assertThat(decoded.getRawData(), is(track1.getRawData()));
+    assertThat(decoded.getName(), is(track1.getName()));
+  }
+
+  @Test
+  public void rawData() throws Exception {
+    final String swipe =
+        " %B5350290149345177^FATEHI/SUALEH^1604201?\r\n;5350290149345177=1604201?\n+12?\n";
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from(swipe);
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    TrackCodec.write(track, buffer);
+    buffer.flip();
+
+    // Characters around the tracks are kept
+    final BankCardMagneticTrack decoded = TrackCodec.readBankCardMagneticTrack(buffer);
+    assertThat(decoded.getRawData(), is(swipe));
+    assertThat(decoded.getTrack2().getRawData(), is(track.getTrack2().getRawData()));
+    assertThat(((BankCardMagneticTrack) roundTrip(track)).getRawData(), is(swipe));
+
+    // Raw track data of the swipe is kept whole when its tracks cannot be found in it
+    track.getTrack1().disposeRawData();
+    final BankCardMagneticTrack disposedTrack1 = (BankCardMagneticTrack) roundTrip(track);
+    assertThat(disposedTrack1.getRawData(), is(swipe));
+    assertThat(disposedTrack1.getTrack1().hasRawData(), is(false));
+  }
+
+  @Test
+  public void roundTrip() {
+    final ByteBuffer buffer = ByteBuffer.allocate(4096);
+    for (final String swipe : swipes) {
+      TrackCodec.write(BankCardMagneticTrack.from(swipe), buffer);
+    }
+    buffer.flip();
+
+    for (final String swipe : swipes) {
+      final BankCardMagneticTrack track = BankCardMagneticTrack.from(swipe);
+      final BankCardMagneticTrack decoded = TrackCodec.readBankCardMagneticTrack(buffer);
+      assertThat(decoded.toString(), is(track.toString()));
+      assertThat(decoded.getRawData(), is(track.getRawData()));
+      assertThat(decoded.getTrack1().getFormatCode(), is(track.getTrack1().getFormatCode()));
+      assertThat(decoded.getTrack1().getName(), is(track.getTrack1().getName()));
+      assertThat(
+          decoded.getTrack2().getAccountNumber().getAccountNumber(),
+          is(track.getTrack2().getAccountNumber().getAccountNumber()));
+      assertThat(
+          decoded.getTrack2().getExpirationDate(), is(track.getTrack2().getExpirationDate()));
+      assertThat(decoded.getTrack2().getServiceCode(), is(track.getTrack2().getServiceCode()));
+    }
+    assertThat(buffer.hasRemaining(), is(false));
+  }
+
+  @Test
+  public void serialization() throws Exception {
+    final BankCardMagneticTrack track = BankCardMagneticTrack.from(swipes[2]);
+    // Fields that have been created are serialized too
+    assertThat(
+        track.getTrack2().getExpirationDate().getExpirationDate(), is(YearMonth.of(2015, 8)));
+    final Track2 track2 = Track2.from(swipes[6]);
+    track2.disposeRawData();
+
+    final BankCardMagneticTrack deserializedTrack = (BankCardMagneticTrack) roundTrip(track);
+    assertThat(deserializedTrack.toString(), is(track.toString()));
+    assertThat(deserializedTrack.getTrack3().getRawData(), is(track.getTrack3().getRawData()));
+    assertThat(deserializedTrack, is(instanceOf(BaseRawData.class)));
+
+    final Track2 deserializedTrack2 = (Track2) roundTrip(track2);
+    assertThat(deserializedTrack2.hasRawData(), is(false));
+    assertThat(deserializedTrack2.getAccountNumber().getAccountNumber(), is("5350290149345177"));
+    assertThat(deserializedTrack2, is(instanceOf(BaseRawData.class)));
+  }
+
+  @Test
+  public void smallerThanSerialization() throws Exception {
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    TrackCodec.write(BankCardMagneticTrack.from(swipes[1]), buffer);
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(BankCardMagneticTrack.from(swipes[1]));
+    }
+
+    assertThat(buffer.position(), is(lessThan(swipes[1].length())));
+    assertThat(buffer.position(), is(lessThan(bytes.size())));
+  }
+
+  private Object roundTrip(final Object object) throws Exception {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(object);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return in.readObject();
+    }
+  }
+
+  @Test
+  public void unsupportedVersion() {
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    TrackCodec.write(Track2.from(swipes[6]), buffer);
+    buffer.flip().put(0, (byte) 99);
+
+    assertThrows(IllegalArgumentException.class, () -> TrackCodec.readTrack2(buffer));
+    assertThat(buffer.position(), is(0));
+  }
+
+  @Test
+  public void wrongType() {
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    TrackCodec.write(Track2.from(swipes[6]), buffer);
+    buffer.flip();
+
+    assertThrows(IllegalArgumentException.class, () -> TrackCodec.readTrack1(buffer));
+    assertThat(TrackCodec.readTrack2(buffer).getRawData(), is(swipes[6]));
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.TrackFileReader;
+
+public class TrackFileReaderTest {
+
+  private static final String[] tracks = {
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?",
+    ";636294169881005271827?",
+    "",
+    "+6202608082356005=15046200000010000000000004976?",
+    "%B379580832431161^ /                        ^1508121140165241?;379580832431161=150812114016524100000?+6202408082356005=15046200000010000000000004976?",
+    " ;5266092201416174=16042010000056700100? ",
+  };
+
+  private static final String[] lineTerminators = {"\n", "\r\n", "\r"};
+
+  @TempDir public Path tempDir;
+
+  @Test
+  public void emptyFile() throws IOException {
+    final Path file = write("");
+    try (final TrackFileReader reader = TrackFileReader.open(file)) {
+      assertThat(reader.stream().count(), is(0L));
+      assertThat(reader.iterator().hasNext(), is(false));
+    }
+  }
+
+  @Test
+  public void iterator() throws IOException {
+    final Path file = write(swipes(100, true));
+    final List<String> parsed = new ArrayList<>();
+    try (final TrackFileReader reader = TrackFileReader.open(file)) {
+      final Iterator<BankCardMagneticTrack> iterator = reader.iterator();
+      while (iterator.hasNext()) {
+        parsed.add(iterator.next().toString());
+      }
+    }
+    assertThat(parsed, is(expected(file)));
+  }
+
+  @Test
+  public void noFinalLineTerminator() throws IOException {
+    final Path file = write(swipes(10, false));
+    try (final TrackFileReader reader = TrackFileReader.open(file)) {
+      assertThat(toStrings(reader.stream()), is(expected(file)));
+    }
+  }
+
+  @Test
+  public void parallelStream() throws IOException {
+    final Path file = write(swipes(5_000, true));
+    // Small threshold, so that the file is split into many chunks
+    try (final TrackFileReader reader = TrackFileReader.open(file, 1_000)) {
+      assertThat(toStrings(reader.parallelStream()), is(expected(file)));
+    }
+  }
+
+  @Test
+  public void stream() throws IOException {
+    final Path file = write(swipes(1_000, true));
+    try (final TrackFileReader reader = TrackFileReader.open(file)) {
+      assertThat(toStrings(reader.stream()), is(expected(file)));
+    }
+  }
+
+  private List<String> expected(final Path file) throws IOException {
+    try (final Stream<String> lines = Files.lines(file, US_ASCII)) {
+      return toStrings(lines.map(BankCardMagneticTrack::from));
+    }
+  }
+
+  private String swipes(final int count, final boolean finalLineTerminator) {
+    final StringBuilder buffer = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        buffer.append(lineTerminators[i % lineTerminators.length]);
+      }
+      buffer.append(tracks[i % tracks.length]);
+    }
+    if (finalLineTerminator) {
+      buffer.append("\r\n");
+    }
+    return buffer.toString();
+  }
+
+  private List<String> toStrings(final Stream<BankCardMagneticTrack> tracks) {
+    return tracks.map(BankCardMagneticTrack::toString).collect(toList());
+  }
+
+  private Path write(final String swipes) throws IOException {
+    final Path file = tempDir.resolve("swipes.txt");
+    Files.write(file, swipes.getBytes(US_ASCII));
+    return file;
+  }
+}
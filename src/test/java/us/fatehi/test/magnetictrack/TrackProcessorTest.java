@@ -0,0 +1,281 @@
+/*
+ *
+ * Magnetic Track Parser
+ * https://github.com/sualeh/magnetictrackparser
+ * Copyright (c) 2014-2026, Sualeh Fatehi.
+ *
+ */
+package us.fatehi.test.magnetictrack;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.magnetictrack.BankCardMagneticTrack;
+import us.fatehi.magnetictrack.ParseListener;
+import us.fatehi.magnetictrack.ParseListeners;
+import us.fatehi.magnetictrack.TrackFailure;
+import us.fatehi.magnetictrack.TrackOutcome;
+import us.fatehi.magnetictrack.TrackProcessor;
+
+public class TrackProcessorTest {
+
+  private static final String[] swipes = {
+    "%B5350290149345177^FATEHI/SUALEH^16042010000000000000000000000000000567001000?;5350290149345177=16042010000056700100?",
+    ";5350290149345177=16042010000056700100?",
+    "+6202408082356005=15046200000010000000000004976?",
+    "not a card swipe at all",
+    ";4111111111111111=991220100000567001?",
+  };
+
+  /** Publishes items synchronously, as they are requested. */
+  private static final class ArrayPublisher<T> implements Flow.Publisher<T> {
+
+    private final T[] items;
+    private final AtomicLong requested = new AtomicLong();
+    private volatile boolean cancelled;
+    private int next;
+
+    ArrayPublisher(final T[] items) {
+      this.items = items;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super T> subscriber) {
+      subscriber.onSubscribe(
+          new Flow.Subscription() {
+            @Override
+            public void cancel() {
+              cancelled = true;
+            }
+
+            @Override
+            public void request(final long n) {
+              requested.addAndGet(n);
+              for (long i = 0; i < n && next < items.length && !cancelled; i++) {
+                subscriber.onNext(items[next++]);
+              }
+              if (next == items.length && !cancelled) {
+                cancelled = true;
+                subscriber.onComplete();
+              }
+            }
+          });
+    }
+  }
+
+  /** Collects tracks, and only requests more when asked to. */
+  private static class Collector implements Flow.Subscriber<BankCardMagneticTrack> {
+
+    private final List<BankCardMagneticTrack> tracks = new ArrayList<>();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+
+    @Override
+    public void onComplete() {
+      done.complete(null);
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+      done.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onNext(final BankCardMagneticTrack item) {
+      tracks.add(item);
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+  }
+
+  @Test
+  public void backpressure() {
+    final ArrayPublisher<String> publisher = new ArrayPublisher<>(swipes);
+    final TrackProcessor<String> processor =
+        TrackProcessor.forStrings(Runnable::run, (swipe, e) -> {});
+    final Collector collector = new Collector();
+    processor.subscribe(collector);
+    publisher.subscribe(processor);
+
+    assertThat(publisher.requested.get(), is(0L));
+    collector.subscription.request(2);
+    assertThat(publisher.requested.get(), is(2L));
+    assertThat(collector.tracks.size(), is(2));
+    assertThat(collector.done.isDone(), is(false));
+
+    collector.subscription.request(10);
+    assertThat(collector.tracks.size(), is(swipes.length));
+    assertThat(collector.done.isDone(), is(true));
+    for (int i = 0; i < swipes.length; i++) {
+      assertThat(collector.tracks.get(i).getRawData(), is(swipes[i]));
+    }
+  }
+
+  @Test
+  public void badRequest() {
+    final ArrayPublisher<String> publisher = new ArrayPublisher<>(swipes);
+    final TrackProcessor<String> processor =
+        TrackProcessor.forStrings(Runnable::run, (swipe, e) -> {});
+    final Collector collector = new Collector();
+    processor.subscribe(collector);
+    publisher.subscribe(processor);
+
+    collector.subscription.request(0);
+    assertThat(collector.done.isCompletedExceptionally(), is(true));
+    assertThat(publisher.cancelled, is(true));
+  }
+
+  @Test
+  public void bytes() {
+    final byte[][] bytes = new byte[swipes.length][];
+    for (int i = 0; i < swipes.length; i++) {
+      bytes[i] = swipes[i].getBytes(US_ASCII);
+    }
+    final TrackProcessor<byte[]> processor =
+        TrackProcessor.forBytes(Runnable::run, (swipe, e) -> {});
+    final Collector collector = new Collector();
+    processor.subscribe(collector);
+    new ArrayPublisher<>(bytes).subscribe(processor);
+
+    collector.subscription.request(Long.MAX_VALUE);
+    assertThat(collector.tracks.size(), is(swipes.length));
+    assertThat(collector.tracks.get(1).getTrack2().getRawData(), is(swipes[1]));
+    assertThat(collector.done.isDone(), is(true));
+  }
+
+  @Test
+  public void concurrent() throws Exception {
+    final List<String> failures = new ArrayList<>();
+    final TrackProcessor<String> processor =
+        TrackProcessor.forStrings(ForkJoinPool.commonPool(), (swipe, e) -> failures.add(swipe));
+    final Collector collector =
+        new Collector() {
+          @Override
+          public void onNext(final BankCardMagneticTrack item) {
+            super.onNext(item);
+            // Request one at a time, from inside the processor
+            super.subscription.request(1);
+          }
+        };
+    processor.subscribe(collector);
+
+    try (SubmissionPublisher<String> publisher = new SubmissionPublisher<>()) {
+      publisher.subscribe(processor);
+      collector.subscription.request(1);
+      for (int i = 0; i < 1000; i++) {
+        publisher.submit(swipes[i % swipes.length]);
+      }
+    }
+
+    collector.done.get(10, TimeUnit.SECONDS);
+    assertThat(collector.tracks.size(), is(1000));
+    for (int i = 0; i < 1000; i++) {
+      assertThat(collector.tracks.get(i).getRawData(), is(swipes[i % swipes.length]));
+    }
+    assertThat(failures.isEmpty(), is(true));
+  }
+
+  @Test
+  public void failures() {
+    final List<String> failures = new ArrayList<>();
+    final ArrayPublisher<String> publisher = new ArrayPublisher<>(swipes);
+    final TrackProcessor<String> processor =
+        TrackProcessor.forStrings(
+            Runnable::run,
+            (swipe, e) -> {
+              assertThat(e, is(instanceOf(IllegalStateException.class)));
+              failures.add(swipe);
+            });
+    final Collector collector = new Collector();
+    processor.subscribe(collector);
+    publisher.subscribe(processor);
+
+    // Fail one swipe with a listener that throws an exception
+    ParseListeners.register(
+        new ParseListener() {
+          @Override
+          public void onSwipe(final int inputLength, final long elapsedNanos) {
+            if (inputLength == swipes[1].length()) {
+              throw new IllegalStateException("Failed");
+            }
+          }
+
+          @Override
+          public void onTrack(
+              final int track,
+              final TrackOutcome outcome,
+              final TrackFailure failure,
+              final int inputLength,
+              final long elapsedNanos) {
+            // Not needed
+          }
+        });
+    try {
+      collector.subscription.request(3);
+    } finally {
+      ParseListeners.unregister();
+    }
+
+    assertThat(failures, is(List.of(swipes[1])));
+    assertThat(collector.tracks.size(), is(3));
+    assertThat(collector.tracks.get(1).getRawData(), is(swipes[2]));
+    assertThat(publisher.requested.get(), is(4L));
+
+    collector.subscription.request(10);
+    assertThat(collector.tracks.size(), is(swipes.length - 1));
+    assertThat(collector.done.isDone(), is(true));
+    assertThat(collector.done.isCompletedExceptionally(), is(false));
+  }
+
+  @Test
+  public void oneSubscriber() {
+    final TrackProcessor<String> processor =
+        TrackProcessor.forStrings(Runnable::run, (swipe, e) -> {});
+    processor.subscribe(new Collector());
+    final Collector second = new Collector();
+    processor.subscribe(second);
+
+    assertThat(second.done.isCompletedExceptionally(), is(true));
+    assertThat(second.tracks.isEmpty(), is(true));
+  }
+
+  @Test
+  public void upstreamError() {
+    final TrackProcessor<String> processor =
+        TrackProcessor.forStrings(Runnable::run, (swipe, e) -> {});
+    final Collector collector = new Collector();
+    processor.subscribe(collector);
+    processor.onSubscribe(
+        new Flow.Subscription() {
+          @Override
+          public void cancel() {
+            // Not needed
+          }
+
+          @Override
+          public void request(final long n) {
+            // Not needed
+          }
+        });
+    processor.onError(new IllegalStateException("Upstream failed"));
+
+    assertThat(collector.done.isCompletedExceptionally(), is(true));
+    assertThat(collector.tracks.isEmpty(), is(true));
+  }
+}